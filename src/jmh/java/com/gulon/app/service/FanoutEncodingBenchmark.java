@@ -0,0 +1,99 @@
+package com.gulon.app.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지 1건을 스트림 엔트리에서 브로커 메시지로 만들기까지의 인코딩 비용 비교
+ * - legacy: payload Map → envelope Map → JSON 문자열 발행 → 수신 노드에서 Map으로 파싱 → 메시지 컨버터로 다시 인코딩
+ * - preEncoded: JsonGenerator로 payload를 한 번만 인코딩 → 바이트 프레임 발행 → 수신 노드는 payload 구간만 잘라 전달
+ * 브로커가 구독 세션마다 만드는 메시지는 두 방식 모두 같은 payload를 공유하므로 전달 1건당 할당량은 이 비용으로 비교된다.
+ * 실행: ./gradlew jmh (gc 프로파일러의 gc.alloc.rate.norm이 메시지 1건당 할당 바이트)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FanoutEncodingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> ENVELOPE_TYPE = new TypeReference<>() {};
+
+    @Param({"20", "500"})
+    private int messageLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+    private final MessageHeaders headers = new MessageHeaders(Map.of());
+
+    private String streamId;
+    private String messageId;
+    private String senderId;
+    private String message;
+    private String timestamp;
+    private String destination;
+
+    @Setup
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        streamId = now + "-0";
+        messageId = UUID.randomUUID().toString();
+        senderId = UUID.randomUUID().toString();
+        message = "가".repeat(messageLength);
+        timestamp = String.valueOf(now);
+        destination = ClusterFanoutService.GROUP_DESTINATION_PREFIX + UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Message<?> legacy() throws Exception {
+        // 발행 노드
+        Map<String, Object> payload = Map.of(
+                "messageId", messageId,
+                "senderId", senderId,
+                "message", message,
+                "messageType", "TEXT",
+                "timestamp", timestamp);
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("destination", destination);
+        envelope.put("userId", null);
+        envelope.put("payload", payload);
+        byte[] published = objectMapper.writeValueAsString(envelope).getBytes(StandardCharsets.UTF_8);
+
+        // 수신 노드
+        Map<String, Object> received = objectMapper.readValue(published, ENVELOPE_TYPE);
+        return converter.toMessage(received.get("payload"), headers);
+    }
+
+    @Benchmark
+    public Message<byte[]> preEncoded() throws Exception {
+        // 발행 노드
+        byte[] json = RedisStreamListener.encodeChatPayload(objectMapper.getFactory(), streamId, messageId, senderId,
+                message, "TEXT", timestamp, "1", null);
+        byte[] published = ClusterFanoutService.frame(destination, null, Long.parseLong(timestamp), json);
+
+        // 수신 노드
+        ClusterFanoutService.Frame frame = ClusterFanoutService.parseFrame(published);
+        return ClusterFanoutService.jsonMessage(frame.payload, frame.originMillis);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.cache")
+@Getter
+@Setter
+public class ChatCacheConfig {
+
+    private Integer windowSize = 50; // 그룹별로 보관할 최근 메시지 수
+    private Integer maxGroups = 1000; // 메모리에 유지할 최대 그룹 수 (초과 시 LRU 제거)
+    private Integer windowExpiry = 60; // 윈도우 유효 시간 (초), 다른 노드에서 전송된 메시지 반영 주기
+}
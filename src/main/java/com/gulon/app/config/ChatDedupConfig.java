@@ -0,0 +1,16 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.dedup")
+@Getter
+@Setter
+public class ChatDedupConfig {
+
+    private Long window = 3600L; // 같은 클라이언트 메시지 ID의 재전송을 중복으로 판단하는 시간 (초)
+    private Integer maxClientMessageIdLength = 64; // 클라이언트 메시지 ID 최대 길이 (chat_message.client_message_id 컬럼 길이)
+}
@@ -0,0 +1,20 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.events")
+@Getter
+@Setter
+public class ChatEventConfig {
+
+    private Long flushInterval = 250L; // 채팅방 임시 이벤트를 모아서 전송하는 주기 (밀리초)
+    private Long minInterval = 1000L; // 같은 사용자/채팅방/종류의 같은 이벤트를 다시 받기까지 최소 간격 (밀리초)
+    private Long typingTtl = 6000L; // 입력 중 표시 유지 시간 (밀리초), 클라이언트는 이 시간 안에 다시 보내야 유지됨
+    private Long readingTtl = 60000L; // 읽는 중 표시 유지 시간 (밀리초)
+    private Integer maxDataLength = 100; // 이벤트 부가 정보 최대 길이
+    private Long throttleExpiry = 60000L; // 사용하지 않는 제한 상태를 정리하기까지의 시간 (밀리초)
+}
@@ -0,0 +1,19 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.persistence")
+@Getter
+@Setter
+public class ChatPersistenceConfig {
+
+    private boolean enabled = true;
+    private String consumerGroup = "chat-persister";
+    private Integer batchSize = 200; // 한 번에 커밋할 최대 메시지 수
+    private Long flushInterval = 200L; // 배치가 차지 않아도 커밋하는 주기 (밀리초)
+    private Long retryBackoff = 1000L; // 커밋 실패 시 재시도 대기 시간 (밀리초)
+}
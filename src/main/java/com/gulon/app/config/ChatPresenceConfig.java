@@ -0,0 +1,19 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.presence")
+@Getter
+@Setter
+public class ChatPresenceConfig {
+
+    private Long heartbeatInterval = 10000L; // STOMP 하트비트 주기 (밀리초), 서버/클라이언트 양방향
+    private Long ttl = 60000L; // 접속 상태 유효 시간 (밀리초), 하트비트가 끊긴 세션은 이후 오프라인 처리
+    private Long refreshInterval = 20000L; // 접속 상태 만료 시각 갱신 주기 (밀리초)
+    private Long snapshotCacheTtl = 2000L; // 노드 로컬 접속자 스냅샷 캐시 유지 시간 (밀리초)
+    private Long lastSeenRetention = 2592000000L; // 마지막 접속 시각 보관 기간 (밀리초), 30일
+}
@@ -0,0 +1,16 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.read")
+@Getter
+@Setter
+public class ChatReadConfig {
+
+    private Long checkpointInterval = 60000L; // Redis 읽음 위치를 DB에 기록하는 주기 (밀리초)
+    private Integer checkpointBatchSize = 1000; // 1회 체크포인트에서 처리할 최대 읽음 위치 수
+}
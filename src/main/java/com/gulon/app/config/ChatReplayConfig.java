@@ -0,0 +1,17 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.replay")
+@Getter
+@Setter
+public class ChatReplayConfig {
+
+    private Integer maxMessages = 500; // 1회 재전송 응답의 최대 메시지 수 (초과분은 hasMore로 이어서 요청)
+    private Integer scanBatchSize = 1000; // 파티션 스트림을 한 번에 읽는 엔트리 수
+    private Integer maxScanEntries = 20000; // 1회 요청에서 스캔할 최대 스트림 엔트리 수 (다른 그룹 엔트리 포함)
+}
@@ -0,0 +1,16 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.search")
+@Getter
+@Setter
+public class ChatSearchConfig {
+
+    private boolean createIndex = false; // 시작 시 FULLTEXT 인덱스가 없으면 생성 (개발 환경용, 운영은 db/chat_message_search_index.sql)
+    private Integer ngramTokenSize = 2; // MySQL ngram_token_size 설정과 일치해야 함
+}
@@ -0,0 +1,15 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.id-cache")
+@Getter
+@Setter
+public class IdCacheConfig {
+
+    private Integer maxEntries = 100000; // 종류(그룹/사용자)별로 노드 메모리에 유지할 최대 항목 수 (초과 시 LRU 제거)
+}
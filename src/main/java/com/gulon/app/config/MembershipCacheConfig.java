@@ -0,0 +1,16 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.membership-cache")
+@Getter
+@Setter
+public class MembershipCacheConfig {
+
+    private Integer maxEntries = 100000; // 노드 메모리에 유지할 최대 (그룹, 사용자) 항목 수 (초과 시 LRU 제거)
+    private Integer expiry = 300; // 항목 유효 시간 (초), 무효화 메시지를 놓친 경우의 안전장치
+}
@@ -0,0 +1,20 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.inbox")
+@Getter
+@Setter
+public class NotificationInboxConfig {
+
+    private Integer maxItems = 200; // Redis에 보관할 사용자별 최근 알림 수 (초과분은 오래된 것부터 DB로 이동)
+    private Long coalesceWindow = 60000L; // 같은 종류/제목의 알림을 하나로 합치는 시간 (밀리초, 첫 알림 기준)
+    private Long flushInterval = 1000L; // 합쳐진 알림의 갱신을 모아 전송하는 주기 (밀리초)
+    private Long appliedTtl = 86400000L; // 처리한 스트림 엔트리 기록 유지 시간 (재처리 시 중복 반영 방지, 밀리초)
+    private Integer defaultPageSize = 20;
+    private Integer maxPageSize = 100;
+}
@@ -0,0 +1,216 @@
+package com.gulon.app.config;
+
+import com.gulon.app.service.ChatDeliveryMetrics;
+import com.gulon.app.service.ClusterFanoutService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 세션별 outbound 대기열 관리 (느린 클라이언트 보호)
+ * clientOutboundChannel에 들어온 프레임 수와 실제 소켓으로 전송된 프레임 수의 차이로 세션별 대기 깊이를 추적하고,
+ * dropThreshold를 넘으면 /topic 브로드캐스트 프레임을 버리고, disconnectThreshold를 넘으면 세션을 종료한다.
+ * 종료된 클라이언트는 재연결 후 마지막으로 받은 메시지 이후를 히스토리 API로 이어받는다.
+ * 같은 집계로 채널 진입부터 소켓 쓰기까지의 지연과, 팬아웃된 채팅 메시지의 전체 전달 지연도 기록한다.
+ * 세션별 발행 순서 보존(setPreservePublishOrder)으로 채널 진입 순서와 소켓 쓰기 순서가 같으므로 FIFO로 짝지으며,
+ * 채널을 거치지 않고 세션에 직접 쓰이는 ERROR 프레임(요청 처리 오류)은 짝짓기와 집계에서 제외한다.
+ */
+@Component
+@Slf4j
+public class OutboundBackpressureInterceptor implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final String DROPPABLE_DESTINATION_PREFIX = "/topic/";
+    private static final String ERROR_FRAME_PREFIX = "ERROR\n";
+
+    private final WebSocketTransportConfig transportConfig;
+    private final ChatDeliveryMetrics deliveryMetrics;
+    private final Map<String, SessionQueue> queues = new ConcurrentHashMap<>();
+    private final Counter droppedFrames;
+    private final Counter slowConsumerDisconnects;
+
+    public OutboundBackpressureInterceptor(WebSocketTransportConfig transportConfig, ChatDeliveryMetrics deliveryMetrics,
+                                           MeterRegistry meterRegistry) {
+        this.transportConfig = transportConfig;
+        this.deliveryMetrics = deliveryMetrics;
+        this.droppedFrames = Counter.builder("websocket.outbound.dropped")
+                .description("느린 세션에서 버려진 프레임 수")
+                .register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("websocket.outbound.disconnects")
+                .description("대기열 초과로 종료된 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth", queues, OutboundBackpressureInterceptor::totalDepth)
+                .description("전체 세션의 전송 대기 프레임 수")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.max", queues, OutboundBackpressureInterceptor::maxDepth)
+                .description("가장 많이 밀린 세션의 전송 대기 프레임 수")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions", queues, Map::size)
+                .description("현재 노드의 WebSocket 세션 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionQueue queue = sessionId != null ? queues.get(sessionId) : null;
+        if (queue == null) {
+            return message;
+        }
+
+        long depth = queue.depth();
+        if (depth >= transportConfig.getDisconnectThreshold()) {
+            disconnect(queue, depth);
+            return null;
+        }
+        if (depth >= transportConfig.getDropThreshold() && isDroppable(message)) {
+            droppedFrames.increment();
+            return null;
+        }
+        Object origin = message.getHeaders().get(ClusterFanoutService.ORIGIN_TIMESTAMP_HEADER);
+        StompCommand command = StompHeaderAccessor.wrap(message).getCommand();
+        queue.inFlight.add(new Frame(System.nanoTime(), origin instanceof Long millis ? millis : 0,
+                command == StompCommand.ERROR));
+        queue.enqueued.incrementAndGet();
+        return message;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionQueue queue = new SessionQueue(session);
+                queues.put(session.getId(), queue);
+                super.afterConnectionEstablished(new CountingSessionDecorator(session, queue, deliveryMetrics));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                queues.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * 구독 메시지 중 브로드캐스트 토픽만 버림 - 연결/영수증/에러/개인 큐 프레임은 항상 전달
+     */
+    private static boolean isDroppable(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return type == SimpMessageType.MESSAGE
+                && destination != null && destination.startsWith(DROPPABLE_DESTINATION_PREFIX);
+    }
+
+    private void disconnect(SessionQueue queue, long depth) {
+        if (!queue.closing.compareAndSet(false, true)) {
+            return;
+        }
+        slowConsumerDisconnects.increment();
+        log.warn("느린 WebSocket 세션 종료 - SessionId: {}, 대기 프레임: {}", queue.session.getId(), depth);
+        try {
+            queue.session.close(CloseStatus.SESSION_NOT_RELIABLE.withReason("slow consumer, resume from history"));
+        } catch (IOException e) {
+            log.debug("WebSocket 세션 종료 실패 - SessionId: {}", queue.session.getId(), e);
+        }
+    }
+
+    private static double totalDepth(Map<String, SessionQueue> queues) {
+        return queues.values().stream().mapToLong(SessionQueue::depth).sum();
+    }
+
+    private static double maxDepth(Map<String, SessionQueue> queues) {
+        return queues.values().stream().mapToLong(SessionQueue::depth).max().orElse(0);
+    }
+
+    private static class SessionQueue {
+        private final WebSocketSession session;
+        private final AtomicLong enqueued = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicBoolean closing = new AtomicBoolean();
+        // 채널을 거쳐 전송 대기 중인 프레임 - 세션별 전송 순서대로 소비
+        private final ConcurrentLinkedQueue<Frame> inFlight = new ConcurrentLinkedQueue<>();
+
+        SessionQueue(WebSocketSession session) {
+            this.session = session;
+        }
+
+        long depth() {
+            return Math.max(0, enqueued.get() - sent.get());
+        }
+    }
+
+    /**
+     * 채널에 들어온 프레임 - 채널 진입 시각(nano), 엔트리 생성 시각(밀리초, 없으면 0), ERROR 프레임 여부
+     */
+    private static class Frame {
+        private final long enqueuedAt;
+        private final long originMillis;
+        private final boolean error;
+
+        Frame(long enqueuedAt, long originMillis, boolean error) {
+            this.enqueuedAt = enqueuedAt;
+            this.originMillis = originMillis;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 실제 소켓 전송이 끝난 프레임 수 집계 및 소켓 쓰기 지연 기록
+     */
+    private static class CountingSessionDecorator extends WebSocketSessionDecorator {
+        private final SessionQueue queue;
+        private final ChatDeliveryMetrics deliveryMetrics;
+
+        CountingSessionDecorator(WebSocketSession session, SessionQueue queue, ChatDeliveryMetrics deliveryMetrics) {
+            super(session);
+            this.queue = queue;
+            this.deliveryMetrics = deliveryMetrics;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                Frame frame = queue.inFlight.peek();
+                // 채널에서 온 ERROR 프레임이 대기 중이 아닌데 ERROR 프레임이 쓰이면 세션에 직접 쓰인 프레임
+                if (frame != null && (frame.error || !isErrorFrame(message)) && queue.inFlight.remove(frame)) {
+                    queue.sent.incrementAndGet();
+                    deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_OUTBOUND, ChatDeliveryMetrics.STREAM_ANY, frame.enqueuedAt);
+                    if (frame.originMillis > 0) {
+                        deliveryMetrics.recordEndToEnd(frame.originMillis);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isErrorFrame(WebSocketMessage<?> message) {
+        return message instanceof TextMessage text && text.getPayload().startsWith(ERROR_FRAME_PREFIX);
+    }
+}
@@ -0,0 +1,41 @@
+package com.gulon.app.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인바운드 프레임(하트비트 포함)마다 세션 활동 시각 기록
+ * 활동이 끊긴 세션은 접속 상태 갱신에서 제외되어 TTL 이후 오프라인으로 처리됨
+ * 브로커 설정이 의존하므로 다른 서비스에 의존하지 않고, PresenceService가 이 값을 읽음
+ */
+@Component
+public class PresenceActivityInterceptor implements ChannelInterceptor {
+
+    private final Map<String, Long> lastActivity = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            lastActivity.put(sessionId, System.currentTimeMillis());
+        }
+        return message;
+    }
+
+    /**
+     * 마지막 프레임 수신 시각 (기록이 없으면 0)
+     */
+    public long lastActivity(String sessionId) {
+        return lastActivity.getOrDefault(sessionId, 0L);
+    }
+
+    public void remove(String sessionId) {
+        lastActivity.remove(sessionId);
+    }
+}
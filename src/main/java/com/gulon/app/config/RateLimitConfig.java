@@ -0,0 +1,35 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "chat.rate-limit")
+@Getter
+@Setter
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+
+    // 엔드포인트 분류별 토큰 버킷 규칙 (message: 채팅 메시지 전송, notification: 알림 전송)
+    private Map<String, Rule> rules = new HashMap<>();
+
+    private Integer localDenyCacheSize = 100000; // 거부된 버킷을 노드 메모리에 기억하는 최대 항목 수
+
+    /**
+     * 사용자별/그룹별 토큰 버킷 - capacity가 0이면 해당 범위는 제한하지 않음
+     */
+    @Getter
+    @Setter
+    public static class Rule {
+        private Integer userCapacity = 0; // 사용자별 최대 연속 요청 수
+        private Double userRefillPerSecond = 0.0; // 사용자별 초당 보충 토큰 수
+        private Integer groupCapacity = 0; // 그룹별 최대 연속 요청 수
+        private Double groupRefillPerSecond = 0.0; // 그룹별 초당 보충 토큰 수
+    }
+}
@@ -1,5 +1,6 @@
 package com.gulon.app.config;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,14 +8,18 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
 
 
 @Configuration
-public class RedisConfig {
+public class RedisConfig implements DisposableBean {
 
     @Value("${spring.data.redis.host}")
     private String host;
@@ -24,6 +29,9 @@ public class RedisConfig {
     @Value("${spring.data.redis.password}")
     private String password;
 
+    // Pub/Sub 메시지 전달 스레드 - 수신 순서대로 한 스레드에서 처리해 그룹별 팬아웃 순서 유지
+    private ThreadPoolTaskExecutor pubSubExecutor;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration redisConfiguration = new RedisStandaloneConfiguration();
@@ -50,13 +58,36 @@ public class RedisConfig {
 
     @Bean
     public StreamMessageListenerContainer<String, ?> streamMessageListenerContainer(
-            RedisConnectionFactory connectionFactory) {
+            RedisConnectionFactory connectionFactory, RedisStreamConfig streamConfig) {
         StreamMessageListenerContainerOptions<String, ?> options = StreamMessageListenerContainer
                 .StreamMessageListenerContainerOptions
                 .builder()
+                .pollTimeout(Duration.ofMillis(streamConfig.getPollTimeout()))
+                .batchSize(streamConfig.getBatchSize())
                 .build();
 
         return StreamMessageListenerContainer.create(connectionFactory, options);
     }
 
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // 기본 실행기는 메시지마다 새 스레드를 만들어 같은 채널의 메시지 순서가 섞이므로 단일 스레드로 전달
+        pubSubExecutor = new ThreadPoolTaskExecutor();
+        pubSubExecutor.setCorePoolSize(1);
+        pubSubExecutor.setMaxPoolSize(1);
+        pubSubExecutor.setThreadNamePrefix("redis-pubsub-");
+        pubSubExecutor.initialize();
+        container.setTaskExecutor(pubSubExecutor);
+        return container;
+    }
+
+    @Override
+    public void destroy() {
+        if (pubSubExecutor != null) {
+            pubSubExecutor.shutdown();
+        }
+    }
+
 }
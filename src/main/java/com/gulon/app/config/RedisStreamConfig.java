@@ -0,0 +1,35 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "redis.stream")
+@Getter
+@Setter
+public class RedisStreamConfig {
+
+    // 스트림 리스너 컨슈머 그룹 (같은 그룹의 노드들이 엔트리를 나눠서 처리)
+    private String consumerGroup = "gulon-listener";
+
+    // 노드별 컨슈머 이름 (컨슈머 그룹 내에서 노드마다 고유해야 함)
+    private String consumerName = "gulon-local";
+
+    // 채팅 스트림 파티션 수 (chat:stream:{0..N-1}, 그룹 ID의 consistent hash로 선택)
+    private Integer chatPartitions = 4;
+
+    // 파티션 수 변경 중 기존 파티션을 계속 읽기 위한 이전 파티션 수 (0이면 사용 안 함)
+    private Integer chatDrainPartitions = 0;
+
+    private Long pollTimeout = 1000L; // XREADGROUP 블로킹 시간 (밀리초)
+    private Integer batchSize = 10; // 한 번에 읽을 최대 엔트리 수
+
+    // pending 엔트리 회수 (XAUTOCLAIM) 설정
+    private Long claimMinIdle = 30000L; // 이 시간 이상 ACK 되지 않은 엔트리를 회수 (밀리초)
+    private Long claimInterval = 10000L; // 회수 주기 (밀리초)
+    private Integer claimBatchSize = 100; // 한 번에 회수할 최대 엔트리 수
+
+    private Long metricsInterval = 10000L; // 스트림 lag/pending 지표 수집 주기 (밀리초)
+}
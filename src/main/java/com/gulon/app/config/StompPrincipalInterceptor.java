@@ -0,0 +1,65 @@
+package com.gulon.app.config;
+
+import com.gulon.app.security.JwtTokenProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * STOMP CONNECT의 Authorization 헤더(Bearer 액세스 토큰)로 세션 사용자 지정
+ * /user 목적지 전송과 노드별 사용자 라우팅은 세션의 Principal 이름(사용자 publicId)을 기준으로 동작
+ * - 토큰이 유효하지 않으면 CONNECT 거부 (ERROR 프레임)
+ * - 토큰 없이 연결하면 Principal 없는 세션 (/user 목적지 수신 불가)
+ * - userId 헤더는 신뢰하지 않으며, 보낸 경우 토큰의 사용자와 다르면 거부
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompPrincipalInterceptor implements ChannelInterceptor {
+
+    public static final String USER_ID_HEADER = "userId";
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand()) && accessor.getUser() == null) {
+            String authorization = accessor.getFirstNativeHeader(JwtConfig.AUTHORIZATION_HEADER);
+            if (authorization == null || authorization.isBlank()) {
+                return message;
+            }
+            String userId = authenticate(authorization);
+            String claimed = accessor.getFirstNativeHeader(USER_ID_HEADER);
+            if (claimed != null && !claimed.isBlank() && !claimed.equals(userId)) {
+                log.warn("STOMP CONNECT 사용자 불일치 - Token: {}, Header: {}", userId, claimed);
+                throw new IllegalArgumentException("토큰의 사용자와 userId가 일치하지 않습니다.");
+            }
+            Principal principal = () -> userId;
+            accessor.setUser(principal);
+        }
+        return message;
+    }
+
+    /**
+     * Bearer 액세스 토큰 검증 후 사용자 publicId 반환
+     */
+    private String authenticate(String authorization) {
+        if (!authorization.startsWith(JwtConfig.HEADER_PREFIX)) {
+            throw new IllegalArgumentException("유효하지 않은 토큰입니다");
+        }
+        String token = authorization.substring(JwtConfig.HEADER_PREFIX.length()).trim();
+        if (!jwtTokenProvider.isTokenValid(token) || !jwtTokenProvider.isAccessToken(token)) {
+            throw new IllegalArgumentException("유효하지 않은 토큰입니다");
+        }
+        return jwtTokenProvider.getUserPublicIdFromToken(token).toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.gulon.app.config;
+
+import com.gulon.app.service.RateLimitService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOMP SEND 프레임의 요청 유입 제한
+ * 채팅 메시지(/app/chat/group/{groupId})는 사용자/그룹별, 알림(/app/notification/send)은 사용자별로 제한한다.
+ * 초과한 프레임은 버리고 보낸 세션의 /user/queue/errors로 사유와 재시도 대기 시간을 알린다.
+ * ERROR 프레임을 보내면 세션이 닫히므로 예외를 던지지 않으며, 그룹 버킷이 비면 그 그룹으로의 전송만 잠시 거부된다.
+ */
+@Component
+@Slf4j
+public class StompRateLimitInterceptor implements ChannelInterceptor {
+
+    public static final String ERROR_DESTINATION = "/queue/errors";
+
+    private static final String GROUP_SEND_PREFIX = "/app/chat/group/";
+    private static final String NOTIFICATION_SEND = "/app/notification/send";
+
+    private final RateLimitService rateLimitService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // 브로커 설정이 이 인터셉터에 의존하므로 템플릿은 지연 주입
+    public StompRateLimitInterceptor(RateLimitService rateLimitService, @Lazy SimpMessagingTemplate messagingTemplate) {
+        this.rateLimitService = rateLimitService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.SEND.equals(accessor.getCommand()) || accessor.getDestination() == null) {
+            return message;
+        }
+
+        String destination = accessor.getDestination();
+        // 세션 사용자가 없으면 세션 단위로 제한
+        String userId = accessor.getUser() != null ? accessor.getUser().getName() : "session:" + accessor.getSessionId();
+
+        try {
+            if (destination.startsWith(GROUP_SEND_PREFIX)) {
+                String groupId = destination.substring(GROUP_SEND_PREFIX.length());
+                if (!groupId.isEmpty() && groupId.indexOf('/') < 0) {
+                    rateLimitService.check(RateLimitService.MESSAGE, userId, groupId);
+                }
+            } else if (NOTIFICATION_SEND.equals(destination)) {
+                rateLimitService.check(RateLimitService.NOTIFICATION, userId, null);
+            }
+        } catch (RateLimitService.RateLimitExceededException e) {
+            sendError(accessor, e);
+            return null; // 프레임 버림 (세션 유지)
+        }
+        return message;
+    }
+
+    /**
+     * 거부 사유를 보낸 세션에만 전달 - 사용자 이름이 없으면 세션 ID로 대상 지정
+     */
+    private void sendError(StompHeaderAccessor accessor, RateLimitService.RateLimitExceededException e) {
+        String sessionId = accessor.getSessionId();
+        if (sessionId == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+
+        String user = accessor.getUser() != null ? accessor.getUser().getName() : sessionId;
+        RateLimitError error = new RateLimitError("RATE_LIMITED", e.getMessage(), e.getScope(),
+                e.getRetryAfterMillis(), accessor.getDestination(), accessor.getReceipt());
+        try {
+            messagingTemplate.convertAndSendToUser(user, ERROR_DESTINATION, error, headers.getMessageHeaders());
+        } catch (Exception ex) {
+            log.debug("요청 제한 알림 전송 실패 - Session: {}", sessionId, ex);
+        }
+    }
+
+    /**
+     * /user/queue/errors로 전달되는 요청 제한 알림
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RateLimitError {
+        private String code;
+        private String message;
+        private String scope; // "user", "group"
+        private long retryAfterMillis;
+        private String destination; // 거부된 SEND 프레임의 destination
+        private String receipt; // 거부된 프레임의 receipt 헤더 (없으면 null)
+    }
+}
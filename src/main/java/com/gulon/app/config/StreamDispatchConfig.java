@@ -0,0 +1,20 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "redis.stream.dispatch")
+@Getter
+@Setter
+public class StreamDispatchConfig {
+
+    // 스트림 엔트리 전송 lane 수 - 같은 그룹은 항상 같은 lane에서 순서대로 처리되고 lane끼리는 병렬로 처리됨
+    private Integer lanes = 8;
+
+    private Integer queueCapacity = 1000; // lane별 대기 큐 최대 크기
+    private Long offerTimeout = 5000L; // 큐가 가득 차 폴링 스레드가 대기할 때 경고를 남기는 주기 (자리가 날 때까지 계속 대기, 밀리초)
+    private Long shutdownTimeout = 10000L; // 종료 시 남은 작업을 처리하며 기다리는 최대 시간 (밀리초)
+}
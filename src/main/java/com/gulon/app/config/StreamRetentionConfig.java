@@ -0,0 +1,24 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "redis.stream.retention")
+@Getter
+@Setter
+public class StreamRetentionConfig {
+
+    // 보존 설정 - 모든 컨슈머 그룹이 처리한 엔트리 중 보존 기간이 지난 구간만 MINID로 trim (발행 시에는 trim 하지 않음)
+    // archiveEnabled가 false이면 파일로 옮기지 않고 trim만 수행
+    private boolean archiveEnabled = true;
+    private String archiveDir = "data/stream-archive"; // 세그먼트 파일 저장 경로 (노드 로컬 경로 - 여러 노드면 공유 볼륨을 마운트)
+    private Long retention = 600000L; // Redis에 유지할 최소 기간 (밀리초)
+    private Long archiveInterval = 60000L; // 아카이브 주기 (밀리초)
+    private Integer segmentSize = 5000; // 세그먼트 파일당 최대 엔트리 수
+    private Integer maxSegmentsPerRun = 20; // 1회 실행 시 생성할 최대 세그먼트 수
+    private Integer maxSegmentsPerRead = 50; // 히스토리 조회 1회에 읽을 최대 세그먼트 수 (넘으면 이어서 조회)
+    private Long safetyMaxLength = 1000000L; // 발행 시 적용하는 스트림 길이 상한 (MAXLEN ~, 0이면 미적용) - 아카이버/컨슈머가 멈췄을 때의 메모리 상한
+}
@@ -0,0 +1,22 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "redis.stream.retry")
+@Getter
+@Setter
+public class StreamRetryConfig {
+
+    // 스트림 엔트리 처리 재시도 - 마지막 시도까지 실패하면 DLQ(chat:stream:dlq)로 옮기고 ACK
+    private Integer maxAttempts = 3; // 최초 시도를 포함한 최대 시도 횟수
+    private Long initialBackoff = 200L; // 첫 재시도 전 대기 시간 (밀리초)
+    private Double backoffMultiplier = 2.0; // 재시도마다 대기 시간 배수
+    private Long maxBackoff = 2000L; // 최대 대기 시간 (밀리초)
+
+    private Long deadLetterMaxLength = 100000L; // DLQ 스트림 최대 길이 (MAXLEN ~)
+    private Integer redriveBatchSize = 100; // 일괄 재처리 시 한 번에 옮기는 최대 엔트리 수
+}
@@ -0,0 +1,17 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "websocket.cluster")
+@Getter
+@Setter
+public class WebSocketClusterConfig {
+
+    private String nodeId = "gulon-local"; // 노드 식별자 (사용자 알림 라우팅 채널 ws:node:{nodeId})
+    private Long userRouteTtl = 90L; // 사용자 -> 노드 라우팅 정보 유효 시간 (초), 노드 장애 시 자동 만료
+    private Long userRouteRefreshInterval = 30000L; // 라우팅 정보 갱신 주기 (밀리초)
+}
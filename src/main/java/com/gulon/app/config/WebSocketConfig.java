@@ -1,25 +1,87 @@
 package com.gulon.app.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
-public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer, DisposableBean {
+
+    private final StompPrincipalInterceptor stompPrincipalInterceptor;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    private final WebSocketTransportConfig transportConfig;
+    private final PresenceActivityInterceptor presenceActivityInterceptor;
+    private final ChatPresenceConfig presenceConfig;
+    private final StompRateLimitInterceptor stompRateLimitInterceptor;
+
+    // 브로커 하트비트 전용 스케줄러 - 종료 시 함께 정리
+    private ThreadPoolTaskScheduler heartbeatScheduler;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Simple in-memory broker를 활성화하고 "/topic"과 "/queue" prefix를 가진 destination을 처리
-        config.enableSimpleBroker("/topic", "/queue");
+        // 노드 간 전달은 ClusterFanoutService가 Redis Pub/Sub으로 담당하고, 브로커는 로컬 세션에만 전송
+        // 하트비트로 끊긴 연결을 감지하고, 클라이언트 하트비트는 접속 상태 갱신에 사용
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{presenceConfig.getHeartbeatInterval(), presenceConfig.getHeartbeatInterval()})
+                .setTaskScheduler(heartbeatScheduler = heartbeatScheduler());
         
         // 클라이언트에서 메시지를 보낼 때 사용할 prefix 설정
         config.setApplicationDestinationPrefixes("/app");
         
         // 특정 사용자에게 메시지를 보낼 때 사용할 prefix 설정
         config.setUserDestinationPrefix("/user");
+
+        // 세션별 프레임을 발행 순서대로 outbound 채널에 넣음 - 채널 진입 순서와 소켓 쓰기 순서가 같아야
+        // OutboundBackpressureInterceptor가 프레임별 전송 지연을 올바르게 짝지음
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // CONNECT 헤더의 액세스 토큰으로 세션 사용자 지정, 하트비트 포함 프레임 수신 시각 기록, SEND 프레임 유입 제한
+        registration.interceptors(stompPrincipalInterceptor, presenceActivityInterceptor, stompRateLimitInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // 세션별 대기 프레임 수로 느린 세션의 프레임을 버리거나 연결을 끊음
+        registration.interceptors(outboundBackpressureInterceptor)
+                .taskExecutor()
+                .corePoolSize(transportConfig.getOutboundPoolSize());
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 세션별 전송 시간/버퍼 상한 - 초과한 세션은 종료되어 메모리 사용량이 세션 수에 비례해 제한됨
+        registration.setSendTimeLimit(transportConfig.getSendTimeLimit())
+                .setSendBufferSizeLimit(transportConfig.getSendBufferSizeLimit())
+                .setMessageSizeLimit(transportConfig.getMessageSizeLimit())
+                .addDecoratorFactory(outboundBackpressureInterceptor);
+    }
+
+    private ThreadPoolTaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdown();
+        }
     }
 
     @Override
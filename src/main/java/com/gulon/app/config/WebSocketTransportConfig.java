@@ -0,0 +1,23 @@
+package com.gulon.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "websocket.transport")
+@Getter
+@Setter
+public class WebSocketTransportConfig {
+
+    private Integer sendTimeLimit = 10000; // 한 세션에 대한 전송이 이 시간(밀리초)을 넘기면 세션 종료
+    private Integer sendBufferSizeLimit = 256 * 1024; // 세션별 전송 버퍼 상한 (바이트), 초과 시 세션 종료
+    private Integer messageSizeLimit = 64 * 1024; // 수신 메시지 최대 크기 (바이트)
+
+    private Integer outboundPoolSize = 8; // clientOutboundChannel 스레드 수
+
+    // 느린 세션 처리 - 세션별 전송 대기 프레임 수 기준
+    private Integer dropThreshold = 200; // 초과 시 /topic 브로드캐스트 프레임을 버림
+    private Integer disconnectThreshold = 1000; // 초과 시 세션 종료 (클라이언트는 재연결 후 히스토리로 이어받음)
+}
@@ -1,6 +1,12 @@
 package com.gulon.app.controller;
 
+import com.gulon.app.dto.MessageDto;
+import com.gulon.app.dto.NotificationDto;
+import com.gulon.app.service.ChatDeliveryMetrics;
+import com.gulon.app.service.ChatReplayService;
+import com.gulon.app.service.NotificationInboxService;
 import com.gulon.app.service.RedisStreamService;
+import com.gulon.app.service.RoomEventService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,9 +16,11 @@ import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
 import java.util.Map;
+import java.util.UUID;
 
 @Tag(name = "실시간 채팅", description = "WebSocket을 통한 실시간 그룹 채팅 및 알림 처리 API")
 @Controller
@@ -21,39 +29,122 @@ import java.util.Map;
 public class ChatController {
 
     private final RedisStreamService redisStreamService;
+    private final ChatReplayService chatReplayService;
+    private final RoomEventService roomEventService;
+    private final NotificationInboxService notificationInboxService;
+    private final ChatDeliveryMetrics deliveryMetrics;
 
     @Operation(
         summary = "그룹 채팅 메시지 처리",
         description = "클라이언트가 /app/chat/group/{groupId}로 메시지를 보내면 처리합니다. " +
-                     "메시지는 Redis Stream을 통해 다른 사용자들에게 실시간으로 브로드캐스트됩니다."
+                     "보낸 사람은 CONNECT 시 액세스 토큰으로 인증된 세션 사용자이며, 인증되지 않은 세션의 메시지는 무시합니다. " +
+                     "메시지는 Redis Stream을 통해 다른 사용자들에게 실시간으로 브로드캐스트됩니다. " +
+                     "clientMessageId를 함께 보내면 보낸 세션의 /user/queue/chat/ack로 전송 결과를 받고, " +
+                     "같은 clientMessageId로 재전송하면 다시 발행하지 않고 최초 결과를 받습니다."
     )
     @MessageMapping("/chat/group/{groupId}")
-    public void sendGroupMessage(
+    @SendToUser(destinations = "/queue/chat/ack", broadcast = false)
+    public MessageDto.SendResponse sendGroupMessage(
             @Parameter(description = "그룹 ID", required = true)
             @DestinationVariable String groupId,
-            @Parameter(description = "메시지 데이터 (senderId, message, messageType 포함)", required = true)
+            @Parameter(description = "메시지 데이터 (message, messageType, 선택적으로 clientMessageId 포함 - 보낸 사람은 세션 사용자)", required = true)
             @Payload Map<String, Object> message,
             SimpMessageHeaderAccessor headerAccessor) {
         
+        long receivedAt = System.nanoTime();
         try {
-            // 세션에서 사용자 정보 추출 (실제로는 JWT 토큰 등으로 인증된 사용자 정보를 사용)
-            String senderId = (String) message.get("senderId");
+            // 보낸 사람은 CONNECT 토큰으로 인증된 세션 사용자 (요청 본문의 senderId는 신뢰하지 않음)
+            if (headerAccessor.getUser() == null) {
+                log.warn("인증되지 않은 메시지 전송 - GroupId: {}", groupId);
+                return null;
+            }
+            String senderId = headerAccessor.getUser().getName();
             String messageContent = (String) message.get("message");
             String messageType = (String) message.getOrDefault("messageType", "TEXT");
+            String clientMessageId = (String) message.get("clientMessageId");
 
             // 입력 검증
-            if (senderId == null || messageContent == null || messageContent.trim().isEmpty()) {
+            if (messageContent == null || messageContent.trim().isEmpty()) {
                 log.warn("잘못된 메시지 데이터 - GroupId: {}, SenderId: {}", groupId, senderId);
-                return;
+                return null;
             }
 
             log.info("그룹 채팅 메시지 수신 - GroupId: {}, SenderId: {}, Type: {}", groupId, senderId, messageType);
 
-            // Redis Stream에 메시지 발행
-            redisStreamService.publishChatMessage(groupId, senderId, messageContent, messageType);
+            // Redis Stream에 메시지 발행 (clientMessageId가 있으면 중복 제거 후 전송 결과 반환)
+            return redisStreamService.publishChatMessage(
+                    groupId, senderId, messageContent, messageType, clientMessageId);
 
         } catch (Exception e) {
             log.error("그룹 채팅 메시지 처리 실패 - GroupId: {}", groupId, e);
+            return null;
+        } finally {
+            // 검증/발행 실패도 수신 구간에 포함
+            deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_INGEST, ChatDeliveryMetrics.STREAM_CHAT, receivedAt);
+        }
+    }
+
+    @Operation(
+        summary = "재연결 메시지 재전송",
+        description = "재연결한 클라이언트가 /app/chat/group/{groupId}/replay로 마지막으로 받은 lastStreamId 또는 lastSeq를 보내면 " +
+                     "그 이후 메시지를 /user/queue/chat/replay로 받습니다. 그룹 토픽을 먼저 구독한 뒤 요청하고, " +
+                     "실시간 메시지와 겹치는 항목은 messageId로 걸러냅니다. hasMore가 true이면 nextStreamId/nextSeq로 이어서 요청하고, " +
+                     "resetRequired가 true이면 최근 메시지를 다시 불러옵니다."
+    )
+    @MessageMapping("/chat/group/{groupId}/replay")
+    @SendToUser(destinations = "/queue/chat/replay", broadcast = false)
+    public MessageDto.ReplayResponse replayGroupMessages(
+            @Parameter(description = "그룹 ID", required = true)
+            @DestinationVariable String groupId,
+            @Parameter(description = "재전송 요청 (lastStreamId 또는 lastSeq)", required = true)
+            @Payload Map<String, Object> request,
+            SimpMessageHeaderAccessor headerAccessor) {
+        
+        try {
+            // 인증된 세션 사용자만 허용 (요청 본문의 사용자 ID는 신뢰하지 않음)
+            if (headerAccessor.getUser() == null) {
+                log.warn("인증되지 않은 재전송 요청 - GroupId: {}", groupId);
+                return null;
+            }
+            String userId = headerAccessor.getUser().getName();
+            String lastStreamId = (String) request.get("lastStreamId");
+            Object lastSeq = request.get("lastSeq");
+
+            log.info("재전송 요청 - GroupId: {}, UserId: {}, LastStreamId: {}, LastSeq: {}", groupId, userId, lastStreamId, lastSeq);
+
+            return chatReplayService.replay(UUID.fromString(groupId), UUID.fromString(userId), lastStreamId,
+                    lastSeq != null ? Long.valueOf(lastSeq.toString()) : null);
+
+        } catch (Exception e) {
+            log.error("재전송 처리 실패 - GroupId: {}", groupId, e);
+            return null;
+        }
+    }
+
+    @Operation(
+        summary = "채팅방 임시 이벤트 처리",
+        description = "그룹 채팅 토픽을 구독 중인 세션이 /app/chat/group/{groupId}/event로 입력 중(TYPING, STOP_TYPING), " +
+                     "읽는 중(READING) 같은 임시 이벤트를 보내면 저장하지 않고 /topic/chat/events/{groupId}로 전달합니다. " +
+                     "같은 이벤트의 반복은 일정 간격으로 제한되고, 짧은 주기 동안의 이벤트는 사용자별 최신 상태로 묶여 전송됩니다."
+    )
+    @MessageMapping("/chat/group/{groupId}/event")
+    public void sendRoomEvent(
+            @Parameter(description = "그룹 ID", required = true)
+            @DestinationVariable String groupId,
+            @Parameter(description = "이벤트 데이터 (type, 선택적으로 data 포함)", required = true)
+            @Payload Map<String, Object> event,
+            SimpMessageHeaderAccessor headerAccessor) {
+        
+        try {
+            String type = (String) event.get("type");
+            Object data = event.get("data");
+
+            roomEventService.submit(headerAccessor.getSessionId(), groupId, type, data != null ? data.toString() : null);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 채팅방 이벤트 - GroupId: {}, 사유: {}", groupId, e.getMessage());
+        } catch (Exception e) {
+            log.error("채팅방 이벤트 처리 실패 - GroupId: {}", groupId, e);
         }
     }
 
@@ -153,4 +244,35 @@ public class ChatController {
             log.error("알림 전송 실패", e);
         }
     }
-} 
\ No newline at end of file
+
+    @Operation(
+        summary = "알림함 조회",
+        description = "연결 직후 /app/notification/inbox로 요청하면 연결이 끊긴 동안 쌓인 알림을 포함한 알림함 첫 페이지와 " +
+                     "안 읽은 알림 수를 /user/queue/notifications/inbox로 받습니다. hasNext가 true이면 nextCursor를 cursor로 보내 이어서 요청합니다."
+    )
+    @MessageMapping("/notification/inbox")
+    @SendToUser(destinations = "/queue/notifications/inbox", broadcast = false)
+    public NotificationDto.InboxPage getNotificationInbox(
+            @Parameter(description = "조회 요청 (선택적으로 cursor, size 포함)", required = true)
+            @Payload Map<String, Object> request,
+            SimpMessageHeaderAccessor headerAccessor) {
+        
+        try {
+            // 인증된 세션 사용자의 알림함만 조회 (요청 본문의 사용자 ID는 신뢰하지 않음)
+            if (headerAccessor.getUser() == null) {
+                log.warn("인증되지 않은 알림함 조회 요청");
+                return null;
+            }
+            String userId = headerAccessor.getUser().getName();
+            String cursor = (String) request.get("cursor");
+            Object size = request.get("size");
+
+            return notificationInboxService.getInbox(UUID.fromString(userId), cursor,
+                    size != null ? Integer.valueOf(size.toString()) : null);
+
+        } catch (Exception e) {
+            log.error("알림함 조회 실패", e);
+            return null;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.gulon.app.controller;
 
 import com.gulon.app.dto.MessageDto;
+import com.gulon.app.service.ChatReplayService;
 import com.gulon.app.service.MessageService;
+import com.gulon.app.service.PresenceService;
+import com.gulon.app.service.RateLimitService;
+import com.gulon.app.service.ReadCursorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,10 +15,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +32,10 @@ import java.util.UUID;
 public class MessageController {
     
     private final MessageService messageService;
+    private final ReadCursorService readCursorService;
+    private final PresenceService presenceService;
+    private final ChatReplayService chatReplayService;
+    private final RateLimitService rateLimitService;
     
     @Operation(
         summary = "메시지 전송",
@@ -35,7 +45,8 @@ public class MessageController {
         @ApiResponse(responseCode = "201", description = "메시지 전송 성공",
                     content = @Content(schema = @Schema(implementation = MessageDto.SendResponse.class))),
         @ApiResponse(responseCode = "400", description = "잘못된 메시지 데이터"),
-        @ApiResponse(responseCode = "403", description = "메시지 전송 권한 없음 (그룹 멤버가 아님)")
+        @ApiResponse(responseCode = "403", description = "메시지 전송 권한 없음 (그룹 멤버가 아님)"),
+        @ApiResponse(responseCode = "429", description = "요청 제한 초과 (Retry-After 헤더의 초 이후 재시도)")
     })
     @PostMapping
     public ResponseEntity<MessageDto.SendResponse> sendMessage(
@@ -43,6 +54,10 @@ public class MessageController {
             @RequestBody MessageDto.SendRequest request) {
         log.info("Sending message to group: {}", request.getGroupPublicId());
         
+        rateLimitService.check(RateLimitService.MESSAGE,
+                request.getSenderPublicId() != null ? request.getSenderPublicId().toString() : null,
+                request.getGroupPublicId() != null ? request.getGroupPublicId().toString() : null);
+        
         MessageDto.SendResponse response = messageService.sendMessage(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -118,33 +133,112 @@ public class MessageController {
         return ResponseEntity.noContent().build();
     }
     
+    @Operation(
+        summary = "메시지 복원",
+        description = "삭제된 메시지를 복원합니다. 메시지 작성자 또는 그룹 관리자만 복원할 수 있으며, " +
+                     "삭제 전 원본 내용으로 복원됩니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "복원 성공",
+                    content = @Content(schema = @Schema(implementation = MessageDto.Response.class))),
+        @ApiResponse(responseCode = "404", description = "메시지를 찾을 수 없음"),
+        @ApiResponse(responseCode = "403", description = "복원 권한 없음")
+    })
+    @PostMapping("/{messagePublicId}/restore")
+    public ResponseEntity<MessageDto.Response> restoreMessage(
+            @Parameter(description = "복원할 메시지의 공개 ID", required = true)
+            @PathVariable UUID messagePublicId,
+            @Parameter(description = "요청 사용자의 공개 ID (권한 확인용)", required = true)
+            @RequestParam UUID requestUserPublicId) {
+        log.info("Restoring message: {}", messagePublicId);
+        
+        MessageDto.Response response = messageService.restoreMessage(messagePublicId, requestUserPublicId);
+        return ResponseEntity.ok(response);
+    }
+    
     @Operation(
         summary = "그룹 채팅 히스토리 조회",
-        description = "특정 그룹의 채팅 히스토리를 페이징하여 조회합니다. 최신 메시지부터 시간 역순으로 정렬됩니다."
+        description = "특정 그룹의 채팅 히스토리를 커서 기반으로 조회합니다. 최신 메시지부터 시간 역순으로 정렬되며, " +
+                     "응답의 nextCursor를 다음 요청의 cursor로 전달하면 이전 메시지를 이어서 조회합니다."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "조회 성공",
-                    content = @Content(schema = @Schema(implementation = MessageDto.HistoryResponse.class))),
+                    content = @Content(schema = @Schema(implementation = MessageDto.CursorHistoryResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 커서"),
         @ApiResponse(responseCode = "404", description = "그룹을 찾을 수 없음"),
         @ApiResponse(responseCode = "403", description = "채팅 히스토리 조회 권한 없음")
     })
     @GetMapping("/groups/{groupPublicId}/history")
-    public ResponseEntity<MessageDto.HistoryResponse> getGroupChatHistory(
+    public ResponseEntity<MessageDto.CursorHistoryResponse> getGroupChatHistory(
             @Parameter(description = "채팅 히스토리를 조회할 그룹의 공개 ID", required = true)
             @PathVariable UUID groupPublicId,
-            @Parameter(description = "페이지 번호 (0부터 시작)", example = "0")
-            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "이전 응답의 nextCursor (생략 시 최신 메시지부터)")
+            @RequestParam(required = false) String cursor,
             @Parameter(description = "페이지 크기 (최대 100)", example = "50")
             @RequestParam(defaultValue = "50") int size,
             @Parameter(description = "요청 사용자의 공개 ID (권한 확인용)")
             @RequestParam(required = false) UUID requestUserPublicId) {
-        log.info("Getting chat history for group: {}, page: {}, size: {}", groupPublicId, page, size);
+        log.info("Getting chat history for group: {}, cursor: {}, size: {}", groupPublicId, cursor, size);
         
-        MessageDto.HistoryResponse response = messageService.getGroupChatHistory(
-                groupPublicId, page, size, requestUserPublicId);
+        MessageDto.CursorHistoryResponse response = messageService.getGroupChatHistoryByCursor(
+                groupPublicId, cursor, size, requestUserPublicId);
         return ResponseEntity.ok(response);
     }
     
+    @Operation(
+        summary = "아카이브된 채팅 히스토리 조회",
+        description = "Redis 스트림에서 보존 기간이 지나 아카이브로 옮겨진 채팅 메시지를 스트림 ID 역순으로 조회합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "조회 성공",
+                    content = @Content(schema = @Schema(implementation = MessageDto.ArchiveHistoryResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 스트림 ID"),
+        @ApiResponse(responseCode = "404", description = "그룹을 찾을 수 없음"),
+        @ApiResponse(responseCode = "403", description = "채팅 히스토리 조회 권한 없음")
+    })
+    @GetMapping("/groups/{groupPublicId}/history/archive")
+    public ResponseEntity<MessageDto.ArchiveHistoryResponse> getArchivedChatHistory(
+            @Parameter(description = "채팅 히스토리를 조회할 그룹의 공개 ID", required = true)
+            @PathVariable UUID groupPublicId,
+            @Parameter(description = "이전 응답의 nextBefore (생략 시 가장 최근 아카이브부터)")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "페이지 크기 (최대 100)", example = "50")
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "요청 사용자의 공개 ID (권한 확인용)")
+            @RequestParam(required = false) UUID requestUserPublicId) {
+        log.info("Getting archived chat history for group: {}, before: {}, size: {}", groupPublicId, before, size);
+        
+        MessageDto.ArchiveHistoryResponse response = messageService.getArchivedChatHistory(
+                groupPublicId, before, size, requestUserPublicId);
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(
+        summary = "재연결 메시지 재전송",
+        description = "연결이 끊긴 동안의 메시지를 마지막으로 받은 스트림 ID 또는 순번 이후부터 조회합니다. " +
+                     "스트림에 남아 있는 구간은 스트림에서, trim된 구간은 DB에서 읽습니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "조회 성공",
+                    content = @Content(schema = @Schema(implementation = MessageDto.ReplayResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 스트림 ID 또는 그룹 멤버가 아님"),
+        @ApiResponse(responseCode = "404", description = "그룹을 찾을 수 없음")
+    })
+    @GetMapping("/groups/{groupPublicId}/replay")
+    public ResponseEntity<MessageDto.ReplayResponse> replayMessages(
+            @Parameter(description = "메시지를 다시 받을 그룹의 공개 ID", required = true)
+            @PathVariable UUID groupPublicId,
+            @Parameter(description = "요청 사용자의 공개 ID", required = true)
+            @RequestParam UUID userPublicId,
+            @Parameter(description = "마지막으로 받은 메시지의 streamId (또는 이전 응답의 nextStreamId)")
+            @RequestParam(required = false) String lastStreamId,
+            @Parameter(description = "마지막으로 받은 메시지의 seq (또는 이전 응답의 nextSeq)")
+            @RequestParam(required = false) Long lastSeq) {
+        log.info("Replaying messages for group: {}, lastStreamId: {}, lastSeq: {}", groupPublicId, lastStreamId, lastSeq);
+        
+        return ResponseEntity.ok(chatReplayService.replay(groupPublicId, userPublicId, lastStreamId, lastSeq));
+    }
+    
     @Operation(
         summary = "메시지 검색",
         description = "키워드, 작성자, 날짜 범위 등의 조건으로 메시지를 검색합니다."
@@ -159,11 +253,13 @@ public class MessageController {
             @RequestBody MessageDto.SearchFilter filter,
             @Parameter(description = "페이지 번호 (0부터 시작)", example = "0")
             @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "페이지 크기", example = "20")
-            @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "페이지 크기 (최대 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "이전 응답의 nextCursor (지정 시 page 대신 키셋 페이징)")
+            @RequestParam(required = false) String cursor) {
         log.info("Searching messages with keyword: {}", filter.getKeyword());
         
-        MessageDto.SearchResult result = messageService.searchMessages(filter, page, size);
+        MessageDto.SearchResult result = messageService.searchMessages(filter, page, size, cursor);
         return ResponseEntity.ok(result);
     }
     
@@ -189,6 +285,67 @@ public class MessageController {
         return ResponseEntity.ok(status);
     }
     
+    @Operation(
+        summary = "읽음 처리",
+        description = "그룹에서 사용자가 읽은 마지막 메시지 순번(seq)을 기록합니다. 읽음 위치는 증가하는 방향으로만 갱신되며 " +
+                     "갱신 후의 안 읽은 메시지 수를 반환합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "읽음 처리 성공",
+                    content = @Content(schema = @Schema(implementation = MessageDto.UnreadCount.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 순번 또는 그룹 멤버가 아님")
+    })
+    @PostMapping("/groups/{groupPublicId}/read")
+    public ResponseEntity<MessageDto.UnreadCount> markRead(
+            @Parameter(description = "읽음 처리할 그룹의 공개 ID", required = true)
+            @PathVariable UUID groupPublicId,
+            @Parameter(description = "읽음 처리하는 사용자의 공개 ID", required = true)
+            @RequestParam UUID userPublicId,
+            @Parameter(description = "마지막으로 읽은 메시지 순번", required = true, example = "120")
+            @RequestParam long seq) {
+        log.info("Marking messages as read - group: {}, user: {}, seq: {}", groupPublicId, userPublicId, seq);
+        
+        MessageDto.UnreadCount unreadCount = readCursorService.markRead(groupPublicId, userPublicId, seq);
+        return ResponseEntity.ok(unreadCount);
+    }
+    
+    @Operation(
+        summary = "안 읽은 메시지 수 조회",
+        description = "사용자가 가입한 모든 활성 그룹의 안 읽은 메시지 수를 한 번에 조회합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "조회 성공")
+    })
+    @GetMapping("/unread")
+    public ResponseEntity<List<MessageDto.UnreadCount>> getUnreadCounts(
+            @Parameter(description = "조회할 사용자의 공개 ID", required = true)
+            @RequestParam UUID userPublicId) {
+        log.info("Getting unread counts for user: {}", userPublicId);
+        
+        return ResponseEntity.ok(readCursorService.getUnreadCounts(userPublicId));
+    }
+    
+    @Operation(
+        summary = "그룹 접속자 조회",
+        description = "그룹 채팅방에 현재 접속 중인 사용자 목록을 조회합니다. 이후 변경은 WebSocket " +
+                     PresenceService.PRESENCE_DESTINATION_PREFIX + "{groupId} 구독으로 받을 수 있습니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "조회 성공",
+                    content = @Content(schema = @Schema(implementation = MessageDto.PresenceSnapshot.class))),
+        @ApiResponse(responseCode = "403", description = "그룹 멤버가 아님")
+    })
+    @GetMapping("/groups/{groupPublicId}/presence")
+    public ResponseEntity<MessageDto.PresenceSnapshot> getPresence(
+            @Parameter(description = "접속자를 조회할 그룹의 공개 ID", required = true)
+            @PathVariable UUID groupPublicId,
+            @Parameter(description = "요청 사용자의 공개 ID (권한 확인용)", required = true)
+            @RequestParam UUID requestUserPublicId) {
+        log.info("Getting presence for group: {}", groupPublicId);
+        
+        return ResponseEntity.ok(messageService.getPresence(groupPublicId, requestUserPublicId));
+    }
+    
     @Operation(
         summary = "메시지 통계 조회",
         description = "그룹의 메시지 관련 통계 정보를 조회합니다. 총 메시지 수, 일일 메시지 수, 활발한 멤버 등의 정보를 제공합니다."
@@ -213,14 +370,15 @@ public class MessageController {
     
     @Operation(
         summary = "그룹의 최근 메시지 조회 (간단한 API)",
-        description = "그룹의 최신 메시지들을 간단히 조회합니다. 채팅방 미리보기 등에 사용할 수 있습니다."
+        description = "그룹의 최신 메시지들을 간단히 조회합니다. 채팅방 입장, 미리보기 등에 사용할 수 있으며 " +
+                     "자주 조회되는 그룹은 서버 메모리 캐시에서 응답합니다. 이전 메시지는 nextCursor로 히스토리 API를 이어서 조회합니다."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "조회 성공",
-                    content = @Content(schema = @Schema(implementation = MessageDto.HistoryResponse.class)))
+                    content = @Content(schema = @Schema(implementation = MessageDto.CursorHistoryResponse.class)))
     })
     @GetMapping("/groups/{groupPublicId}/recent")
-    public ResponseEntity<MessageDto.HistoryResponse> getRecentMessages(
+    public ResponseEntity<MessageDto.CursorHistoryResponse> getRecentMessages(
             @Parameter(description = "최근 메시지를 조회할 그룹의 공개 ID", required = true)
             @PathVariable UUID groupPublicId,
             @Parameter(description = "조회할 메시지 수 (최대 50)", example = "20")
@@ -229,9 +387,8 @@ public class MessageController {
             @RequestParam(required = false) UUID requestUserPublicId) {
         log.info("Getting recent messages for group: {}, limit: {}", groupPublicId, limit);
         
-        // 첫 페이지만 조회하여 최근 메시지 반환
-        MessageDto.HistoryResponse response = messageService.getGroupChatHistory(
-                groupPublicId, 0, limit, requestUserPublicId);
+        MessageDto.CursorHistoryResponse response = messageService.getRecentMessages(
+                groupPublicId, limit, requestUserPublicId);
         return ResponseEntity.ok(response);
     }
     
@@ -260,6 +417,15 @@ public class MessageController {
         return ResponseEntity.badRequest().body(errorResponse);
     }
     
+    @ExceptionHandler(RateLimitService.RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitService.RateLimitExceededException e) {
+        log.warn("Rate limit exceeded: {}", e.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse("TOO_MANY_REQUESTS", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryAfterMillis() + 999) / 1000))
+                .body(errorResponse);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         log.error("Unexpected error: ", e);
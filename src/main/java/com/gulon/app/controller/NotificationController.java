@@ -0,0 +1,121 @@
+package com.gulon.app.controller;
+
+import com.gulon.app.dto.NotificationDto;
+import com.gulon.app.service.NotificationInboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Tag(name = "알림함", description = "사용자 알림함 조회, 안 읽은 알림 수 및 읽음 처리 API")
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationController {
+    
+    private final NotificationInboxService notificationInboxService;
+    
+    @Operation(
+        summary = "알림함 조회",
+        description = "사용자의 알림을 최근 갱신 순으로 조회합니다. 연결이 끊긴 동안 쌓인 알림도 포함되며, " +
+                     "같은 종류/제목으로 짧은 시간 안에 온 알림은 count가 늘어난 하나의 항목으로 합쳐집니다. " +
+                     "응답의 nextCursor를 다음 요청의 cursor로 전달하면 이어서 조회합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "조회 성공",
+                    content = @Content(schema = @Schema(implementation = NotificationDto.InboxPage.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 커서")
+    })
+    @GetMapping
+    public ResponseEntity<NotificationDto.InboxPage> getInbox(
+            @Parameter(description = "사용자의 공개 ID", required = true)
+            @RequestParam UUID userPublicId,
+            @Parameter(description = "이전 응답의 nextCursor (생략 시 가장 최근 알림부터)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "페이지 크기", example = "20")
+            @RequestParam(required = false) Integer size) {
+        log.info("Getting notification inbox - user: {}, size: {}", userPublicId, size);
+        
+        return ResponseEntity.ok(notificationInboxService.getInbox(userPublicId, cursor, size));
+    }
+    
+    @Operation(
+        summary = "안 읽은 알림 수 조회",
+        description = "알림 배지에 표시할 안 읽은 알림 수를 조회합니다."
+    )
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(
+            @Parameter(description = "사용자의 공개 ID", required = true)
+            @RequestParam UUID userPublicId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationInboxService.unreadCount(userPublicId.toString())));
+    }
+    
+    @Operation(
+        summary = "알림 읽음 처리",
+        description = "지정한 알림(또는 all이 true이면 모든 알림)을 읽음 처리하고 남은 안 읽은 알림 수를 반환합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "처리 성공",
+                    content = @Content(schema = @Schema(implementation = NotificationDto.ReadResult.class))),
+        @ApiResponse(responseCode = "400", description = "알림 ID 누락 또는 처리 한도 초과")
+    })
+    @PostMapping("/read")
+    public ResponseEntity<NotificationDto.ReadResult> markRead(
+            @Parameter(description = "사용자의 공개 ID", required = true)
+            @RequestParam UUID userPublicId,
+            @Parameter(description = "읽음 처리 대상 (ids 또는 all)", required = true)
+            @RequestBody NotificationDto.ReadRequest request) {
+        log.info("Marking notifications read - user: {}, all: {}, ids: {}",
+                userPublicId, request.isAll(), request.getIds() != null ? request.getIds().size() : 0);
+        
+        return ResponseEntity.ok(notificationInboxService.markRead(userPublicId, request));
+    }
+    
+    // 에러 핸들링
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.error("IllegalArgumentException: {}", e.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+    
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception e) {
+        log.error("Unexpected error: ", e);
+        ErrorResponse errorResponse = new ErrorResponse("INTERNAL_SERVER_ERROR", "서버 내부 오류가 발생했습니다.");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+    
+    @Schema(description = "에러 응답 데이터")
+    public static class ErrorResponse {
+        @Schema(description = "에러 코드", example = "BAD_REQUEST")
+        private String code;
+        @Schema(description = "에러 메시지", example = "잘못된 요청입니다.")
+        private String message;
+        
+        public ErrorResponse(String code, String message) {
+            this.code = code;
+            this.message = message;
+        }
+        
+        public String getCode() {
+            return code;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
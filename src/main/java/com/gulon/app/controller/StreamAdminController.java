@@ -0,0 +1,124 @@
+package com.gulon.app.controller;
+
+import com.gulon.app.dto.StreamDto;
+import com.gulon.app.service.StreamDeadLetterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "스트림 운영", description = "처리에 실패한 Redis Stream 엔트리(DLQ) 조회 및 재처리 API")
+@RestController
+@RequestMapping("/api/admin/streams")
+@RequiredArgsConstructor
+@Slf4j
+public class StreamAdminController {
+    
+    private final StreamDeadLetterService deadLetterService;
+    
+    @Operation(
+        summary = "DLQ 엔트리 조회",
+        description = "재시도를 모두 소진해 " + StreamDeadLetterService.DEAD_LETTER_STREAM +
+                     "로 옮겨진 엔트리를 오래된 순으로 조회합니다. 실패 원인과 시도 횟수, 원래 필드를 함께 반환합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "조회 성공",
+                    content = @Content(schema = @Schema(implementation = StreamDto.DeadLetterPage.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 스트림 ID")
+    })
+    @GetMapping("/dlq")
+    public ResponseEntity<StreamDto.DeadLetterPage> getDeadLetters(
+            @Parameter(description = "이전 응답의 nextAfter (생략 시 가장 오래된 엔트리부터)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "페이지 크기", example = "50")
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "원래 스트림 키 필터 (예: chat:stream:0, notification:stream)")
+            @RequestParam(required = false) String stream) {
+        log.info("Getting dead letters - after: {}, size: {}, stream: {}", after, size, stream);
+        
+        return ResponseEntity.ok(deadLetterService.list(after, size, stream));
+    }
+    
+    @Operation(
+        summary = "DLQ 엔트리 재처리",
+        description = "지정한 ID(또는 조건에 맞는 오래된 엔트리)를 원래 스트림에 새 엔트리로 다시 발행하고 DLQ에서 삭제합니다. " +
+                     "모든 컨슈머 그룹이 다시 처리하며, 채팅 메시지 저장은 publicId 기준으로 중복 저장되지 않습니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "재처리 성공",
+                    content = @Content(schema = @Schema(implementation = StreamDto.RedriveResult.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 스트림 ID 또는 처리 한도 초과")
+    })
+    @PostMapping("/dlq/redrive")
+    public ResponseEntity<StreamDto.RedriveResult> redriveDeadLetters(
+            @Parameter(description = "재처리 대상 (ids 또는 stream/limit)", required = true)
+            @RequestBody StreamDto.RedriveRequest request) {
+        log.info("Redriving dead letters - ids: {}, stream: {}, limit: {}",
+                request.getIds() != null ? request.getIds().size() : 0, request.getStream(), request.getLimit());
+        
+        return ResponseEntity.ok(deadLetterService.redrive(request));
+    }
+    
+    @Operation(
+        summary = "DLQ 엔트리 삭제",
+        description = "재처리하지 않을 엔트리를 DLQ에서 삭제합니다."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "삭제 성공",
+                    content = @Content(schema = @Schema(implementation = StreamDto.RedriveResult.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 스트림 ID 또는 처리 한도 초과")
+    })
+    @PostMapping("/dlq/delete")
+    public ResponseEntity<StreamDto.RedriveResult> deleteDeadLetters(
+            @Parameter(description = "삭제 대상 (ids 또는 stream/limit)", required = true)
+            @RequestBody StreamDto.RedriveRequest request) {
+        log.info("Deleting dead letters - ids: {}, stream: {}, limit: {}",
+                request.getIds() != null ? request.getIds().size() : 0, request.getStream(), request.getLimit());
+        
+        return ResponseEntity.ok(deadLetterService.delete(request));
+    }
+    
+    // 에러 핸들링
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.error("IllegalArgumentException: {}", e.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+    
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception e) {
+        log.error("Unexpected error: ", e);
+        ErrorResponse errorResponse = new ErrorResponse("INTERNAL_SERVER_ERROR", "서버 내부 오류가 발생했습니다.");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+    
+    @Schema(description = "에러 응답 데이터")
+    public static class ErrorResponse {
+        @Schema(description = "에러 코드", example = "BAD_REQUEST")
+        private String code;
+        @Schema(description = "에러 메시지", example = "잘못된 요청입니다.")
+        private String message;
+        
+        public ErrorResponse(String code, String message) {
+            this.code = code;
+            this.message = message;
+        }
+        
+        public String getCode() {
+            return code;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
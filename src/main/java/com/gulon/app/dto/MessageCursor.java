@@ -0,0 +1,55 @@
+package com.gulon.app.dto;
+
+import com.gulon.app.entity.ChatMessage;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 채팅 히스토리 키셋 페이징용 커서
+ * (sentAt, id) 쌍을 클라이언트에 불투명한 문자열로 전달
+ */
+@Getter
+public class MessageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime sentAt;
+    private final Integer id;
+
+    public MessageCursor(LocalDateTime sentAt, Integer id) {
+        this.sentAt = sentAt;
+        this.id = id;
+    }
+
+    public static MessageCursor of(ChatMessage message) {
+        return new MessageCursor(message.getSentAt(), message.getId());
+    }
+
+    /**
+     * URL-safe Base64 문자열로 인코딩
+     */
+    public String encode() {
+        String raw = sentAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 클라이언트가 전달한 커서 문자열 복원
+     */
+    public static MessageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            return new MessageCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Integer.valueOf(raw.substring(separatorIndex + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+    }
+}
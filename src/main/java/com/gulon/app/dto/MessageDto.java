@@ -22,6 +22,7 @@ public class MessageDto {
         private UUID senderPublicId;
         private String content;
         private ChatMessage.MessageType type;
+        private String clientMessageId; // 재전송 시 같은 값을 보내면 최초 응답을 반환 (선택)
     }
     
     /**
@@ -68,6 +69,7 @@ public class MessageDto {
         private String content;
         private ChatMessage.MessageType type;
         private LocalDateTime sentAt;
+        private Long seq; // 그룹 내 메시지 순번 (읽음 처리 시 사용)
         private boolean isEdited;
         private boolean isDeleted;
     }
@@ -86,23 +88,143 @@ public class MessageDto {
         private String content;
         private ChatMessage.MessageType type;
         private LocalDateTime sentAt;
-        private String action; // "SEND", "EDIT", "DELETE"
+        private Long seq; // 그룹 내 메시지 순번 (읽음 처리 시 사용)
+        private String action; // "SEND", "EDIT", "DELETE", "RESTORE"
     }
     
     /**
-     * 메시지 히스토리 조회 응답 DTO
+     * 커서 기반 히스토리 조회 응답 DTO
+     * 전체 개수 없이 다음 페이지 커서만 제공
      */
     @Getter
     @Setter
-    public static class HistoryResponse {
+    public static class CursorHistoryResponse {
         private java.util.List<Summary> messages;
-        private long totalCount;
-        private int currentPage;
         private int pageSize;
         private boolean hasNext;
-        private boolean hasPrevious;
-        private UUID lastMessageId; // 다음 페이지 로딩용
-        private LocalDateTime lastMessageTime;
+        private String nextCursor; // 다음 페이지 조회 시 cursor 파라미터로 전달
+    }
+    
+    /**
+     * 아카이브된 스트림 메시지 DTO
+     * DB에 저장되기 전 스트림에서 아카이브로 옮겨진 메시지까지 포함
+     */
+    @Getter
+    @Setter
+    public static class ArchivedMessage {
+        private String streamId;
+        private UUID publicId;
+        private UUID senderPublicId;
+        private String content;
+        private String type;
+        private LocalDateTime sentAt;
+    }
+    
+    /**
+     * 아카이브 히스토리 조회 응답 DTO
+     */
+    @Getter
+    @Setter
+    public static class ArchiveHistoryResponse {
+        private java.util.List<ArchivedMessage> messages;
+        private int pageSize;
+        private boolean hasNext;
+        private String nextBefore; // 다음 페이지 조회 시 before 파라미터로 전달
+    }
+    
+    /**
+     * 재연결 시 재전송되는 메시지 DTO
+     * 실시간 채팅 payload와 같은 필드 구성이므로 클라이언트가 같은 처리기로 다룰 수 있음
+     */
+    @Getter
+    @Setter
+    public static class ReplayMessage {
+        private String streamId; // DB에서 읽은 경우 null
+        private String messageId;
+        private String action; // 수정/삭제/복원 diff 이벤트이면 "EDIT", "DELETE", "RESTORE" (일반 메시지는 null)
+        private String senderId;
+        private String message;
+        private String messageType;
+        private String timestamp; // epoch 밀리초
+        private Long seq;
+    }
+    
+    /**
+     * 재연결 재전송 응답 DTO
+     */
+    @Getter
+    @Setter
+    public static class ReplayResponse {
+        private UUID groupPublicId;
+        private java.util.List<ReplayMessage> messages;
+        private String source; // "STREAM", "DB"
+        private boolean hasMore; // true면 nextStreamId/nextSeq로 이어서 요청
+        private String nextStreamId;
+        private Long nextSeq;
+        private boolean resetRequired; // 구간을 복원할 수 없어 최근 메시지를 다시 불러와야 하는 경우 true
+    }
+    
+    /**
+     * 그룹별 안 읽은 메시지 수 DTO
+     */
+    @Getter
+    @Setter
+    public static class UnreadCount {
+        private UUID groupPublicId;
+        private long lastReadSeq;
+        private long latestSeq;
+        private long unreadCount;
+    }
+    
+    /**
+     * 그룹 접속자 스냅샷 DTO
+     * 이후 변경은 PresenceEvent로 전달되며 timestamp보다 이전 이벤트는 무시
+     */
+    @Getter
+    @Setter
+    public static class PresenceSnapshot {
+        private UUID groupPublicId;
+        private java.util.List<UUID> onlineUsers;
+        private long timestamp;
+    }
+    
+    /**
+     * 그룹 접속 상태 변경 이벤트 DTO
+     * WebSocket 전송용 (/topic/chat/presence/{groupId})
+     */
+    @Getter
+    @Setter
+    public static class PresenceEvent {
+        private UUID groupPublicId;
+        private UUID userPublicId;
+        private String status; // "ONLINE", "OFFLINE"
+        private long timestamp;
+    }
+    
+    /**
+     * 채팅방 임시 이벤트 DTO (입력 중, 읽는 중인 페이지 등)
+     * 저장하지 않으며 expiresIn이 지나면 클라이언트에서 제거
+     */
+    @Getter
+    @Setter
+    public static class RoomEvent {
+        private UUID userPublicId;
+        private String type; // "TYPING", "STOP_TYPING", "READING"
+        private String data; // 이벤트 부가 정보 (READING이면 페이지 등)
+        private long expiresIn; // 밀리초
+        private long timestamp;
+    }
+    
+    /**
+     * 채팅방 임시 이벤트 묶음 DTO
+     * WebSocket 전송용 (/topic/chat/events/{groupId}), 짧은 주기 동안 사용자별 최신 이벤트만 모아서 전송
+     */
+    @Getter
+    @Setter
+    public static class RoomEventBatch {
+        private UUID groupPublicId;
+        private java.util.List<RoomEvent> events;
+        private long timestamp;
     }
     
     /**
@@ -148,6 +270,7 @@ public class MessageDto {
         private boolean includeDeleted;
         private String sortBy; // "sent_at"
         private String sortDirection; // "asc", "desc"
+        private boolean includeTotal; // true일 때만 전체 개수 조회 (상한 초과 시 근사값)
     }
     
     /**
@@ -164,6 +287,8 @@ public class MessageDto {
         private boolean hasNext;
         private boolean hasPrevious;
         private String searchKeyword;
+        private String nextCursor; // 다음 페이지 조회 시 cursor 파라미터로 전달
+        private boolean totalCountApproximate; // 개수가 상한을 넘어 totalCount가 하한값인 경우 true (미조회 시 totalCount = -1)
     }
     
     /**
@@ -222,6 +347,8 @@ public class MessageDto {
         private String content;
         private ChatMessage.MessageType type;
         private LocalDateTime sentAt;
+        private Long seq; // 그룹 내 메시지 순번 (읽음 처리 시 사용)
+        private String clientMessageId;
         private String message; // 성공 메시지
     }
 } 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.gulon.app.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 사용자 알림함 관련 DTO 모음
+ */
+public class NotificationDto {
+
+    /**
+     * 알림함 항목 DTO
+     */
+    @Getter
+    @Setter
+    public static class Item {
+        private UUID publicId;
+        private String title;
+        private String content; // 합쳐진 알림이면 마지막 알림의 내용
+        private String notificationType;
+        private int count; // 합쳐진 알림 수
+        private boolean read;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+    }
+
+    /**
+     * 실시간 알림 프레임 (/user/queue/notifications)
+     * 새 알림은 바로, 기존 알림에 합쳐진 갱신은 짧은 주기로 모아 한 번씩 전송
+     */
+    @Getter
+    @Setter
+    public static class Push {
+        private String event; // "NEW" 또는 "UPDATE"
+        private UUID publicId;
+        private String title;
+        private String content;
+        private String notificationType;
+        private int count;
+        private long unreadCount;
+        private String timestamp; // 마지막 알림 시각 (epoch 밀리초)
+    }
+
+    /**
+     * 알림함 페이지 응답 DTO (최근 갱신 순)
+     */
+    @Getter
+    @Setter
+    public static class InboxPage {
+        private List<Item> items;
+        private long unreadCount;
+        private boolean hasNext;
+        private String nextCursor; // 다음 페이지 조회 시 cursor 파라미터로 전달
+    }
+
+    /**
+     * 읽음 처리 요청 DTO - all이 true이면 ids는 무시
+     */
+    @Getter
+    @Setter
+    public static class ReadRequest {
+        private List<UUID> ids;
+        private boolean all;
+    }
+
+    /**
+     * 읽음 처리 결과 DTO
+     */
+    @Getter
+    @Setter
+    public static class ReadResult {
+        private long updated; // 새로 읽음 처리된 알림 수
+        private long unreadCount;
+    }
+}
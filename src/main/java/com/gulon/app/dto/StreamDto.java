@@ -0,0 +1,64 @@
+package com.gulon.app.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 스트림 운영(DLQ) 관련 DTO 모음
+ */
+public class StreamDto {
+
+    /**
+     * DLQ 엔트리 DTO
+     */
+    @Getter
+    @Setter
+    public static class DeadLetter {
+        private String id; // DLQ 스트림 엔트리 ID
+        private String stream; // 원래 스트림 키
+        private String originalId; // 원래 스트림 엔트리 ID
+        private String reason; // 마지막 실패 원인
+        private int attempts;
+        private LocalDateTime failedAt;
+        private Map<String, String> fields; // 원래 엔트리 필드
+    }
+
+    /**
+     * DLQ 조회 응답 DTO
+     */
+    @Getter
+    @Setter
+    public static class DeadLetterPage {
+        private List<DeadLetter> entries;
+        private long totalCount; // DLQ 전체 엔트리 수
+        private boolean hasNext;
+        private String nextAfter; // 다음 페이지 조회 시 after 파라미터로 전달
+    }
+
+    /**
+     * DLQ 재처리/삭제 요청 DTO
+     * ids가 비어 있으면 stream 조건에 맞는 엔트리를 오래된 순으로 최대 limit건 처리
+     */
+    @Getter
+    @Setter
+    public static class RedriveRequest {
+        private List<String> ids;
+        private String stream; // 원래 스트림 키 필터 (선택)
+        private Integer limit;
+    }
+
+    /**
+     * DLQ 재처리/삭제 결과 DTO
+     */
+    @Getter
+    @Setter
+    public static class RedriveResult {
+        private int processed; // 재발행(또는 삭제)된 엔트리 수
+        private int notFound; // 이미 처리되었거나 존재하지 않는 ID 수
+        private long remaining; // 처리 후 DLQ에 남은 엔트리 수
+    }
+}
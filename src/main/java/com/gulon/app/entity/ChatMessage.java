@@ -11,17 +11,23 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "chat_message", indexes = {
+@Table(name = "chat_message", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_chat_client_message", columnNames = {"user_id", "client_message_id"})
+}, indexes = {
     @Index(name = "idx_chat_group", columnList = "group_id"),
     @Index(name = "idx_chat_user", columnList = "user_id"),
     @Index(name = "idx_chat_sent", columnList = "sent_at"),
-    @Index(name = "idx_chat_public_id", columnList = "public_id")
+    @Index(name = "idx_chat_public_id", columnList = "public_id"),
+    @Index(name = "idx_chat_group_history", columnList = "group_id, is_deleted, sent_at, id"),
+    @Index(name = "idx_chat_group_seq", columnList = "group_id, seq")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 public class ChatMessage {
 
+    public static final int MAX_CONTENT_LENGTH = 1000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -37,7 +43,7 @@ public class ChatMessage {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, length = 1000) // 메시지 길이 증가
+    @Column(nullable = false, length = MAX_CONTENT_LENGTH) // 메시지 길이 증가
     private String content;
 
     @Enumerated(EnumType.STRING)
@@ -57,6 +63,15 @@ public class ChatMessage {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @Column(name = "deleted_content", length = MAX_CONTENT_LENGTH)
+    private String deletedContent; // 삭제 전 원본 내용 (복원용, 삭제 상태에서만 보관)
+
+    @Column(name = "seq")
+    private Long seq; // 그룹 내 단조 증가 순번 (읽음 위치/안 읽은 수 계산용)
+
+    @Column(name = "client_message_id", length = 64)
+    private String clientMessageId; // 클라이언트가 생성한 메시지 ID (재전송 중복 제거용, 보낸 사람별 유니크)
+
     public enum MessageType {
         TEXT,           // 일반 텍스트
         IMAGE,          // 이미지
@@ -93,13 +108,19 @@ public class ChatMessage {
     public void deleteMessage() {
         this.isDeleted = true;
         this.deletedAt = LocalDateTime.now();
+        this.deletedContent = this.content;
         this.content = "삭제된 메시지입니다.";
     }
 
-    public void restoreMessage(String originalContent) {
+    public boolean canRestore() {
+        return isDeleted && deletedContent != null;
+    }
+
+    public void restoreMessage() {
         this.isDeleted = false;
         this.deletedAt = null;
-        this.content = originalContent;
+        this.content = deletedContent;
+        this.deletedContent = null;
     }
 
     public boolean isEdited() {
@@ -44,6 +44,9 @@ public class GroupMember {
     @Column(name = "joined_at", nullable = false, updatable = false)
     private LocalDateTime joinedAt;
 
+    @Column(name = "last_read_seq")
+    private Long lastReadSeq; // 마지막으로 읽은 메시지 순번 (Redis 읽음 위치의 체크포인트)
+
     public enum Role {
         OWNER, ADMIN, MEMBER
     }
@@ -0,0 +1,58 @@
+package com.gulon.app.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 사용자 알림함에서 Redis 보관 한도를 넘어 옮겨진 오래된 알림
+ * 최근 알림은 Redis에만 있고, DB 행은 옮겨진 이후 읽음 여부만 바뀜
+ */
+@Entity
+@Table(name = "notification", indexes = {
+    @Index(name = "idx_notification_user_inbox", columnList = "user_public_id, updated_at, id"),
+    @Index(name = "idx_notification_public_id", columnList = "public_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class Notification {
+
+    public static final int MAX_TITLE_LENGTH = 200;
+    public static final int MAX_CONTENT_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "public_id", unique = true, nullable = false)
+    private UUID publicId;
+
+    @Column(name = "user_public_id", nullable = false)
+    private UUID userPublicId;
+
+    @Column(nullable = false, length = MAX_TITLE_LENGTH)
+    private String title;
+
+    @Column(nullable = false, length = MAX_CONTENT_LENGTH)
+    private String content; // 합쳐진 알림이면 마지막 알림의 내용
+
+    @Column(name = "notification_type", nullable = false, length = 50)
+    private String notificationType;
+
+    @Column(name = "coalesced_count", nullable = false)
+    private int count = 1; // 합쳐진 알림 수
+
+    @Column(name = "is_read", nullable = false)
+    private boolean isRead = false;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt; // 마지막으로 합쳐진 시각 (알림함 정렬 기준)
+}
@@ -73,6 +73,8 @@ public interface MessageMapper {
     @Mapping(target = "editedAt", ignore = true)
     @Mapping(target = "deleted", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "deletedContent", ignore = true)
+    @Mapping(target = "seq", ignore = true)
     @Mapping(source = "content", target = "content")
     @Mapping(source = "type", target = "type")
     ChatMessage toEntity(MessageDto.SendRequest sendRequest);
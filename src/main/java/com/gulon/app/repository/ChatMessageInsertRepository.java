@@ -0,0 +1,15 @@
+package com.gulon.app.repository;
+
+import com.gulon.app.entity.ChatMessage;
+
+/**
+ * 멤버십 확인을 포함한 메시지 저장 (ChatMessageRepository 커스텀 구현)
+ */
+public interface ChatMessageInsertRepository {
+
+    // 보낸 사람이 그룹의 활성 멤버일 때만 INSERT ... SELECT로 저장하고 생성된 id 반환 (멤버가 아니면 null)
+    Integer insertIfActiveMember(ChatMessage message, Integer groupId, Integer userId);
+
+    // 저장된 메시지에 순번 지정 (저장이 확정된 뒤 발급해 실패한 저장이 순번을 소비하지 않도록)
+    void assignSeq(Integer id, long seq);
+}
@@ -0,0 +1,63 @@
+package com.gulon.app.repository;
+
+import com.gulon.app.entity.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * 멤버십 확인과 저장을 하나의 SQL로 처리해 메시지 전송을 DB 왕복 한 번으로 줄임
+ */
+@RequiredArgsConstructor
+public class ChatMessageInsertRepositoryImpl implements ChatMessageInsertRepository {
+
+    private static final String INSERT_IF_MEMBER_SQL =
+            "INSERT INTO chat_message (public_id, group_id, user_id, content, type, sent_at, seq, client_message_id, is_deleted) " +
+            "SELECT :publicId, gm.group_id, gm.user_id, :content, :type, :sentAt, :seq, :clientMessageId, false " +
+            "FROM group_member gm " +
+            "WHERE gm.group_id = :groupId AND gm.user_id = :userId AND gm.status = 'ACTIVE'";
+
+    private static final String ASSIGN_SEQ_SQL = "UPDATE chat_message SET seq = :seq WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Integer insertIfActiveMember(ChatMessage message, Integer groupId, Integer userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("publicId", toBytes(message.getPublicId()))
+                .addValue("content", message.getContent())
+                .addValue("type", message.getType().name())
+                .addValue("sentAt", Timestamp.valueOf(message.getSentAt()))
+                .addValue("seq", message.getSeq())
+                .addValue("clientMessageId", message.getClientMessageId())
+                .addValue("groupId", groupId)
+                .addValue("userId", userId);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(INSERT_IF_MEMBER_SQL, params, keyHolder, new String[]{"id"});
+        if (inserted == 0 || keyHolder.getKey() == null) {
+            return null;
+        }
+        return keyHolder.getKey().intValue();
+    }
+
+    @Override
+    public void assignSeq(Integer id, long seq) {
+        jdbcTemplate.update(ASSIGN_SEQ_SQL, new MapSqlParameterSource()
+                .addValue("seq", seq)
+                .addValue("id", id));
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -5,25 +5,46 @@ import com.gulon.app.entity.GroupTable;
 import com.gulon.app.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ChatMessageRepository extends JpaRepository<ChatMessage, Integer> {
+public interface ChatMessageRepository extends JpaRepository<ChatMessage, Integer>, ChatMessageSearchRepository, ChatMessageInsertRepository {
     
     // publicId로 메시지 조회
     Optional<ChatMessage> findByPublicId(UUID publicId);
     
+    // 보낸 사람의 클라이언트 메시지 ID로 조회 (재전송 응답용)
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.user JOIN FETCH cm.group WHERE cm.user.id = :userId AND cm.clientMessageId = :clientMessageId")
+    Optional<ChatMessage> findByUserIdAndClientMessageId(@Param("userId") Integer userId, @Param("clientMessageId") String clientMessageId);
+    
+    // 보낸 사람 publicId와 클라이언트 메시지 ID로 조회 (중복 제거 키 만료 후 재전송 확인용)
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.user JOIN FETCH cm.group WHERE cm.user.publicId = :userPublicId AND cm.clientMessageId = :clientMessageId")
+    Optional<ChatMessage> findByUserPublicIdAndClientMessageId(@Param("userPublicId") UUID userPublicId, @Param("clientMessageId") String clientMessageId);
+    
     // publicId 존재 여부 확인
     boolean existsByPublicId(UUID publicId);
     
+    // 이미 저장된 publicId 조회 (배치 저장 시 새로 저장된 행 구분용)
+    @Query("SELECT cm.publicId FROM ChatMessage cm WHERE cm.publicId IN :publicIds")
+    List<UUID> findPublicIdsByPublicIdIn(@Param("publicIds") Collection<UUID> publicIds);
+    
+    // publicId 목록으로 메시지 일괄 조회
+    List<ChatMessage> findByPublicIdIn(Collection<UUID> publicIds);
+    
+    // id 목록으로 작성자와 함께 일괄 조회 (검색 결과 로딩용)
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.user WHERE cm.id IN :ids")
+    List<ChatMessage> findWithUserByIdIn(@Param("ids") Collection<Integer> ids);
+    
     // 그룹별 메시지 조회
     List<ChatMessage> findByGroup(GroupTable group);
     
@@ -38,6 +59,25 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Intege
     // 그룹 ID로 메시지 조회 (내부용)
     List<ChatMessage> findByGroupId(Integer groupId);
     
+    // 그룹 히스토리 첫 페이지 조회 (키셋 페이징, COUNT 쿼리 없음)
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.user WHERE cm.group.id = :groupId AND cm.isDeleted = false " +
+           "ORDER BY cm.sentAt DESC, cm.id DESC")
+    Slice<ChatMessage> findHistorySliceByGroupId(@Param("groupId") Integer groupId, Pageable pageable);
+    
+    // 커서 (sentAt, id) 이전 히스토리 조회 (키셋 페이징, COUNT 쿼리 없음)
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.user WHERE cm.group.id = :groupId AND cm.isDeleted = false " +
+           "AND cm.sentAt <= :sentAt AND (cm.sentAt < :sentAt OR cm.id < :id) " +
+           "ORDER BY cm.sentAt DESC, cm.id DESC")
+    Slice<ChatMessage> findHistorySliceByGroupIdBefore(@Param("groupId") Integer groupId,
+                                                       @Param("sentAt") LocalDateTime sentAt,
+                                                       @Param("id") Integer id,
+                                                       Pageable pageable);
+    
+    // 순번 이후 메시지 조회 (재연결 재전송용)
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.user WHERE cm.group.id = :groupId AND cm.seq > :seq " +
+           "AND cm.isDeleted = false ORDER BY cm.seq ASC")
+    List<ChatMessage> findReplayByGroupIdAndSeqAfter(@Param("groupId") Integer groupId, @Param("seq") Long seq, Pageable pageable);
+    
     // 사용자별 메시지 조회
     List<ChatMessage> findByUser(User user);
     
@@ -112,21 +152,6 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Intege
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.group.publicId = :groupPublicId AND cm.editedAt IS NOT NULL")
     List<ChatMessage> findEditedMessagesByGroupPublicId(@Param("groupPublicId") UUID groupPublicId);
     
-    // 키워드로 메시지 검색
-    @Query("SELECT cm FROM ChatMessage cm WHERE " +
-           "LOWER(cm.content) LIKE LOWER(CONCAT('%', :keyword, '%')) AND cm.isDeleted = false")
-    List<ChatMessage> searchByKeyword(@Param("keyword") String keyword);
-    
-    // 그룹 내 키워드 검색
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.group = :group AND " +
-           "LOWER(cm.content) LIKE LOWER(CONCAT('%', :keyword, '%')) AND cm.isDeleted = false")
-    List<ChatMessage> searchByKeywordInGroup(@Param("group") GroupTable group, @Param("keyword") String keyword);
-    
-    // 그룹 publicId 내 키워드 검색
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.group.publicId = :groupPublicId AND " +
-           "LOWER(cm.content) LIKE LOWER(CONCAT('%', :keyword, '%')) AND cm.isDeleted = false")
-    List<ChatMessage> searchByKeywordInGroupPublicId(@Param("groupPublicId") UUID groupPublicId, @Param("keyword") String keyword);
-    
     // 오늘의 메시지 조회
     @Query("SELECT cm FROM ChatMessage cm WHERE DATE(cm.sentAt) = CURRENT_DATE AND cm.isDeleted = false")
     List<ChatMessage> findTodayMessages();
@@ -0,0 +1,26 @@
+package com.gulon.app.repository;
+
+import com.gulon.app.dto.MessageCursor;
+import com.gulon.app.entity.ChatMessage;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메시지 검색 조건 - null인 항목은 조건에서 제외
+ */
+@Getter
+@Setter
+public class ChatMessageSearchCondition {
+    private Integer groupId;
+    private Integer senderId;
+    private String fullTextQuery; // BOOLEAN MODE 쿼리 (ChatMessageSearchIndex.toBooleanQuery)
+    private ChatMessage.MessageType type;
+    private LocalDateTime sentAfter;
+    private LocalDateTime sentBefore;
+    private boolean includeDeleted;
+    private boolean ascending;
+    private MessageCursor cursor; // 키셋 페이징 위치 (이 위치 다음부터 조회)
+    private int offset; // 커서가 없을 때의 페이지 오프셋
+}
@@ -0,0 +1,15 @@
+package com.gulon.app.repository;
+
+import java.util.List;
+
+/**
+ * 메시지 동적 검색 (ChatMessageRepository 커스텀 구현)
+ */
+public interface ChatMessageSearchRepository {
+
+    // 조건에 맞는 메시지 id를 정렬 순서대로 최대 limit개 조회
+    List<Integer> searchIds(ChatMessageSearchCondition condition, int limit);
+
+    // 조건에 맞는 메시지 수 (cap을 넘으면 cap + 1에서 멈춤, 커서/오프셋은 무시)
+    long countMatches(ChatMessageSearchCondition condition, long cap);
+}
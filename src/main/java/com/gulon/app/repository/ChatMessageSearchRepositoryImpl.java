@@ -0,0 +1,87 @@
+package com.gulon.app.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 검색 필터 전체를 하나의 SQL로 변환해 DB에서 필터링/정렬/LIMIT 처리
+ */
+@RequiredArgsConstructor
+public class ChatMessageSearchRepositoryImpl implements ChatMessageSearchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> searchIds(ChatMessageSearchCondition condition, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT cm.id FROM chat_message cm WHERE 1 = 1");
+        appendFilters(sql, params, condition);
+
+        String direction = condition.isAscending() ? "ASC" : "DESC";
+        if (condition.getCursor() != null) {
+            String comparison = condition.isAscending() ? ">" : "<";
+            String inclusive = condition.isAscending() ? ">=" : "<=";
+            sql.append(" AND cm.sent_at ").append(inclusive).append(" :cursorSentAt")
+               .append(" AND (cm.sent_at ").append(comparison).append(" :cursorSentAt OR cm.id ")
+               .append(comparison).append(" :cursorId)");
+            params.addValue("cursorSentAt", Timestamp.valueOf(condition.getCursor().getSentAt()));
+            params.addValue("cursorId", condition.getCursor().getId());
+        }
+
+        sql.append(" ORDER BY cm.sent_at ").append(direction).append(", cm.id ").append(direction)
+           .append(" LIMIT :limit");
+        params.addValue("limit", limit);
+        if (condition.getCursor() == null && condition.getOffset() > 0) {
+            sql.append(" OFFSET :offset");
+            params.addValue("offset", condition.getOffset());
+        }
+
+        return jdbcTemplate.queryForList(sql.toString(), params, Integer.class);
+    }
+
+    @Override
+    public long countMatches(ChatMessageSearchCondition condition, long cap) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM (SELECT 1 FROM chat_message cm WHERE 1 = 1");
+        appendFilters(sql, params, condition);
+        sql.append(" LIMIT :cap) matched");
+        params.addValue("cap", cap + 1);
+
+        Long count = jdbcTemplate.queryForObject(sql.toString(), params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private void appendFilters(StringBuilder sql, MapSqlParameterSource params, ChatMessageSearchCondition condition) {
+        if (condition.getFullTextQuery() != null) {
+            sql.append(" AND MATCH(cm.content) AGAINST(:query IN BOOLEAN MODE)");
+            params.addValue("query", condition.getFullTextQuery());
+        }
+        if (condition.getGroupId() != null) {
+            sql.append(" AND cm.group_id = :groupId");
+            params.addValue("groupId", condition.getGroupId());
+        }
+        if (condition.getSenderId() != null) {
+            sql.append(" AND cm.user_id = :senderId");
+            params.addValue("senderId", condition.getSenderId());
+        }
+        if (condition.getType() != null) {
+            sql.append(" AND cm.type = :type");
+            params.addValue("type", condition.getType().name());
+        }
+        if (condition.getSentAfter() != null) {
+            sql.append(" AND cm.sent_at > :sentAfter");
+            params.addValue("sentAfter", Timestamp.valueOf(condition.getSentAfter()));
+        }
+        if (condition.getSentBefore() != null) {
+            sql.append(" AND cm.sent_at < :sentBefore");
+            params.addValue("sentBefore", Timestamp.valueOf(condition.getSentBefore()));
+        }
+        if (!condition.isIncludeDeleted()) {
+            sql.append(" AND cm.is_deleted = false");
+        }
+    }
+}
@@ -45,10 +45,18 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, GroupM
     @Query("SELECT gm FROM GroupMember gm WHERE gm.group.publicId = :groupPublicId AND gm.status = :status")
     List<GroupMember> findByGroupPublicIdAndStatus(@Param("groupPublicId") UUID groupPublicId, @Param("status") GroupMember.MemberStatus status);
     
+    // 그룹별 활성 멤버 조회 (사용자 함께 로딩)
+    @Query("SELECT gm FROM GroupMember gm JOIN FETCH gm.user WHERE gm.group.publicId = :groupPublicId AND gm.status = 'ACTIVE'")
+    List<GroupMember> findActiveWithUserByGroupPublicId(@Param("groupPublicId") UUID groupPublicId);
+    
     // 사용자별 활성 그룹 조회
     @Query("SELECT gm FROM GroupMember gm WHERE gm.user.publicId = :publicId AND gm.status = :status")
     List<GroupMember> findByUserPublicIdAndStatus(@Param("publicId") UUID publicId, @Param("status") GroupMember.MemberStatus status);
     
+    // 사용자별 활성 그룹 조회 (그룹 함께 로딩, 안 읽은 메시지 수 조회용)
+    @Query("SELECT gm FROM GroupMember gm JOIN FETCH gm.group WHERE gm.user.publicId = :publicId AND gm.status = 'ACTIVE'")
+    List<GroupMember> findActiveWithGroupByUserPublicId(@Param("publicId") UUID publicId);
+    
     // 역할별 멤버 조회
     @Query("SELECT gm FROM GroupMember gm WHERE gm.group.publicId = :groupPublicId AND gm.role = :role")
     List<GroupMember> findByGroupPublicIdAndRole(@Param("groupPublicId") UUID groupPublicId, @Param("role") GroupMember.Role role);
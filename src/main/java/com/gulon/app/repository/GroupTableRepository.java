@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +22,13 @@ public interface GroupTableRepository extends JpaRepository<GroupTable, Integer>
     // publicId 존재 여부 확인
     boolean existsByPublicId(UUID publicId);
     
+    // publicId 목록으로 그룹 일괄 조회
+    List<GroupTable> findByPublicIdIn(Collection<UUID> publicIds);
+    
+    // publicId 목록으로 (publicId, id, name) 일괄 조회 - PublicIdResolver용
+    @Query("SELECT g.publicId, g.id, g.name FROM GroupTable g WHERE g.publicId IN :publicIds")
+    List<Object[]> findRefsByPublicIdIn(@Param("publicIds") Collection<UUID> publicIds);
+    
     // 소유자별 그룹 조회
     List<GroupTable> findByOwner(User owner);
     
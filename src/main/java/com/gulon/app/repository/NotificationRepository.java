@@ -0,0 +1,46 @@
+package com.gulon.app.repository;
+
+import com.gulon.app.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    
+    // 이미 옮겨진 알림 확인 (Redis에서 옮기는 도중 재시도된 경우)
+    @Query("SELECT n.publicId FROM Notification n WHERE n.publicId IN :publicIds")
+    List<UUID> findPublicIdsByPublicIdIn(@Param("publicIds") Collection<UUID> publicIds);
+    
+    // 사용자 알림함 첫 페이지 (최근 갱신 순)
+    @Query("SELECT n FROM Notification n WHERE n.userPublicId = :userPublicId ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Notification> findInbox(@Param("userPublicId") UUID userPublicId, Pageable pageable);
+    
+    // 사용자 알림함 다음 페이지 - (updatedAt, id) 키셋 이전
+    @Query("SELECT n FROM Notification n WHERE n.userPublicId = :userPublicId " +
+           "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+           "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Notification> findInboxBefore(@Param("userPublicId") UUID userPublicId,
+                                       @Param("updatedAt") LocalDateTime updatedAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+    
+    // 지정한 알림 읽음 처리 - 새로 읽음 처리된 수 반환
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userPublicId = :userPublicId " +
+           "AND n.publicId IN :publicIds AND n.isRead = false")
+    int markRead(@Param("userPublicId") UUID userPublicId, @Param("publicIds") Collection<UUID> publicIds);
+    
+    // 사용자의 모든 알림 읽음 처리
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userPublicId = :userPublicId AND n.isRead = false")
+    int markAllRead(@Param("userPublicId") UUID userPublicId);
+}
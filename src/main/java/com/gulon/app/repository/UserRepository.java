@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,6 +27,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     // PublicId 존재 여부 확인
     boolean existsByPublicId(UUID publicId);
     
+    // PublicId 목록으로 사용자 일괄 조회
+    List<User> findByPublicIdIn(Collection<UUID> publicIds);
+    
+    // publicId 목록으로 (publicId, id, name) 일괄 조회 - PublicIdResolver용
+    @Query("SELECT u.publicId, u.id, u.name FROM User u WHERE u.publicId IN :publicIds")
+    List<Object[]> findRefsByPublicIdIn(@Param("publicIds") Collection<UUID> publicIds);
+    
     // 상태별 사용자 조회
     List<User> findByStatus(User.UserStatus status);
     
@@ -0,0 +1,145 @@
+package com.gulon.app.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅 전달 지연 지표
+ * - chat.delivery.hop{hop, stream}: 구간별 지연 (수신 → 발행 → 리스너 수신 → lane 처리 → 소켓 쓰기), 회수된 엔트리는 reclaim 구간
+ * - chat.delivery.latency: 스트림 엔트리 생성(XADD)부터 각 노드의 소켓 쓰기까지의 전체 지연
+ * - chat.stream.lag / pending / pending.oldest{stream, group}: XINFO/XPENDING 주기 수집값
+ * 시작 시각은 스트림 엔트리 ID의 밀리초(Redis 서버 시계)를 사용해 노드 간 시계 차이의 영향을 줄인다.
+ * 분위수 히스토그램은 management.metrics.distribution.*.chat.delivery 설정으로 켠다.
+ */
+@Service
+@Slf4j
+public class ChatDeliveryMetrics {
+
+    public static final String HOP_INGEST = "ingest"; // ChatController 수신 → 발행 완료 (중복 확인 포함)
+    public static final String HOP_PUBLISH = "publish"; // XADD
+    public static final String HOP_STREAM = "stream"; // 엔트리 생성 → 리스너 수신
+    public static final String HOP_RECLAIM = "reclaim"; // 엔트리 생성 → pending 회수 (대기 시간 포함, stream 구간과 분리)
+    public static final String HOP_DISPATCH = "dispatch"; // 리스너 수신 → lane 처리 시작
+    public static final String HOP_HANDLE = "handle"; // lane 처리 (팬아웃 발행, 재시도 포함)
+    public static final String HOP_OUTBOUND = "outbound"; // outbound 채널 진입 → 소켓 쓰기 완료
+
+    public static final String STREAM_CHAT = "chat";
+    public static final String STREAM_NOTIFICATION = "notification";
+    public static final String STREAM_OTHER = "other";
+    public static final String STREAM_ANY = "any"; // 스트림 구분 없는 구간 (소켓 쓰기)
+
+    private final MeterRegistry meterRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final Timer endToEnd;
+    private final Map<String, Timer> hops = new ConcurrentHashMap<>(); // "{hop}|{stream}" -> Timer
+    private final Map<String, AtomicLong> streamGauges = new ConcurrentHashMap<>(); // "{name}|{stream}|{group}" -> 수집값
+
+    public ChatDeliveryMetrics(MeterRegistry meterRegistry, StringRedisTemplate redisTemplate,
+                               ChatStreamPartitioner streamPartitioner) {
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+        this.streamPartitioner = streamPartitioner;
+        this.endToEnd = Timer.builder("chat.delivery.latency")
+                .description("스트림 엔트리 생성부터 소켓 쓰기까지의 채팅 전달 지연")
+                .register(meterRegistry);
+    }
+
+    public void recordHop(String hop, String stream, long startNanos) {
+        hop(hop, stream).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 엔트리 생성 시각(epoch 밀리초)부터 지금까지 - 시계 차이로 음수가 되면 0으로 기록
+     */
+    public void recordHopSince(String hop, String stream, long originMillis) {
+        hop(hop, stream).record(Math.max(0, System.currentTimeMillis() - originMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordEndToEnd(long originMillis) {
+        endToEnd.record(Math.max(0, System.currentTimeMillis() - originMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public String streamType(String streamKey) {
+        if (streamPartitioner.isChatStream(streamKey)) {
+            return STREAM_CHAT;
+        }
+        return RedisStreamService.NOTIFICATION_STREAM.equals(streamKey) ? STREAM_NOTIFICATION : STREAM_OTHER;
+    }
+
+    /**
+     * 스트림/컨슈머 그룹별 lag과 pending 수집
+     * - lag: 마지막 생성 엔트리와 그룹에 마지막으로 전달된 엔트리의 시각 차이 (밀리초)
+     * - pending: 전달되었지만 ACK 되지 않은 엔트리 수
+     * - pending.oldest: 가장 오래된 pending 엔트리의 경과 시간 (밀리초)
+     * scrape마다 Redis를 조회하지 않도록 주기적으로 수집해 게이지에 반영
+     */
+    @Scheduled(fixedDelayString = "${redis.stream.metrics-interval:10000}")
+    public void sampleStreams() {
+        List<String> streamKeys = new ArrayList<>(streamPartitioner.readStreamKeys());
+        streamKeys.add(RedisStreamService.NOTIFICATION_STREAM);
+        long now = System.currentTimeMillis();
+
+        for (String streamKey : streamKeys) {
+            try {
+                StreamInfo.XInfoStream info = redisTemplate.opsForStream().info(streamKey);
+                long lastGenerated = StreamArchive.parseId(info.lastGeneratedId())[0];
+
+                for (StreamInfo.XInfoGroup group : redisTemplate.opsForStream().groups(streamKey)) {
+                    long lastDelivered = StreamArchive.parseId(group.lastDeliveredId())[0];
+                    long oldestPendingAge = 0;
+                    if (group.pendingCount() > 0) {
+                        PendingMessagesSummary pending = redisTemplate.opsForStream().pending(streamKey, group.groupName());
+                        if (pending != null && pending.getTotalPendingMessages() > 0) {
+                            oldestPendingAge = Math.max(0, now - StreamArchive.parseId(pending.minMessageId())[0]);
+                        }
+                    }
+                    streamGauge("chat.stream.lag", "컨슈머 그룹 전달 지연 (밀리초)", streamKey, group.groupName())
+                            .set(Math.max(0, lastGenerated - lastDelivered));
+                    streamGauge("chat.stream.pending", "ACK 되지 않은 엔트리 수", streamKey, group.groupName())
+                            .set(group.pendingCount());
+                    streamGauge("chat.stream.pending.oldest", "가장 오래된 pending 엔트리 경과 시간 (밀리초)",
+                            streamKey, group.groupName())
+                            .set(oldestPendingAge);
+                }
+            } catch (Exception e) {
+                // 아직 생성되지 않은 스트림 등
+                log.debug("스트림 지표 수집 실패 - Stream: {}", streamKey, e);
+            }
+        }
+    }
+
+    private Timer hop(String hop, String stream) {
+        return hops.computeIfAbsent(hop + '|' + stream, key -> Timer.builder("chat.delivery.hop")
+                .description("채팅 전달 구간별 지연")
+                .tag("hop", hop)
+                .tag("stream", stream)
+                .register(meterRegistry));
+    }
+
+    private AtomicLong streamGauge(String name, String description, String streamKey, String group) {
+        return streamGauges.computeIfAbsent(name + '|' + streamKey + '|' + group, key -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder(name, value, AtomicLong::get)
+                    .description(description)
+                    .tag("stream", streamKey)
+                    .tag("group", group)
+                    .register(meterRegistry);
+            return value;
+        });
+    }
+}
@@ -0,0 +1,388 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatPersistenceConfig;
+import com.gulon.app.config.RedisStreamConfig;
+import com.gulon.app.dto.MessageDto;
+import com.gulon.app.entity.ChatMessage;
+import com.gulon.app.mapper.MessageMapper;
+import com.gulon.app.repository.ChatMessageRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 실시간 채팅 메시지 DB 저장 (write-behind)
+ * 채팅 스트림을 컨슈머 그룹으로 배치 단위로 읽어 JDBC 배치 INSERT로 묶어서 커밋하고,
+ * 커밋이 끝난 엔트리만 ACK 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessagePersister implements InitializingBean, DisposableBean {
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO chat_message (public_id, group_id, user_id, content, type, sent_at, seq, client_message_id, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, false)";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChatMessageRepository messageRepository;
+    private final PublicIdResolver idResolver;
+    private final MembershipCache membershipCache;
+    private final MessageMapper messageMapper;
+    private final RecentMessageCache recentMessageCache;
+    private final ChatStatisticsService statisticsService;
+    private final ChatPersistenceConfig persistenceConfig;
+    private final RedisStreamConfig streamConfig;
+    private final StreamPendingReclaimer pendingReclaimer;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final StreamDeadLetterService deadLetterService;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!persistenceConfig.isEnabled()) {
+            log.info("채팅 메시지 저장 컨슈머가 비활성화되어 있습니다.");
+            return;
+        }
+
+        running = true;
+        // 파티션별 워커 - 같은 그룹의 메시지는 한 파티션에만 있으므로 저장 순서가 유지됨
+        for (String streamKey : streamPartitioner.readStreamKeys()) {
+            createGroupIfAbsent(streamKey);
+            Thread worker = new Thread(() -> run(streamKey), "chat-persister-" + streamKey);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("채팅 메시지 저장 컨슈머가 시작되었습니다. - Group: {}, Consumer: {}, Partitions: {}",
+                persistenceConfig.getConsumerGroup(), streamConfig.getConsumerName(), workers.size());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(persistenceConfig.getFlushInterval() * 5);
+        }
+        if (!workers.isEmpty()) {
+            log.info("채팅 메시지 저장 컨슈머가 종료되었습니다.");
+        }
+    }
+
+    private void run(String streamKey) {
+        Consumer consumer = Consumer.from(persistenceConfig.getConsumerGroup(), streamConfig.getConsumerName());
+        List<MapRecord<String, ?, ?>> buffer = new ArrayList<>();
+        long lastClaimAt = System.currentTimeMillis();
+        long firstBufferedAt = 0;
+
+        // 재시작 시 이전에 ACK 하지 못한 자기 pending 엔트리부터 처리
+        boolean drainingPending = true;
+        String pendingCursor = "0";
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                // 이전 저장이 실패해 버퍼가 가득 찬 상태면 읽지 않고 바로 다시 저장 시도
+                if (running && buffer.size() < persistenceConfig.getBatchSize()) {
+                    long elapsed = buffer.isEmpty() ? 0 : System.currentTimeMillis() - firstBufferedAt;
+                    long wait = Math.max(1, persistenceConfig.getFlushInterval() - elapsed);
+                    int count = persistenceConfig.getBatchSize() - buffer.size();
+
+                    StreamReadOptions options = StreamReadOptions.empty().count(count);
+                    if (!drainingPending) {
+                        options = options.block(Duration.ofMillis(wait));
+                    }
+                    ReadOffset offset = drainingPending ? ReadOffset.from(pendingCursor) : ReadOffset.lastConsumed();
+
+                    List<MapRecord<String, Object, Object>> records = read(consumer, options, streamKey, offset);
+
+                    // 다른 노드가 처리하지 못하고 방치한 pending 엔트리 회수 (버퍼에 남은 자리만큼만)
+                    int capacity = persistenceConfig.getBatchSize() - buffer.size()
+                            - (records != null ? records.size() : 0);
+                    if (!drainingPending && capacity > 0
+                            && System.currentTimeMillis() - lastClaimAt >= streamConfig.getClaimInterval()) {
+                        lastClaimAt = System.currentTimeMillis();
+                        List<MapRecord<String, String, String>> claimed = pendingReclaimer.claimIdle(
+                                streamKey, persistenceConfig.getConsumerGroup(), streamConfig.getConsumerName(), capacity);
+                        if (!claimed.isEmpty() && buffer.isEmpty()) {
+                            firstBufferedAt = System.currentTimeMillis();
+                        }
+                        buffer.addAll(claimed);
+                    }
+
+                    if (records == null || records.isEmpty()) {
+                        drainingPending = false;
+                    } else {
+                        if (buffer.isEmpty()) {
+                            firstBufferedAt = System.currentTimeMillis();
+                        }
+                        buffer.addAll(records);
+                        if (drainingPending) {
+                            pendingCursor = records.get(records.size() - 1).getId().getValue();
+                        }
+                    }
+                }
+
+                boolean full = buffer.size() >= persistenceConfig.getBatchSize();
+                boolean due = !buffer.isEmpty()
+                        && System.currentTimeMillis() - firstBufferedAt >= persistenceConfig.getFlushInterval();
+                if (full || due || (!running && !buffer.isEmpty())) {
+                    flush(streamKey, buffer);
+                    buffer.clear();
+                }
+
+            } catch (Exception e) {
+                log.error("채팅 메시지 배치 저장 실패 - Stream: {}, 대기 중인 메시지: {}건", streamKey, buffer.size(), e);
+                if (!running) {
+                    break; // 종료 중이면 pending 상태로 남겨 재시작 시 처리
+                }
+                sleepQuietly(persistenceConfig.getRetryBackoff());
+            }
+        }
+    }
+
+    /**
+     * Consumer/옵션을 받는 read(...)가 StreamOffset 가변 인자만 제공해 생기는 제네릭 배열 경고를 이 호출로 한정
+     * (단일 오프셋만 전달하므로 힙 오염 없음)
+     */
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> read(Consumer consumer, StreamReadOptions options,
+                                                         String streamKey, ReadOffset offset) {
+        return redisTemplate.opsForStream().read(consumer, options, StreamOffset.create(streamKey, offset));
+    }
+
+    /**
+     * 버퍼의 메시지를 하나의 트랜잭션으로 저장한 뒤 ACK
+     * 이미 저장되어 있던 메시지(재전달/회수/재처리된 엔트리)는 캐시/통계에 다시 반영하지 않음
+     */
+    private void flush(String streamKey, List<MapRecord<String, ?, ?>> records) {
+        List<StreamChatMessage> messages = new ArrayList<>(records.size());
+        for (MapRecord<String, ?, ?> record : records) {
+            try {
+                StreamChatMessage message = StreamChatMessage.from(record.getValue());
+                if (message != null) {
+                    messages.add(message);
+                }
+            } catch (IllegalArgumentException e) {
+                // 저장할 수 없는 메시지는 흔적 없이 버리지 않고 DLQ로 옮긴 뒤 배치와 함께 ACK
+                deadLetterService.deadLetter(toStringRecord(record), 1, e);
+            }
+        }
+
+        List<PersistedMessage> persisted = messages.isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> insertBatch(messages));
+
+        RecordId[] recordIds = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        redisTemplate.opsForStream().acknowledge(
+                streamKey, persistenceConfig.getConsumerGroup(), recordIds);
+
+        persisted.forEach(message -> {
+            recentMessageCache.onMessageSent(message.getGroupPublicId(), message.getId(), message.getSummary());
+            statisticsService.recordSent(message.getGroupPublicId(), message.getId(),
+                    message.getSummary().getSenderPublicId(),
+                    message.getSummary().getType(), message.getSummary().getSentAt());
+        });
+
+        log.info("채팅 메시지 배치 저장 완료 - Stream: {}, 수신: {}건, 저장: {}건", streamKey, records.size(), persisted.size());
+    }
+
+    private List<PersistedMessage> insertBatch(List<StreamChatMessage> messages) {
+        Map<UUID, PublicIdResolver.Ref> groups = idResolver.groups(
+                messages.stream().map(StreamChatMessage::getGroupPublicId).collect(Collectors.toSet()));
+        Map<UUID, PublicIdResolver.Ref> users = idResolver.users(
+                messages.stream().map(StreamChatMessage::getSenderPublicId).collect(Collectors.toSet()));
+
+        Map<String, Boolean> memberships = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(messages.size());
+        List<UUID> publicIds = new ArrayList<>(messages.size());
+
+        for (StreamChatMessage message : messages) {
+            PublicIdResolver.Ref group = groups.get(message.getGroupPublicId());
+            PublicIdResolver.Ref sender = users.get(message.getSenderPublicId());
+            if (group == null || sender == null) {
+                log.warn("저장할 수 없는 채팅 메시지 - MessageId: {}, GroupId: {}, SenderId: {}",
+                        message.getPublicId(), message.getGroupPublicId(), message.getSenderPublicId());
+                continue;
+            }
+
+            boolean isMember = memberships.computeIfAbsent(
+                    message.getGroupPublicId() + ":" + message.getSenderPublicId(),
+                    key -> membershipCache.isActiveMember(message.getGroupPublicId(), message.getSenderPublicId()));
+            if (!isMember) {
+                log.warn("그룹 멤버가 아닌 사용자의 채팅 메시지 - MessageId: {}, GroupId: {}, SenderId: {}",
+                        message.getPublicId(), message.getGroupPublicId(), message.getSenderPublicId());
+                continue;
+            }
+
+            rows.add(new Object[]{
+                    toBytes(message.getPublicId()),
+                    group.getId(),
+                    sender.getId(),
+                    message.getContent(),
+                    message.getType().name(),
+                    Timestamp.valueOf(message.getSentAt()),
+                    message.getSeq(),
+                    message.getClientMessageId()
+            });
+            publicIds.add(message.getPublicId());
+        }
+
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        // rewriteBatchedStatements로 묶인 배치는 행별 결과 대신 SUCCESS_NO_INFO를 돌려주므로 미리 조회한 기존 행으로 판단
+        Set<UUID> existing = new HashSet<>(messageRepository.findPublicIdsByPublicIdIn(publicIds));
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        Set<UUID> inserted = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            UUID publicId = publicIds.get(i);
+            if (counts[i] == 1 || (counts[i] == Statement.SUCCESS_NO_INFO && !existing.contains(publicId))) {
+                inserted.add(publicId);
+            }
+        }
+        if (inserted.isEmpty()) {
+            return List.of();
+        }
+
+        // 같은 트랜잭션에서 새로 저장된 행의 id를 조회해 캐시용 요약으로 변환
+        return messageRepository.findByPublicIdIn(inserted).stream()
+                .map(saved -> new PersistedMessage(
+                        saved.getGroup().getPublicId(), saved.getId(), messageMapper.toSummary(saved)))
+                .collect(Collectors.toList());
+    }
+
+    private void createGroupIfAbsent(String streamKey) {
+        try {
+            redisTemplate.opsForStream().createGroup(streamKey, ReadOffset.latest(), persistenceConfig.getConsumerGroup());
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static MapRecord<String, String, String> toStringRecord(MapRecord<String, ?, ?> record) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        record.getValue().forEach((field, value) -> fields.put(String.valueOf(field), String.valueOf(value)));
+        return StreamRecords.string(fields).withStreamKey(record.getStream()).withId(record.getId());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 스트림 엔트리에서 추출한 저장 대상 메시지
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class StreamChatMessage {
+
+        private static final Set<String> PERSISTED_TYPES = Set.of("TEXT", "IMAGE", "FILE");
+
+        private final UUID publicId;
+        private final UUID groupPublicId;
+        private final UUID senderPublicId;
+        private final String content;
+        private final ChatMessage.MessageType type;
+        private final LocalDateTime sentAt;
+        private final Long seq; // 순번 도입 전에 발행된 엔트리는 null
+        private final String clientMessageId; // 클라이언트가 보내지 않았으면 null
+
+        /**
+         * 입장/퇴장 같은 시스템 이벤트, 수정/삭제/복원 diff 이벤트는 null 반환
+         * 저장 대상 타입인데 형식이 맞지 않거나 저장할 수 없는 내용이면 IllegalArgumentException
+         */
+        static StreamChatMessage from(Map<?, ?> body) {
+            if (body.get("action") != null) {
+                return null; // DB에는 이미 반영된 변경
+            }
+            String messageType = String.valueOf(body.get("messageType"));
+            if (!PERSISTED_TYPES.contains(messageType)) {
+                return null;
+            }
+            String content = body.get("message") != null ? String.valueOf(body.get("message")) : null;
+            if (body.get("messageId") == null || content == null) {
+                throw new IllegalArgumentException("메시지 ID 또는 내용이 없는 엔트리");
+            }
+            if (content.length() > ChatMessage.MAX_CONTENT_LENGTH) {
+                throw new IllegalArgumentException("메시지 길이 초과: " + content.length() + "자");
+            }
+            try {
+                return new StreamChatMessage(
+                        UUID.fromString(String.valueOf(body.get("messageId"))),
+                        UUID.fromString(String.valueOf(body.get("groupId"))),
+                        UUID.fromString(String.valueOf(body.get("senderId"))),
+                        content,
+                        ChatMessage.MessageType.valueOf(messageType),
+                        LocalDateTime.ofInstant(
+                                Instant.ofEpochMilli(Long.parseLong(String.valueOf(body.get("timestamp")))),
+                                ZoneId.systemDefault()),
+                        body.get("seq") != null ? Long.valueOf(String.valueOf(body.get("seq"))) : null,
+                        body.get("clientMessageId") != null ? String.valueOf(body.get("clientMessageId")) : null
+                );
+            } catch (NullPointerException e) {
+                throw new IllegalArgumentException("필수 필드가 없는 엔트리", e);
+            }
+        }
+    }
+
+    /**
+     * 커밋된 메시지 - 캐시 반영용
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class PersistedMessage {
+        private final UUID groupPublicId;
+        private final Integer id;
+        private final MessageDto.Summary summary;
+    }
+}
@@ -0,0 +1,77 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatSearchConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 메시지 전문 검색 인덱스 (MySQL FULLTEXT + ngram parser)
+ * 한국어는 형태소 단위 공백이 없으므로 ngram 토큰으로 색인해 부분 문자열 검색을 인덱스로 처리한다.
+ * InnoDB FULLTEXT 인덱스는 INSERT/UPDATE 커밋 시 함께 갱신되므로 전송/수정/삭제는 별도 처리 없이 반영되고,
+ * 삭제된 메시지는 검색 쿼리의 is_deleted 조건으로 제외된다.
+ * 인덱스는 운영 절차로 생성한다 (resources/db/chat_message_search_index.sql) - 시작 시 자동 생성은 chat.search.create-index로 켠다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessageSearchIndex implements ApplicationRunner {
+
+    public static final String INDEX_NAME = "ft_chat_content";
+
+    private static final String INDEX_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = 'chat_message' AND index_name = ?";
+
+    private static final String CREATE_INDEX_SQL =
+            "ALTER TABLE chat_message ADD FULLTEXT INDEX " + INDEX_NAME + " (content) WITH PARSER ngram";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatSearchConfig searchConfig;
+
+    /**
+     * 인덱스가 없으면 생성 - 생성 시 기존 메시지 전체가 색인되므로 별도 백필이 필요 없음
+     * (테이블 재구성 동안 쓰기가 차단되므로 개발 환경에서만 사용)
+     * 자동 생성이 꺼져 있으면 인덱스가 없을 때 경고만 남김 (검색 쿼리는 실패함)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(INDEX_EXISTS_SQL, Integer.class, INDEX_NAME);
+            if (count != null && count > 0) {
+                return;
+            }
+            if (!searchConfig.isCreateIndex()) {
+                log.warn("채팅 메시지 FULLTEXT 인덱스 없음 - db/chat_message_search_index.sql 실행 필요, Index: {}", INDEX_NAME);
+                return;
+            }
+            log.info("채팅 메시지 FULLTEXT 인덱스 생성 시작 - Index: {}", INDEX_NAME);
+            long startedAt = System.currentTimeMillis();
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+            log.info("채팅 메시지 FULLTEXT 인덱스 생성 완료 - Index: {}, 소요: {}ms",
+                    INDEX_NAME, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("채팅 메시지 FULLTEXT 인덱스 생성 실패 - Index: {}", INDEX_NAME, e);
+        }
+    }
+
+    /**
+     * 검색어를 BOOLEAN MODE 쿼리로 변환
+     * ngram 토큰보다 긴 검색어는 구문 검색("...")으로 연속된 토큰을 모두 포함하는 메시지만 찾고,
+     * 토큰보다 짧은 검색어는 접두 검색(*)으로 해당 글자로 시작하는 토큰을 찾는다.
+     */
+    public String toBooleanQuery(String keyword) {
+        // BOOLEAN MODE 연산자 제거
+        String sanitized = keyword.replaceAll("[+\\-<>()~*\"@]", " ").trim().replaceAll("\\s+", " ");
+        if (sanitized.isEmpty()) {
+            throw new IllegalArgumentException("검색어가 올바르지 않습니다: " + keyword);
+        }
+        if (sanitized.length() < searchConfig.getNgramTokenSize()) {
+            return sanitized + "*";
+        }
+        return "\"" + sanitized + "\"";
+    }
+}
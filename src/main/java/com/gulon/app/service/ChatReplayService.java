@@ -0,0 +1,260 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatReplayConfig;
+import com.gulon.app.dto.MessageDto;
+import com.gulon.app.entity.ChatMessage;
+import com.gulon.app.repository.ChatMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 재연결한 클라이언트에게 연결이 끊긴 동안의 채팅 메시지 재전송
+ * 마지막으로 받은 streamId가 스트림에 남아 있으면 그 이후 엔트리를 파티션 스트림에서 읽고,
+ * trim되어 구간이 사라졌으면 마지막 seq 이후 메시지를 DB에서 읽은 뒤 아직 저장되지 않은 최신 메시지를 스트림 끝에서 보충한다.
+ * 클라이언트는 그룹 토픽을 먼저 구독한 뒤 재전송을 요청하고, 겹치는 메시지는 messageId로 걸러낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatReplayService {
+
+    public static final String SOURCE_STREAM = "STREAM";
+    public static final String SOURCE_DB = "DB";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final ChatMessageRepository messageRepository;
+    private final PublicIdResolver idResolver;
+    private final MembershipCache membershipCache;
+    private final ChatReplayConfig replayConfig;
+
+    /**
+     * afterStreamId 또는 afterSeq 이후의 그룹 메시지 조회 (오래된 순)
+     */
+    @Transactional(readOnly = true)
+    public MessageDto.ReplayResponse replay(UUID groupPublicId, UUID userPublicId, String afterStreamId, Long afterSeq) {
+        PublicIdResolver.Ref group = idResolver.groupOrThrow(groupPublicId);
+
+        if (userPublicId == null || !membershipCache.isActiveMember(groupPublicId, userPublicId)) {
+            throw new IllegalArgumentException("그룹 멤버만 메시지를 다시 받을 수 있습니다.");
+        }
+
+        String afterId = afterStreamId == null || afterStreamId.isBlank() ? null : afterStreamId;
+        if (afterId != null) {
+            try {
+                StreamArchive.parseId(afterId);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 스트림 ID입니다: " + afterStreamId);
+            }
+        }
+        if (afterId == null && afterSeq == null) {
+            throw new IllegalArgumentException("마지막으로 받은 streamId 또는 seq가 필요합니다.");
+        }
+
+        String groupId = groupPublicId.toString();
+        String streamKey = streamPartitioner.streamKeyOf(groupId);
+
+        if (afterId != null && isRetained(streamKey, afterId)) {
+            return replayFromStream(groupPublicId, streamKey, afterId, afterSeq);
+        }
+        if (afterSeq != null) {
+            return replayFromDb(groupPublicId, group.getId(), streamKey, afterSeq);
+        }
+
+        // 스트림에서 trim되었고 순번도 없으면 구간을 복원할 수 없음
+        log.info("재전송 구간 복원 불가 - GroupId: {}, AfterStreamId: {}", groupPublicId, afterId);
+        MessageDto.ReplayResponse response = newResponse(groupPublicId, SOURCE_STREAM, List.of());
+        response.setResetRequired(true);
+        return response;
+    }
+
+    /**
+     * afterId 이후 엔트리가 모두 스트림에 남아 있는지 (가장 오래된 엔트리가 afterId 이전이면 trim되지 않은 구간)
+     */
+    private boolean isRetained(String streamKey, String afterId) {
+        List<MapRecord<String, String, String>> first = redisTemplate.<String, String>opsForStream()
+                .range(streamKey, Range.unbounded(), Limit.limit().count(1));
+        return first != null && !first.isEmpty()
+                && StreamArchive.compareIds(first.get(0).getId().getValue(), afterId) <= 0;
+    }
+
+    private MessageDto.ReplayResponse replayFromStream(UUID groupPublicId, String streamKey, String afterId, Long afterSeq) {
+        String groupId = groupPublicId.toString();
+        int maxMessages = replayConfig.getMaxMessages();
+        List<MessageDto.ReplayMessage> messages = new ArrayList<>();
+        String lastScanned = afterId;
+        int scanned = 0;
+        boolean reachedEnd = false;
+
+        while (scanned < replayConfig.getMaxScanEntries() && messages.size() < maxMessages) {
+            int count = Math.min(replayConfig.getScanBatchSize(), replayConfig.getMaxScanEntries() - scanned);
+            Range<String> range = Range.of(Range.Bound.inclusive(StreamArchive.nextId(lastScanned)), Range.Bound.unbounded());
+            List<MapRecord<String, String, String>> records = redisTemplate.<String, String>opsForStream()
+                    .range(streamKey, range, Limit.limit().count(count));
+            if (records == null || records.isEmpty()) {
+                reachedEnd = true;
+                break;
+            }
+
+            int index = 0;
+            while (index < records.size() && messages.size() < maxMessages) {
+                MapRecord<String, String, String> record = records.get(index++);
+                lastScanned = record.getId().getValue();
+                if (groupId.equals(record.getValue().get("groupId"))) {
+                    messages.add(toReplayMessage(lastScanned, record.getValue()));
+                }
+            }
+            scanned += index;
+            if (index == records.size() && records.size() < count) {
+                reachedEnd = true;
+                break;
+            }
+        }
+
+        MessageDto.ReplayResponse response = newResponse(groupPublicId, SOURCE_STREAM, messages);
+        response.setHasMore(!reachedEnd);
+        response.setNextStreamId(lastScanned);
+        response.setNextSeq(lastSeq(messages, afterSeq));
+        log.info("스트림 재전송 - GroupId: {}, AfterStreamId: {}, 메시지: {}건, 스캔: {}건",
+                groupPublicId, afterId, messages.size(), scanned);
+        return response;
+    }
+
+    private MessageDto.ReplayResponse replayFromDb(UUID groupPublicId, Integer groupId, String streamKey, long afterSeq) {
+        int maxMessages = replayConfig.getMaxMessages();
+        List<ChatMessage> rows = messageRepository.findReplayByGroupIdAndSeqAfter(
+                groupId, afterSeq, PageRequest.of(0, maxMessages + 1));
+        boolean hasMore = rows.size() > maxMessages;
+
+        List<MessageDto.ReplayMessage> messages = new ArrayList<>(Math.min(rows.size(), maxMessages));
+        Set<String> messageIds = new HashSet<>();
+        for (ChatMessage row : hasMore ? rows.subList(0, maxMessages) : rows) {
+            MessageDto.ReplayMessage message = toReplayMessage(row);
+            messageIds.add(message.getMessageId());
+            messages.add(message);
+        }
+
+        if (!hasMore) {
+            // 아직 DB에 저장되지 않은 최신 메시지는 스트림 끝에서 보충
+            List<MessageDto.ReplayMessage> pending = readPendingTail(
+                    streamKey, groupPublicId.toString(), lastSeq(messages, afterSeq), messageIds);
+            int remaining = maxMessages - messages.size();
+            hasMore = pending.size() > remaining;
+            messages.addAll(hasMore ? pending.subList(0, remaining) : pending);
+        }
+
+        MessageDto.ReplayResponse response = newResponse(groupPublicId, SOURCE_DB, messages);
+        response.setHasMore(hasMore);
+        response.setNextSeq(lastSeq(messages, afterSeq));
+        if (!messages.isEmpty()) {
+            response.setNextStreamId(messages.get(messages.size() - 1).getStreamId());
+        }
+        log.info("DB 재전송 - GroupId: {}, AfterSeq: {}, 메시지: {}건", groupPublicId, afterSeq, messages.size());
+        return response;
+    }
+
+    /**
+     * 스트림 끝에서 역순으로 읽어 afterSeq 이후의 그룹 메시지 수집 (오래된 순으로 반환)
+     * 순번이 afterSeq 이하인 그룹 메시지를 만나면 그 이전은 모두 DB에 반영된 구간이므로 중단
+     */
+    private List<MessageDto.ReplayMessage> readPendingTail(String streamKey, String groupId, long afterSeq,
+                                                           Set<String> excludedMessageIds) {
+        List<MessageDto.ReplayMessage> newestFirst = new ArrayList<>();
+        String upper = null;
+        int scanned = 0;
+
+        while (scanned < replayConfig.getMaxScanEntries()) {
+            int count = Math.min(replayConfig.getScanBatchSize(), replayConfig.getMaxScanEntries() - scanned);
+            Range<String> range = Range.of(Range.Bound.unbounded(),
+                    upper == null ? Range.Bound.unbounded() : Range.Bound.inclusive(upper));
+            List<MapRecord<String, String, String>> records = redisTemplate.<String, String>opsForStream()
+                    .reverseRange(streamKey, range, Limit.limit().count(count));
+            if (records == null || records.isEmpty()) {
+                break;
+            }
+            scanned += records.size();
+
+            for (MapRecord<String, String, String> record : records) {
+                Map<String, String> fields = record.getValue();
+                String seq = fields.get("seq");
+                // diff 이벤트의 seq는 대상 메시지의 순번이므로 구간 판단에서 제외
+                if (!groupId.equals(fields.get("groupId")) || seq == null || fields.get("action") != null) {
+                    continue;
+                }
+                if (Long.parseLong(seq) <= afterSeq) {
+                    Collections.reverse(newestFirst);
+                    return newestFirst;
+                }
+                if (!excludedMessageIds.contains(fields.get("messageId"))) {
+                    newestFirst.add(toReplayMessage(record.getId().getValue(), fields));
+                }
+            }
+            if (records.size() < count) {
+                break;
+            }
+            upper = StreamArchive.previousId(records.get(records.size() - 1).getId().getValue());
+        }
+
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    private static MessageDto.ReplayResponse newResponse(UUID groupPublicId, String source,
+                                                         List<MessageDto.ReplayMessage> messages) {
+        MessageDto.ReplayResponse response = new MessageDto.ReplayResponse();
+        response.setGroupPublicId(groupPublicId);
+        response.setSource(source);
+        response.setMessages(messages);
+        return response;
+    }
+
+    private static Long lastSeq(List<MessageDto.ReplayMessage> messages, Long afterSeq) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getSeq() != null) {
+                return messages.get(i).getSeq();
+            }
+        }
+        return afterSeq;
+    }
+
+    private static MessageDto.ReplayMessage toReplayMessage(String streamId, Map<String, String> fields) {
+        MessageDto.ReplayMessage message = new MessageDto.ReplayMessage();
+        message.setStreamId(streamId);
+        message.setMessageId(fields.getOrDefault("messageId", ""));
+        message.setAction(fields.get("action"));
+        message.setSenderId(fields.get("senderId"));
+        message.setMessage(fields.get("message"));
+        message.setMessageType(fields.get("messageType"));
+        message.setTimestamp(fields.get("timestamp"));
+        String seq = fields.get("seq");
+        message.setSeq(seq != null ? Long.parseLong(seq) : null);
+        return message;
+    }
+
+    private static MessageDto.ReplayMessage toReplayMessage(ChatMessage row) {
+        MessageDto.ReplayMessage message = new MessageDto.ReplayMessage();
+        message.setMessageId(row.getPublicId().toString());
+        message.setSenderId(row.getUser().getPublicId().toString());
+        message.setMessage(row.getContent());
+        message.setMessageType(row.getType().name());
+        message.setTimestamp(String.valueOf(row.getSentAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        message.setSeq(row.getSeq());
+        return message;
+    }
+}
@@ -0,0 +1,164 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatPersistenceConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 그룹별 메시지 순번 (chat:seq:{groupId})
+ * 저장되는 메시지마다 INCR로 단조 증가하는 순번을 부여하며, 키가 없으면 DB와 아직 저장되지 않은 스트림 엔트리의
+ * 최대 순번으로 초기화한다 (저장이 밀린 상태에서 키가 유실되어도 이미 발급한 순번을 다시 발급하지 않도록).
+ * 순번은 검증을 통과한 메시지에만 발급하므로 빈 번호는 발행(XADD) 자체가 실패한 경우에만 생긴다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatSequenceService {
+
+    private static final String KEY_PREFIX = "chat:seq:";
+
+    private static final DefaultRedisScript<Long> NEXT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end\n" +
+            "return redis.call('INCR', KEYS[1])",
+            Long.class);
+
+    private static final String MAX_SEQ_SQL =
+            "SELECT COALESCE(MAX(cm.seq), 0) FROM chat_message cm JOIN group_table g ON g.id = cm.group_id " +
+            "WHERE g.public_id = ?";
+
+    private static final int SEED_SCAN_PAGE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final ChatPersistenceConfig persistenceConfig;
+
+    /**
+     * 다음 순번 발급
+     */
+    public long next(UUID groupPublicId) {
+        String key = key(groupPublicId);
+        Long seq = redisTemplate.execute(NEXT_SCRIPT, List.of(key));
+        if (seq == null || seq < 0) {
+            seed(groupPublicId);
+            seq = redisTemplate.opsForValue().increment(key);
+        }
+        return seq;
+    }
+
+    /**
+     * 그룹들의 최신 순번 일괄 조회
+     */
+    public Map<UUID, Long> latest(List<UUID> groupPublicIds) {
+        Map<UUID, Long> latest = new HashMap<>();
+        if (groupPublicIds.isEmpty()) {
+            return latest;
+        }
+        List<String> keys = new ArrayList<>(groupPublicIds.size());
+        groupPublicIds.forEach(groupPublicId -> keys.add(key(groupPublicId)));
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        for (int i = 0; i < groupPublicIds.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            latest.put(groupPublicIds.get(i), value != null ? Long.parseLong(value) : seed(groupPublicIds.get(i)));
+        }
+        return latest;
+    }
+
+    public long latest(UUID groupPublicId) {
+        return latest(List.of(groupPublicId)).get(groupPublicId);
+    }
+
+    /**
+     * DB와 미저장 스트림 엔트리의 최대 순번으로 키 초기화 (이미 다른 노드가 초기화했으면 그 값을 사용)
+     */
+    private long seed(UUID groupPublicId) {
+        Long max = jdbcTemplate.queryForObject(MAX_SEQ_SQL, Long.class, toBytes(groupPublicId));
+        long seed = Math.max(max != null ? max : 0, latestStreamSeq(groupPublicId));
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key(groupPublicId), String.valueOf(seed)))) {
+            String current = redisTemplate.opsForValue().get(key(groupPublicId));
+            return current != null ? Long.parseLong(current) : seed;
+        }
+        log.info("그룹 메시지 순번 초기화 - GroupId: {}, Seq: {}", groupPublicId, seed);
+        return seed;
+    }
+
+    /**
+     * 저장 컨슈머 그룹이 아직 ACK 하지 않은 구간(가장 오래된 pending 또는 마지막 전달 위치 이후)에서 그룹의 최대 순번
+     * 그룹 정보가 없으면 스트림 전체를 확인
+     */
+    private long latestStreamSeq(UUID groupPublicId) {
+        String groupId = groupPublicId.toString();
+        String streamKey = streamPartitioner.streamKeyOf(groupId);
+        long latest = 0;
+        try {
+            String from = unpersistedFrom(streamKey);
+            Range.Bound<String> lower = Range.Bound.inclusive(from);
+            while (true) {
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                        .range(streamKey, Range.of(lower, Range.Bound.unbounded()), Limit.limit().count(SEED_SCAN_PAGE));
+                if (records == null || records.isEmpty()) {
+                    break;
+                }
+                for (MapRecord<String, Object, Object> record : records) {
+                    Object seq = record.getValue().get("seq");
+                    if (seq != null && groupId.equals(record.getValue().get("groupId"))) {
+                        latest = Math.max(latest, Long.parseLong(seq.toString()));
+                    }
+                }
+                if (records.size() < SEED_SCAN_PAGE) {
+                    break;
+                }
+                lower = Range.Bound.exclusive(records.get(records.size() - 1).getId().getValue());
+            }
+        } catch (Exception e) {
+            // 아직 생성되지 않은 스트림 등
+            log.debug("스트림 순번 확인 실패 - Stream: {}", streamKey, e);
+        }
+        return latest;
+    }
+
+    private String unpersistedFrom(String streamKey) {
+        for (StreamInfo.XInfoGroup group : redisTemplate.opsForStream().groups(streamKey)) {
+            if (!persistenceConfig.getConsumerGroup().equals(group.groupName())) {
+                continue;
+            }
+            String from = group.lastDeliveredId();
+            if (group.pendingCount() > 0) {
+                PendingMessagesSummary pending = redisTemplate.opsForStream().pending(streamKey, group.groupName());
+                if (pending != null && pending.getTotalPendingMessages() > 0) {
+                    from = pending.minMessageId();
+                }
+            }
+            return from;
+        }
+        return "0-0";
+    }
+
+    private static String key(UUID groupPublicId) {
+        return KEY_PREFIX + "{" + groupPublicId + "}";
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,413 @@
+package com.gulon.app.service;
+
+import com.gulon.app.dto.MessageDto;
+import com.gulon.app.entity.ChatMessage;
+import com.gulon.app.entity.GroupTable;
+import com.gulon.app.entity.User;
+import com.gulon.app.mapper.MessageMapper;
+import com.gulon.app.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 그룹 채팅 통계 카운터
+ * 전송/수정/삭제 시 Redis 해시 카운터를 Lua 스크립트로 원자적으로 갱신하고, 조회는 카운터만 읽는다.
+ * 키는 {groupId} 해시 태그로 묶여 클러스터에서도 한 슬롯에 위치한다.
+ * - chat:stats:{g}           total, type:{TYPE}, deleted, edited, first, last (epoch ms)
+ * - chat:stats:{g}:daily     yyyy-MM-dd -> 메시지 수
+ * - chat:stats:{g}:users     userPublicId -> 메시지 수
+ * - chat:stats:{g}:user-last userPublicId -> 마지막 전송 시각 (epoch ms)
+ * 카운터가 없는 그룹은 첫 조회 시 집계 SQL로 재구성한다.
+ * - 한 노드만 재구성하도록 chat:stats:{g}:rebuild 락을 잡고, 임시 키에 쓴 뒤 스크립트로 한 번에 RENAME
+ * - 집계는 하나의 스냅샷에서 읽고 그 시점의 최대 메시지 id를 fence로 기록 - fence 이하 메시지의 전송 반영은 건너뜀
+ * - 재구성 중 들어온 전송 반영은 chat:stats:{g}:rebuild:log에 모았다가 RENAME과 함께 fence 이후의 것만 반영
+ * 수정/삭제/복원 카운터는 메시지 id로 구분할 수 없어 재구성 중의 증분이 누락되거나 중복될 수 있다 (재구성 구간 한정).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatStatisticsService {
+
+    private static final String KEY_PREFIX = "chat:stats:";
+    private static final int DAILY_WINDOW_DAYS = 7;
+
+    private static final long REBUILD_LOCK_MILLIS = 60000;
+
+    // 전송 1건 반영 (KEYS 1~4: 요약, 일별, 사용자별, 사용자별 마지막 전송 / type, day, user, sentAt)
+    private static final String APPLY_SENT_LUA =
+            "local function applySent(type, day, user, sentAtValue)\n" +
+            "  redis.call('HINCRBY', KEYS[1], 'total', 1)\n" +
+            "  redis.call('HINCRBY', KEYS[1], 'type:' .. type, 1)\n" +
+            "  redis.call('HINCRBY', KEYS[2], day, 1)\n" +
+            "  redis.call('HINCRBY', KEYS[3], user, 1)\n" +
+            "  local sentAt = tonumber(sentAtValue)\n" +
+            "  local first = redis.call('HGET', KEYS[1], 'first')\n" +
+            "  if not first or tonumber(first) > sentAt then redis.call('HSET', KEYS[1], 'first', sentAtValue) end\n" +
+            "  local last = redis.call('HGET', KEYS[1], 'last')\n" +
+            "  if not last or tonumber(last) < sentAt then redis.call('HSET', KEYS[1], 'last', sentAtValue) end\n" +
+            "  local userLast = redis.call('HGET', KEYS[4], user)\n" +
+            "  if not userLast or tonumber(userLast) < sentAt then redis.call('HSET', KEYS[4], user, sentAtValue) end\n" +
+            "end\n";
+
+    // KEYS 5: 재구성 중 반영 로그, 6: 재구성 락 / ARGV: type, day, user, sentAt, messageId
+    private static final DefaultRedisScript<Long> RECORD_SENT_SCRIPT = new DefaultRedisScript<>(
+            APPLY_SENT_LUA +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then\n" +
+            "  if redis.call('EXISTS', KEYS[6]) == 1 then\n" +
+            "    redis.call('RPUSH', KEYS[5], ARGV[5] .. '|' .. ARGV[1] .. '|' .. ARGV[2] .. '|' .. ARGV[3] .. '|' .. ARGV[4])\n" +
+            "  end\n" +
+            "  return 0\n" +
+            "end\n" +
+            "if tonumber(ARGV[5]) <= tonumber(redis.call('HGET', KEYS[1], 'fence') or '0') then return 0 end\n" +
+            "applySent(ARGV[1], ARGV[2], ARGV[3], ARGV[4])\n" +
+            "return 1",
+            Long.class);
+
+    // KEYS 1~4: 카운터, 5~8: 재구성 임시 키, 9: 재구성 중 반영 로그, 10: 재구성 락 / ARGV: fence, 락 토큰
+    // 락을 잃었으면 반영하지 않음, 임시 키를 RENAME 한 뒤 로그 중 fence 이후 메시지만 반영
+    private static final DefaultRedisScript<Long> PUBLISH_REBUILD_SCRIPT = new DefaultRedisScript<>(
+            APPLY_SENT_LUA +
+            "if redis.call('GET', KEYS[10]) ~= ARGV[2] then return 0 end\n" +
+            "for i = 1, 4 do\n" +
+            "  if redis.call('EXISTS', KEYS[i + 4]) == 1 then\n" +
+            "    redis.call('RENAME', KEYS[i + 4], KEYS[i])\n" +
+            "  else\n" +
+            "    redis.call('DEL', KEYS[i])\n" +
+            "  end\n" +
+            "end\n" +
+            "local fence = tonumber(ARGV[1])\n" +
+            "for _, entry in ipairs(redis.call('LRANGE', KEYS[9], 0, -1)) do\n" +
+            "  local f = {}\n" +
+            "  for part in string.gmatch(entry, '([^|]+)') do table.insert(f, part) end\n" +
+            "  if tonumber(f[1]) > fence then applySent(f[2], f[3], f[4], f[5]) end\n" +
+            "end\n" +
+            "redis.call('DEL', KEYS[9], KEYS[10])\n" +
+            "return 1",
+            Long.class);
+
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end\n" +
+            "return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])",
+            Long.class);
+
+    private static final String TYPE_AGGREGATE_SQL =
+            "SELECT type, COUNT(*) AS total, SUM(is_deleted) AS deleted, SUM(edited_at IS NOT NULL) AS edited, " +
+            "MIN(sent_at) AS first_sent, MAX(sent_at) AS last_sent " +
+            "FROM chat_message WHERE group_id = ? GROUP BY type";
+
+    private static final String DAILY_AGGREGATE_SQL =
+            "SELECT DATE(sent_at) AS day, COUNT(*) AS total FROM chat_message WHERE group_id = ? GROUP BY DATE(sent_at)";
+
+    private static final String USER_AGGREGATE_SQL =
+            "SELECT u.public_id, COUNT(*) AS total, MAX(cm.sent_at) AS last_sent " +
+            "FROM chat_message cm JOIN `user` u ON u.id = cm.user_id WHERE cm.group_id = ? GROUP BY u.id, u.public_id";
+
+    private static final String FENCE_SQL = "SELECT COALESCE(MAX(id), 0) FROM chat_message WHERE group_id = ?";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final MessageMapper messageMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 메시지 전송 반영 - messageId가 재구성 fence 이하이면 이미 집계에 포함된 메시지이므로 건너뜀
+     */
+    public void recordSent(UUID groupPublicId, Integer messageId, UUID senderPublicId, ChatMessage.MessageType type,
+                           LocalDateTime sentAt) {
+        String group = groupPublicId.toString();
+        execute(RECORD_SENT_SCRIPT,
+                List.of(statsKey(group), dailyKey(group), usersKey(group), userLastKey(group),
+                        rebuildLogKey(group), rebuildLockKey(group)),
+                type.name(), sentAt.toLocalDate().toString(), senderPublicId.toString(), String.valueOf(toMillis(sentAt)),
+                String.valueOf(messageId));
+    }
+
+    /**
+     * 메시지의 첫 수정 반영 (이미 수정된 메시지의 재수정은 호출하지 않음)
+     */
+    public void recordFirstEdit(UUID groupPublicId) {
+        increment(groupPublicId, "edited", 1);
+    }
+
+    public void recordDeleted(UUID groupPublicId) {
+        increment(groupPublicId, "deleted", 1);
+    }
+
+    public void recordRestored(UUID groupPublicId) {
+        increment(groupPublicId, "deleted", -1);
+    }
+
+    /**
+     * 카운터로 통계 구성 - 카운터가 없으면 집계 SQL로 재구성 후 조회
+     */
+    public void fillStatistics(GroupTable group, MessageDto.Statistics stats) {
+        String groupKey = group.getPublicId().toString();
+        Map<String, String> counters = hashEntries(statsKey(groupKey));
+        if (counters.isEmpty()) {
+            rebuild(group);
+            counters = hashEntries(statsKey(groupKey));
+        }
+
+        stats.setTotalMessages(counter(counters, "total"));
+        stats.setTextMessages(counter(counters, "type:" + ChatMessage.MessageType.TEXT.name()));
+        stats.setImageMessages(counter(counters, "type:" + ChatMessage.MessageType.IMAGE.name()));
+        stats.setFileMessages(counter(counters, "type:" + ChatMessage.MessageType.FILE.name()));
+        stats.setSystemMessages(counter(counters, "type:" + ChatMessage.MessageType.SYSTEM.name()));
+        stats.setDeletedMessages(counter(counters, "deleted"));
+        stats.setEditedMessages(counter(counters, "edited"));
+        if (counters.containsKey("first")) {
+            stats.setFirstMessageAt(fromMillis(Long.parseLong(counters.get("first"))));
+        }
+        if (counters.containsKey("last")) {
+            stats.setLastMessageAt(fromMillis(Long.parseLong(counters.get("last"))));
+        }
+
+        stats.setDailyCounts(dailyCounts(groupKey));
+        stats.setUserCounts(userCounts(groupKey));
+    }
+
+    /**
+     * 최근 7일 일별 메시지 수 - 고정된 개수의 필드만 조회
+     */
+    private List<MessageDto.DailyMessageCount> dailyCounts(String groupKey) {
+        LocalDate today = LocalDate.now();
+        List<Object> days = new ArrayList<>(DAILY_WINDOW_DAYS + 1);
+        for (int offset = DAILY_WINDOW_DAYS; offset >= 0; offset--) {
+            days.add(today.minusDays(offset).toString());
+        }
+        List<Object> values = redisTemplate.opsForHash().multiGet(dailyKey(groupKey), days);
+
+        List<MessageDto.DailyMessageCount> dailyCounts = new ArrayList<>();
+        for (int i = 0; i < days.size(); i++) {
+            if (values.get(i) == null) {
+                continue;
+            }
+            MessageDto.DailyMessageCount count = new MessageDto.DailyMessageCount();
+            count.setDate((String) days.get(i));
+            count.setCount(Long.parseLong((String) values.get(i)));
+            dailyCounts.add(count);
+        }
+        return dailyCounts;
+    }
+
+    /**
+     * 사용자별 메시지 수 - 그룹에서 메시지를 보낸 사용자 수에 비례
+     */
+    private List<MessageDto.UserMessageCount> userCounts(String groupKey) {
+        Map<String, String> counts = hashEntries(usersKey(groupKey));
+        if (counts.isEmpty()) {
+            return List.of();
+        }
+        Map<String, String> lastSent = hashEntries(userLastKey(groupKey));
+        Map<UUID, User> users = userRepository.findByPublicIdIn(
+                        counts.keySet().stream().map(UUID::fromString).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getPublicId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<MessageDto.UserMessageCount> userCounts = new ArrayList<>(counts.size());
+        counts.forEach((userId, count) -> {
+            User user = users.get(UUID.fromString(userId));
+            if (user == null) {
+                return;
+            }
+            MessageDto.UserMessageCount userCount = messageMapper.toUserMessageCount(user);
+            userCount.setMessageCount(Long.parseLong(count));
+            String last = lastSent.get(userId);
+            if (last != null) {
+                userCount.setLastMessageDaysAgo(ChronoUnit.DAYS.between(fromMillis(Long.parseLong(last)), now));
+            }
+            userCounts.add(userCount);
+        });
+        return userCounts;
+    }
+
+    /**
+     * 집계 SQL로 카운터 재구성 - 다른 노드가 재구성 중이면 건너뜀 (그동안은 빈 통계)
+     * 락을 먼저 잡아야 스냅샷 이후의 전송 반영이 로그에 남음
+     */
+    private void rebuild(GroupTable group) {
+        String groupKey = group.getPublicId().toString();
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(
+                rebuildLockKey(groupKey), token, Duration.ofMillis(REBUILD_LOCK_MILLIS)))) {
+            log.info("채팅 통계 카운터 재구성 진행 중 - GroupId: {}", groupKey);
+            return;
+        }
+        try {
+            rebuild(group, groupKey, token);
+        } catch (RuntimeException e) {
+            redisTemplate.delete(List.of(rebuildLockKey(groupKey), rebuildLogKey(groupKey)));
+            throw e;
+        }
+    }
+
+    private void rebuild(GroupTable group, String groupKey, String token) {
+        long startedAt = System.currentTimeMillis();
+
+        // 모든 집계와 fence를 같은 스냅샷에서 읽음
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+
+        Map<String, String> counters = new HashMap<>();
+        Map<String, String> daily = new HashMap<>();
+        Map<String, String> userTotals = new HashMap<>();
+        Map<String, String> userLast = new HashMap<>();
+        long[] totals = new long[3]; // total, deleted, edited
+        Long[] range = new Long[2]; // first, last
+        Long fence = snapshot.execute(status -> {
+            Long maxId = jdbcTemplate.queryForObject(FENCE_SQL, Long.class, group.getId());
+            jdbcTemplate.query(TYPE_AGGREGATE_SQL, rs -> {
+                long total = rs.getLong("total");
+                counters.put("type:" + rs.getString("type"), String.valueOf(total));
+                totals[0] += total;
+                totals[1] += rs.getLong("deleted");
+                totals[2] += rs.getLong("edited");
+                long first = toMillis(rs.getTimestamp("first_sent").toLocalDateTime());
+                long last = toMillis(rs.getTimestamp("last_sent").toLocalDateTime());
+                range[0] = range[0] == null ? first : Math.min(range[0], first);
+                range[1] = range[1] == null ? last : Math.max(range[1], last);
+            }, group.getId());
+            counters.put("total", String.valueOf(totals[0]));
+            counters.put("fence", String.valueOf(maxId != null ? maxId : 0));
+            counters.put("deleted", String.valueOf(totals[1]));
+            counters.put("edited", String.valueOf(totals[2]));
+            if (range[0] != null) {
+                counters.put("first", String.valueOf(range[0]));
+                counters.put("last", String.valueOf(range[1]));
+            }
+
+            jdbcTemplate.query(DAILY_AGGREGATE_SQL, rs -> {
+                daily.put(rs.getDate("day").toLocalDate().toString(), String.valueOf(rs.getLong("total")));
+            }, group.getId());
+
+            jdbcTemplate.query(USER_AGGREGATE_SQL, rs -> {
+                String userId = toUuid(rs.getBytes("public_id")).toString();
+                userTotals.put(userId, String.valueOf(rs.getLong("total")));
+                userLast.put(userId, String.valueOf(toMillis(rs.getTimestamp("last_sent").toLocalDateTime())));
+            }, group.getId());
+            return maxId != null ? maxId : 0L;
+        });
+
+        // 임시 키에 쓴 뒤 한 번에 교체
+        List<String> temporaryKeys = List.of(rebuildKey(statsKey(groupKey)), rebuildKey(dailyKey(groupKey)),
+                rebuildKey(usersKey(groupKey)), rebuildKey(userLastKey(groupKey)));
+        redisTemplate.delete(temporaryKeys);
+        redisTemplate.opsForHash().putAll(temporaryKeys.get(0), counters);
+        if (!daily.isEmpty()) {
+            redisTemplate.opsForHash().putAll(temporaryKeys.get(1), daily);
+        }
+        if (!userTotals.isEmpty()) {
+            redisTemplate.opsForHash().putAll(temporaryKeys.get(2), userTotals);
+            redisTemplate.opsForHash().putAll(temporaryKeys.get(3), userLast);
+        }
+        List<String> keys = new ArrayList<>(List.of(statsKey(groupKey), dailyKey(groupKey), usersKey(groupKey),
+                userLastKey(groupKey)));
+        keys.addAll(temporaryKeys);
+        keys.add(rebuildLogKey(groupKey));
+        keys.add(rebuildLockKey(groupKey));
+        Long published = redisTemplate.execute(PUBLISH_REBUILD_SCRIPT, keys, String.valueOf(fence), token);
+        if (published == null || published == 0) {
+            // 락이 만료되어 다른 노드가 재구성 중 - 그 결과를 사용
+            redisTemplate.delete(temporaryKeys);
+            log.warn("채팅 통계 카운터 재구성 락 만료 - GroupId: {}", groupKey);
+            return;
+        }
+
+        log.info("채팅 통계 카운터 재구성 - GroupId: {}, 메시지: {}건, 소요: {}ms",
+                groupKey, totals[0], System.currentTimeMillis() - startedAt);
+    }
+
+    private void increment(UUID groupPublicId, String field, long delta) {
+        execute(INCREMENT_SCRIPT, List.of(statsKey(groupPublicId.toString())), field, String.valueOf(delta));
+    }
+
+    /**
+     * 카운터 갱신 실패는 메시지 처리에 영향을 주지 않도록 로그만 남김
+     */
+    private void execute(DefaultRedisScript<Long> script, List<String> keys, String... args) {
+        try {
+            redisTemplate.execute(script, keys, (Object[]) args);
+        } catch (Exception e) {
+            log.warn("채팅 통계 카운터 갱신 실패 - Keys: {}", keys, e);
+        }
+    }
+
+    private Map<String, String> hashEntries(String key) {
+        Map<String, String> entries = new HashMap<>();
+        redisTemplate.opsForHash().entries(key).forEach((field, value) -> entries.put((String) field, (String) value));
+        return entries;
+    }
+
+    private static long counter(Map<String, String> counters, String field) {
+        String value = counters.get(field);
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    private static String statsKey(String groupId) {
+        return KEY_PREFIX + "{" + groupId + "}";
+    }
+
+    private static String rebuildLockKey(String groupId) {
+        return statsKey(groupId) + ":rebuild";
+    }
+
+    private static String rebuildLogKey(String groupId) {
+        return statsKey(groupId) + ":rebuild:log";
+    }
+
+    // 재구성 임시 키 - 원래 키와 같은 슬롯
+    private static String rebuildKey(String key) {
+        return key + ":rebuild:tmp";
+    }
+
+    private static String dailyKey(String groupId) {
+        return statsKey(groupId) + ":daily";
+    }
+
+    private static String usersKey(String groupId) {
+        return statsKey(groupId) + ":users";
+    }
+
+    private static String userLastKey(String groupId) {
+        return statsKey(groupId) + ":user-last";
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
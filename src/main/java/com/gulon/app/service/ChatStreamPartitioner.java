@@ -0,0 +1,97 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.RedisStreamConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 채팅 스트림 파티션 선택
+ * 그룹 ID를 jump consistent hash로 chat:stream:{n} 중 하나에 매핑하므로
+ * 같은 그룹의 메시지는 항상 같은 파티션에 순서대로 쌓인다.
+ *
+ * 파티션 수 변경 절차 (N -> M)
+ * 1. redis.stream.chat-drain-partitions=N 으로 배포해 모든 노드가 기존 파티션을 계속 읽도록 함
+ * 2. redis.stream.chat-partitions=M 으로 변경 - jump hash 특성상 일부 그룹만 다른 파티션으로 이동
+ * 3. 기존 파티션의 lag/pending 이 0이 될 때까지 대기 (XINFO GROUPS chat:stream:{n})
+ * 4. redis.stream.chat-drain-partitions=0 으로 되돌림 (M < N 이면 남은 키는 삭제)
+ * 2~3 사이에는 이동한 그룹의 전송 중 메시지만 순서가 뒤바뀔 수 있으므로 트래픽이 적은 시간에 진행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatStreamPartitioner {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final RedisStreamConfig streamConfig;
+
+    /**
+     * 그룹이 발행될 스트림 키
+     */
+    public String streamKeyOf(String groupId) {
+        return streamKey(partitionOf(groupId, streamConfig.getChatPartitions()));
+    }
+
+    /**
+     * 리스너가 읽어야 하는 모든 채팅 파티션 키 (변경 중이면 기존 파티션 포함)
+     */
+    public List<String> readStreamKeys() {
+        int partitions = Math.max(streamConfig.getChatPartitions(), streamConfig.getChatDrainPartitions());
+        List<String> keys = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            keys.add(streamKey(partition));
+        }
+        return keys;
+    }
+
+    /**
+     * 채팅 파티션 스트림 여부 (chat:stream:{n}만 해당, DLQ 등 다른 chat:stream:* 키는 제외)
+     */
+    public boolean isChatStream(String streamKey) {
+        String prefix = RedisStreamService.CHAT_STREAM + ":";
+        if (!streamKey.startsWith(prefix) || streamKey.length() == prefix.length()) {
+            return false;
+        }
+        for (int i = prefix.length(); i < streamKey.length(); i++) {
+            if (!Character.isDigit(streamKey.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int partitionOf(String groupId, int partitions) {
+        return jumpConsistentHash(fnv1a(groupId), partitions);
+    }
+
+    private static String streamKey(int partition) {
+        return RedisStreamService.CHAT_STREAM + ":" + partition;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Lamping & Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm"
+     */
+    private static int jumpConsistentHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
@@ -0,0 +1,315 @@
+package com.gulon.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gulon.app.config.WebSocketClusterConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * 멀티 노드 WebSocket 팬아웃
+ * 스트림 엔트리는 컨슈머 그룹에서 한 노드만 처리하고, 그 노드가 Redis Pub/Sub으로 필요한 노드에만 전달한다.
+ * - 그룹 채팅: ws:fanout:group:{groupId} - 로컬 구독자가 있는 노드만 채널을 구독
+ * - 사용자 알림: ws:user:{userId} (ZSET, 노드별 만료 시각)로 세션이 있는 노드를 찾아 ws:node:{nodeId}로 전달
+ * - 그 외 브로드캐스트: ws:fanout:broadcast - 모든 노드가 구독
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterFanoutService implements MessageListener, InitializingBean, DisposableBean {
+
+    public static final String GROUP_DESTINATION_PREFIX = "/topic/chat/group/";
+
+    // 수신 노드가 브로커 메시지에 붙이는 스트림 엔트리 생성 시각 (epoch 밀리초, 클라이언트로는 전송되지 않음)
+    public static final String ORIGIN_TIMESTAMP_HEADER = "chatOriginTimestamp";
+
+    private static final String GROUP_CHANNEL_PREFIX = "ws:fanout:group:";
+    private static final String NODE_CHANNEL_PREFIX = "ws:node:";
+    private static final String BROADCAST_CHANNEL = "ws:fanout:broadcast";
+    private static final String USER_ROUTE_PREFIX = "ws:user:";
+    private static final byte FRAME_SEPARATOR = '\n';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final WebSocketClusterConfig clusterConfig;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void afterPropertiesSet() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(nodeChannel(clusterConfig.getNodeId())));
+        listenerContainer.addMessageListener(this, new ChannelTopic(BROADCAST_CHANNEL));
+        log.info("WebSocket 클러스터 팬아웃 시작 - NodeId: {}", clusterConfig.getNodeId());
+    }
+
+    @Override
+    public void destroy() {
+        // 종료하는 노드로 알림이 라우팅되지 않도록 사용자 라우팅 정보 정리
+        for (String userId : sessionRegistry.localUsers()) {
+            redisTemplate.opsForZSet().remove(userRouteKey(userId), clusterConfig.getNodeId());
+        }
+    }
+
+    /**
+     * 그룹 채팅방 구독자가 있는 모든 노드로 전송
+     * payload가 byte[]이면 이미 인코딩된 JSON으로 보고 그대로 사용
+     */
+    public void publishToGroup(String groupId, Object payload) {
+        publishToGroup(groupId, GROUP_DESTINATION_PREFIX + groupId, payload);
+    }
+
+    /**
+     * 그룹 채팅방 구독자가 있는 모든 노드로 전송 - originMillis는 전달 지연 측정 시작 시각
+     */
+    public void publishToGroup(String groupId, Object payload, long originMillis) {
+        String destination = GROUP_DESTINATION_PREFIX + groupId;
+        publish(GROUP_CHANNEL_PREFIX + groupId, frame(destination, null, originMillis, encode(payload, destination)));
+    }
+
+    /**
+     * 그룹 채팅방 구독자가 있는 노드로 다른 목적지(접속 상태 등)의 메시지 전송
+     */
+    public void publishToGroup(String groupId, String destination, Object payload) {
+        publish(GROUP_CHANNEL_PREFIX + groupId, frame(destination, null, 0, encode(payload, destination)));
+    }
+
+    /**
+     * 사용자 세션이 연결된 노드로만 전송 (연결된 노드가 없으면 전송하지 않음)
+     */
+    public void publishToUser(String userId, String destination, Object payload) {
+        Set<String> nodeIds = redisTemplate.opsForZSet().rangeByScore(
+                userRouteKey(userId), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        if (nodeIds == null || nodeIds.isEmpty()) {
+            log.debug("연결된 노드가 없는 사용자 - UserId: {}", userId);
+            return;
+        }
+        byte[] frame = frame(destination, userId, 0, encode(payload, destination));
+        for (String nodeId : nodeIds) {
+            publish(nodeChannel(nodeId), frame);
+        }
+    }
+
+    /**
+     * 모든 노드로 전송
+     */
+    public void publishBroadcast(String destination, Object payload) {
+        publish(BROADCAST_CHANNEL, frame(destination, null, 0, encode(payload, destination)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        try {
+            Frame frame = parseFrame(message.getBody());
+
+            if (frame.userId.isEmpty() && channel.startsWith(GROUP_CHANNEL_PREFIX)
+                    && !sessionRegistry.hasLocalSubscribers(channel.substring(GROUP_CHANNEL_PREFIX.length()))) {
+                // 구독 해제 직후 도착한 메시지는 로컬 구독자가 없으므로 버림
+                return;
+            }
+
+            // 이미 인코딩된 JSON을 그대로 전달 - 브로커는 같은 payload 배열을 모든 구독 세션에 공유
+            if (frame.userId.isEmpty()) {
+                messagingTemplate.send(frame.destination, jsonMessage(frame.payload, frame.originMillis));
+            } else {
+                messagingTemplate.send(messagingTemplate.getUserDestinationPrefix()
+                        + frame.userId.replace("/", "%2F") + frame.destination,
+                        jsonMessage(frame.payload, frame.originMillis));
+            }
+        } catch (Exception e) {
+            log.error("팬아웃 메시지 전달 실패 - Channel: {}", channel, e);
+        }
+    }
+
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        String userId = event.getUser() != null ? event.getUser().getName() : null;
+        if (sessionRegistry.registerSession(sessionId, userId)) {
+            registerUserRoute(userId);
+        }
+    }
+
+    @EventListener
+    public void onSessionSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(GROUP_DESTINATION_PREFIX)) {
+            return;
+        }
+        String groupId = destination.substring(GROUP_DESTINATION_PREFIX.length());
+        if (sessionRegistry.addSubscription(accessor.getSessionId(), accessor.getSubscriptionId(), groupId)) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(GROUP_CHANNEL_PREFIX + groupId));
+            log.debug("그룹 팬아웃 채널 구독 - GroupId: {}", groupId);
+        }
+    }
+
+    @EventListener
+    public void onSessionUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String groupId = sessionRegistry.removeSubscription(accessor.getSessionId(), accessor.getSubscriptionId());
+        if (groupId != null) {
+            unsubscribeGroup(groupId);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        WebSocketSessionRegistry.SessionRemoval removal = sessionRegistry.removeSession(event.getSessionId());
+        removal.getEmptiedGroups().forEach(this::unsubscribeGroup);
+        if (removal.getDisconnectedUser() != null) {
+            redisTemplate.opsForZSet().remove(userRouteKey(removal.getDisconnectedUser()), clusterConfig.getNodeId());
+        }
+    }
+
+    /**
+     * 로컬 사용자의 라우팅 정보 만료 시각 갱신 - 장애로 정리하지 못한 노드는 TTL 이후 라우팅 대상에서 제외
+     */
+    @Scheduled(fixedDelayString = "${websocket.cluster.user-route-refresh-interval:30000}")
+    public void refreshUserRoutes() {
+        for (String userId : sessionRegistry.localUsers()) {
+            try {
+                registerUserRoute(userId);
+            } catch (Exception e) {
+                log.warn("사용자 라우팅 갱신 실패 - UserId: {}", userId, e);
+            }
+        }
+    }
+
+    private void registerUserRoute(String userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long ttlMillis = clusterConfig.getUserRouteTtl() * 1000L;
+        String key = userRouteKey(userId);
+        redisTemplate.opsForZSet().add(key, clusterConfig.getNodeId(), now + ttlMillis);
+        redisTemplate.opsForZSet().removeRangeByScore(key, 0, now);
+        redisTemplate.expire(key, Duration.ofMillis(ttlMillis));
+    }
+
+    private void unsubscribeGroup(String groupId) {
+        listenerContainer.removeMessageListener(this, new ChannelTopic(GROUP_CHANNEL_PREFIX + groupId));
+        log.debug("그룹 팬아웃 채널 구독 해제 - GroupId: {}", groupId);
+    }
+
+    private void publish(String channel, byte[] frame) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, frame));
+    }
+
+    /**
+     * 팬아웃 프레임 - "{destination}\n{userId}\n{originMillis}\n{JSON payload}" (originMillis는 없으면 빈 값)
+     * payload는 발행 노드에서 한 번만 인코딩하고, 수신 노드는 파싱하지 않고 그대로 브로커에 넘긴다.
+     * (프레임 인코딩/해석과 브로커 메시지 생성은 벤치마크에서 직접 호출하도록 package-private static)
+     */
+    static byte[] frame(String destination, String userId, long originMillis, byte[] json) {
+        byte[] destinationBytes = destination.getBytes(StandardCharsets.UTF_8);
+        byte[] userIdBytes = userId != null ? userId.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] originBytes = originMillis > 0 ? Long.toString(originMillis).getBytes(StandardCharsets.US_ASCII) : new byte[0];
+
+        byte[] frame = new byte[destinationBytes.length + userIdBytes.length + originBytes.length + json.length + 3];
+        int offset = 0;
+        for (byte[] part : new byte[][]{destinationBytes, userIdBytes, originBytes}) {
+            System.arraycopy(part, 0, frame, offset, part.length);
+            offset += part.length;
+            frame[offset++] = FRAME_SEPARATOR;
+        }
+        System.arraycopy(json, 0, frame, offset, json.length);
+        return frame;
+    }
+
+    private byte[] encode(Object payload, String destination) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("팬아웃 메시지 직렬화 실패: " + destination, e);
+        }
+    }
+
+    static Frame parseFrame(byte[] body) {
+        int destinationEnd = indexOf(body, 0);
+        int userIdEnd = indexOf(body, destinationEnd + 1);
+        int originEnd = indexOf(body, userIdEnd + 1);
+        return new Frame(
+                new String(body, 0, destinationEnd, StandardCharsets.UTF_8),
+                new String(body, destinationEnd + 1, userIdEnd - destinationEnd - 1, StandardCharsets.UTF_8),
+                originEnd > userIdEnd + 1
+                        ? Long.parseLong(new String(body, userIdEnd + 1, originEnd - userIdEnd - 1, StandardCharsets.US_ASCII))
+                        : 0,
+                Arrays.copyOfRange(body, originEnd + 1, body.length));
+    }
+
+    static org.springframework.messaging.Message<byte[]> jsonMessage(byte[] payload, long originMillis) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (originMillis > 0) {
+            // 브로커가 구독 세션별 메시지에 복사하므로 outbound 채널에서 전체 지연 측정에 사용
+            accessor.setHeader(ORIGIN_TIMESTAMP_HEADER, originMillis);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == FRAME_SEPARATOR) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("잘못된 팬아웃 프레임입니다.");
+    }
+
+    /**
+     * 수신한 팬아웃 프레임 (userId는 그룹/브로드캐스트면 빈 값)
+     */
+    static final class Frame {
+        final String destination;
+        final String userId;
+        final long originMillis;
+        final byte[] payload;
+
+        Frame(String destination, String userId, long originMillis, byte[] payload) {
+            this.destination = destination;
+            this.userId = userId;
+            this.originMillis = originMillis;
+            this.payload = payload;
+        }
+    }
+
+    private static String nodeChannel(String nodeId) {
+        return NODE_CHANNEL_PREFIX + nodeId;
+    }
+
+    private static String userRouteKey(String userId) {
+        return USER_ROUTE_PREFIX + userId;
+    }
+}
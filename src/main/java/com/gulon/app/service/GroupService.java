@@ -32,6 +32,8 @@ public class GroupService {
     private final UserRepository userRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final GroupMapper groupMapper;
+    private final MembershipCache membershipCache;
+    private final PublicIdResolver idResolver;
     
     /**
      * 그룹 생성
@@ -66,6 +68,7 @@ public class GroupService {
         // 소유자를 OWNER 역할로 GroupMember에 추가
         GroupMember ownerMember = new GroupMember(savedGroup, owner, GroupMember.Role.OWNER);
         groupMemberRepository.save(ownerMember);
+        membershipCache.invalidate(savedGroup.getPublicId(), owner.getPublicId());
         
         // 응답 생성
         GroupDto.CreateResponse response = groupMapper.toCreateResponse(savedGroup);
@@ -90,7 +93,7 @@ public class GroupService {
         
         // 비공개 그룹의 경우 멤버 권한 확인
         if (group.getPrivacy() == GroupTable.Privacy.PRIVATE && requestUserPublicId != null) {
-            boolean isMember = groupMemberRepository.existsActiveMembership(groupPublicId, requestUserPublicId);
+            boolean isMember = membershipCache.isActiveMember(groupPublicId, requestUserPublicId);
             if (!isMember) {
                 return Optional.empty(); // 권한 없음을 나타내기 위해 empty 반환
             }
@@ -134,6 +137,7 @@ public class GroupService {
         // 그룹 정보 업데이트
         groupMapper.updateEntity(request, group);
         GroupTable updatedGroup = groupRepository.save(group);
+        idResolver.evictGroup(groupPublicId);
         
         GroupDto.Response response = groupMapper.toResponse(updatedGroup);
         response.setMemberCount(groupMemberRepository.countByGroupPublicId(groupPublicId));
@@ -161,9 +165,11 @@ public class GroupService {
         // 그룹 멤버들 삭제 (CASCADE 관계 없이 직접 삭제)
         List<GroupMember> members = groupMemberRepository.findByGroupPublicId(groupPublicId);
         groupMemberRepository.deleteAll(members);
+        membershipCache.invalidateGroup(groupPublicId);
         
         // 그룹 삭제
         groupRepository.delete(group);
+        idResolver.evictGroup(groupPublicId);
         
         log.info("Group deleted successfully: {}", groupPublicId);
     }
@@ -298,10 +304,10 @@ public class GroupService {
                 .orElseThrow(() -> new IllegalArgumentException("그룹을 찾을 수 없습니다: " + groupPublicId));
         
         // 소유자 또는 관리자 권한 확인
-        GroupMember membership = groupMemberRepository.findByGroupPublicIdAndUserPublicId(groupPublicId, requestUserPublicId)
+        MembershipCache.Membership membership = membershipCache.find(groupPublicId, requestUserPublicId)
                 .orElseThrow(() -> new IllegalArgumentException("그룹에 접근할 권한이 없습니다."));
         
-        if (membership.getRole() != GroupMember.Role.OWNER && membership.getRole() != GroupMember.Role.ADMIN) {
+        if (!membership.isAdmin()) {
             throw new IllegalArgumentException("통계를 조회할 권한이 없습니다.");
         }
         
@@ -0,0 +1,229 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.MembershipCacheConfig;
+import com.gulon.app.entity.GroupMember;
+import com.gulon.app.repository.GroupMemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 그룹 멤버십 권한 캐시
+ * (groupPublicId, userPublicId)별 역할/상태를 노드 메모리에 유지해 권한 확인에서 DB 조회를 제거한다.
+ * 멤버십이 변경되면 커밋 이후 Redis Pub/Sub(membership:invalidate)으로 모든 노드의 항목을 무효화한다.
+ * 멤버가 아닌 경우도 캐시하며, 메시지는 "{groupId}:{userId}" 또는 그룹 전체 무효화 시 "{groupId}:*".
+ */
+@Component
+@Slf4j
+public class MembershipCache implements MessageListener, InitializingBean {
+
+    private static final String INVALIDATE_CHANNEL = "membership:invalidate";
+    private static final String ALL_USERS = "*";
+
+    private final GroupMemberRepository groupMemberRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MembershipCacheConfig cacheConfig;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    // access-order LinkedHashMap으로 LRU 유지 (모든 접근은 synchronized)
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    // 조회 중 무효화가 일어나면 조회 결과를 캐시하지 않도록 세대 번호 관리
+    private long generation;
+
+    public MembershipCache(GroupMemberRepository groupMemberRepository, StringRedisTemplate redisTemplate,
+                           RedisMessageListenerContainer listenerContainer, MembershipCacheConfig cacheConfig,
+                           MeterRegistry meterRegistry) {
+        this.groupMemberRepository = groupMemberRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.cacheConfig = cacheConfig;
+        this.hits = Counter.builder("chat.membership.cache")
+                .tag("result", "hit")
+                .description("멤버십 캐시 조회 수")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chat.membership.cache")
+                .tag("result", "miss")
+                .description("멤버십 캐시 조회 수")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("chat.membership.cache.invalidations")
+                .description("수신한 멤버십 무효화 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.membership.cache.size", this, MembershipCache::size)
+                .description("캐시된 멤버십 항목 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 멤버십 조회 - 멤버가 아니면 empty
+     */
+    public Optional<Membership> find(UUID groupPublicId, UUID userPublicId) {
+        if (groupPublicId == null || userPublicId == null) {
+            return Optional.empty();
+        }
+        Key key = new Key(groupPublicId, userPublicId);
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(cacheConfig.getExpiry())) {
+                hits.increment();
+                return Optional.ofNullable(entry.membership);
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        Membership membership = groupMemberRepository.findByGroupPublicIdAndUserPublicId(groupPublicId, userPublicId)
+                .map(member -> new Membership(member.getRole(), member.getStatus()))
+                .orElse(null);
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(membership));
+                evictEldest();
+            }
+        }
+        return Optional.ofNullable(membership);
+    }
+
+    /**
+     * 활성 멤버 여부
+     */
+    public boolean isActiveMember(UUID groupPublicId, UUID userPublicId) {
+        return find(groupPublicId, userPublicId).map(Membership::isActive).orElse(false);
+    }
+
+    /**
+     * 멤버십 변경 후 모든 노드의 항목 무효화 (트랜잭션 안이면 커밋 이후)
+     */
+    public void invalidate(UUID groupPublicId, UUID userPublicId) {
+        publishAfterCommit(groupPublicId + ":" + userPublicId);
+    }
+
+    /**
+     * 그룹의 모든 멤버십 무효화 (그룹 삭제 등)
+     */
+    public void invalidateGroup(UUID groupPublicId) {
+        publishAfterCommit(groupPublicId + ":" + ALL_USERS);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            evictLocal(body);
+            invalidations.increment();
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 멤버십 무효화 메시지: {}", body);
+        }
+    }
+
+    private void publishAfterCommit(String target) {
+        Runnable publish = () -> {
+            // 발행 실패에 대비해 로컬 항목은 먼저 제거
+            evictLocal(target);
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, target);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+
+    private synchronized void evictLocal(String target) {
+        int separator = target.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException(target);
+        }
+        UUID groupPublicId = UUID.fromString(target.substring(0, separator));
+        String userId = target.substring(separator + 1);
+
+        generation++;
+        if (ALL_USERS.equals(userId)) {
+            entries.keySet().removeIf(key -> key.groupPublicId.equals(groupPublicId));
+        } else {
+            entries.remove(new Key(groupPublicId, UUID.fromString(userId)));
+        }
+    }
+
+    private void evictEldest() {
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (entries.size() > cacheConfig.getMaxEntries() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 캐시된 멤버십 정보
+     */
+    @Getter
+    public static class Membership {
+        private final GroupMember.Role role;
+        private final GroupMember.MemberStatus status;
+
+        public Membership(GroupMember.Role role, GroupMember.MemberStatus status) {
+            this.role = role;
+            this.status = status;
+        }
+
+        public boolean isActive() {
+            return status == GroupMember.MemberStatus.ACTIVE;
+        }
+
+        public boolean isAdmin() {
+            return role == GroupMember.Role.OWNER || role == GroupMember.Role.ADMIN;
+        }
+    }
+
+    private record Key(UUID groupPublicId, UUID userPublicId) {
+    }
+
+    private static class Entry {
+        private final Membership membership; // 멤버가 아니면 null
+        private final long loadedAt = System.currentTimeMillis();
+
+        Entry(Membership membership) {
+            this.membership = membership;
+        }
+
+        boolean isExpired(int expirySeconds) {
+            return System.currentTimeMillis() - loadedAt > expirySeconds * 1000L;
+        }
+    }
+}
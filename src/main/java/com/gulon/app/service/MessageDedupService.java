@@ -0,0 +1,112 @@
+package com.gulon.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gulon.app.config.ChatDedupConfig;
+import com.gulon.app.dto.MessageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 클라이언트 메시지 ID 기반 전송 중복 제거
+ * chat:dedup:{senderId}:{clientMessageId} 키를 SET NX로 선점한 요청만 메시지를 저장/발행한다.
+ * 값은 선점 시 메시지 publicId, 처리 완료 후 최초 SendResponse JSON으로 바뀌어 재전송 시 그대로 반환된다.
+ * 키가 만료된 이후의 재전송은 chat_message (user_id, client_message_id) 유니크 제약으로 걸러진다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageDedupService {
+
+    private static final String KEY_PREFIX = "chat:dedup:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChatDedupConfig dedupConfig;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 클라이언트 메시지 ID 검증 - 없으면 null (중복 제거 없이 전송)
+     */
+    public String normalize(String clientMessageId) {
+        if (clientMessageId == null || clientMessageId.isBlank()) {
+            return null;
+        }
+        String normalized = clientMessageId.trim();
+        if (normalized.length() > dedupConfig.getMaxClientMessageIdLength()) {
+            throw new IllegalArgumentException("클라이언트 메시지 ID는 "
+                    + dedupConfig.getMaxClientMessageIdLength() + "자를 넘을 수 없습니다.");
+        }
+        return normalized;
+    }
+
+    /**
+     * 전송 선점 - 선점에 성공하면 empty, 이미 처리(중)인 요청이면 저장된 값 반환
+     */
+    public Optional<String> claim(String senderId, String clientMessageId, UUID messagePublicId) {
+        String key = key(senderId, clientMessageId);
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(
+                key, messagePublicId.toString(), Duration.ofSeconds(dedupConfig.getWindow()));
+        if (Boolean.TRUE.equals(claimed)) {
+            return Optional.empty();
+        }
+        String existing = redisTemplate.opsForValue().get(key);
+        log.info("중복 메시지 전송 감지 - SenderId: {}, ClientMessageId: {}", senderId, clientMessageId);
+        // 조회 직전에 만료된 경우에도 중복으로 처리 (DB 유니크 제약으로 최종 확인)
+        return Optional.of(existing != null ? existing : "");
+    }
+
+    /**
+     * 처리 완료 - 재전송 시 반환할 최초 응답 저장
+     */
+    public void complete(String senderId, String clientMessageId, MessageDto.SendResponse response) {
+        try {
+            redisTemplate.opsForValue().set(key(senderId, clientMessageId),
+                    objectMapper.writeValueAsString(response), Duration.ofSeconds(dedupConfig.getWindow()));
+        } catch (JsonProcessingException e) {
+            log.warn("중복 제거용 응답 저장 실패 - SenderId: {}, ClientMessageId: {}", senderId, clientMessageId, e);
+        }
+    }
+
+    /**
+     * 처리 실패 - 선점 해제로 재시도 허용
+     */
+    public void release(String senderId, String clientMessageId) {
+        redisTemplate.delete(key(senderId, clientMessageId));
+    }
+
+    /**
+     * 저장된 값이 최초 응답이면 반환, 아직 처리 중(publicId만 저장)이면 empty
+     */
+    public Optional<MessageDto.SendResponse> toResponse(String stored) {
+        if (stored == null || !stored.startsWith("{")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(stored, MessageDto.SendResponse.class));
+        } catch (JsonProcessingException e) {
+            log.warn("중복 제거용 응답 파싱 실패: {}", stored, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 저장된 값이 처리 중 표시(publicId)이면 반환
+     */
+    public Optional<UUID> toPublicId(String stored) {
+        try {
+            return stored == null || stored.isEmpty() ? Optional.empty() : Optional.of(UUID.fromString(stored));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String key(String senderId, String clientMessageId) {
+        return KEY_PREFIX + senderId + ":" + clientMessageId;
+    }
+}
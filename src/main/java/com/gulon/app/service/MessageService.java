@@ -1,28 +1,38 @@
 package com.gulon.app.service;
 
+import com.gulon.app.config.ChatCacheConfig;
+import com.gulon.app.dto.MessageCursor;
 import com.gulon.app.dto.MessageDto;
 import com.gulon.app.entity.ChatMessage;
 import com.gulon.app.entity.GroupMember;
 import com.gulon.app.entity.GroupTable;
-import com.gulon.app.entity.User;
 import com.gulon.app.mapper.MessageMapper;
 import com.gulon.app.repository.ChatMessageRepository;
+import com.gulon.app.repository.ChatMessageSearchCondition;
 import com.gulon.app.repository.GroupMemberRepository;
 import com.gulon.app.repository.GroupTableRepository;
 import com.gulon.app.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,44 +47,126 @@ public class MessageService {
     private final UserRepository userRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final MessageMapper messageMapper;
+    private final RecentMessageCache recentMessageCache;
+    private final ChatCacheConfig chatCacheConfig;
+    private final StreamArchive streamArchive;
+    private final ChatMessageSearchIndex searchIndex;
+    private final ChatStatisticsService statisticsService;
+    private final ChatSequenceService sequenceService;
+    private final ReadCursorService readCursorService;
+    private final PresenceService presenceService;
+    private final MembershipCache membershipCache;
+    private final PublicIdResolver idResolver;
+    private final MessageDedupService dedupService;
+    private final RedisStreamService redisStreamService;
+    
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final long SEARCH_COUNT_CAP = 10000; // 검색 결과 개수 조회 상한
     
     /**
      * 메시지 전송
+     * publicId는 캐시된 내부 id로 변환하고, 멤버십 확인과 저장은 INSERT ... SELECT 한 번으로 처리
+     * clientMessageId가 있으면 같은 ID의 재전송은 저장하지 않고 최초 응답을 반환
      */
     @Transactional
     public MessageDto.SendResponse sendMessage(MessageDto.SendRequest request) {
         log.info("Sending message to group: {}", request.getGroupPublicId());
         
-        // 그룹 조회
-        GroupTable group = groupRepository.findByPublicId(request.getGroupPublicId())
-                .orElseThrow(() -> new IllegalArgumentException("그룹을 찾을 수 없습니다: " + request.getGroupPublicId()));
+        String clientMessageId = dedupService.normalize(request.getClientMessageId());
         
-        // 사용자 조회
-        User sender = userRepository.findByPublicId(request.getSenderPublicId())
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + request.getSenderPublicId()));
+        // 그룹/사용자 id 변환 (캐시)
+        PublicIdResolver.Ref group = idResolver.groupOrThrow(request.getGroupPublicId());
+        PublicIdResolver.Ref sender = idResolver.userOrThrow(request.getSenderPublicId());
         
-        // 그룹 멤버십 확인
-        boolean isMember = groupMemberRepository.existsActiveMembership(
+        // 그룹 멤버십 확인 (캐시) - 순번이 비멤버 요청에 소비되지 않도록 먼저 확인
+        boolean isMember = membershipCache.isActiveMember(
                 request.getGroupPublicId(), request.getSenderPublicId());
         if (!isMember) {
             throw new IllegalArgumentException("그룹 멤버만 메시지를 전송할 수 있습니다.");
         }
         
-        // 메시지 생성
+        // 재전송 확인 - 선점한 요청만 저장하고, 롤백되면 선점을 풀어 재시도 허용
+        UUID publicId = UUID.randomUUID();
+        String senderId = request.getSenderPublicId().toString();
+        if (clientMessageId != null) {
+            Optional<String> existing = dedupService.claim(senderId, clientMessageId, publicId);
+            if (existing.isPresent()) {
+                return duplicateResponse(existing.get(), sender.getId(), clientMessageId);
+            }
+            afterRollback(() -> dedupService.release(senderId, clientMessageId));
+        }
+        
+        // 메시지 생성 - 연관 엔티티는 조회하지 않고 참조만 사용
         ChatMessage message = new ChatMessage(
-                group, 
-                sender, 
+                groupRepository.getReferenceById(group.getId()),
+                userRepository.getReferenceById(sender.getId()),
                 request.getContent(),
                 request.getType() != null ? request.getType() : ChatMessage.MessageType.TEXT
         );
-        
-        ChatMessage savedMessage = messageRepository.save(message);
+        message.setPublicId(publicId);
+        message.setClientMessageId(clientMessageId);
+        message.setSentAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)); // DB 정밀도에 맞춰 커서 비교가 어긋나지 않도록
+        
+        // 캐시 이후 멤버십이 바뀐 경우에도 DB 기준으로 다시 확인됨 (순번은 저장이 확정된 뒤 같은 트랜잭션에서 지정)
+        Integer id;
+        try {
+            id = messageRepository.insertIfActiveMember(message, group.getId(), sender.getId());
+        } catch (DuplicateKeyException e) {
+            // 중복 제거 키가 만료된 이후의 재전송 - 유니크 제약으로 확인된 기존 메시지 반환
+            return duplicateResponse(null, sender.getId(), clientMessageId);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("그룹 멤버만 메시지를 전송할 수 있습니다.");
+        }
+        message.setId(id);
+        message.setSeq(sequenceService.next(request.getGroupPublicId()));
+        messageRepository.assignSeq(id, message.getSeq());
         
         // 응답 생성
-        MessageDto.SendResponse response = messageMapper.toSendResponse(savedMessage);
+        MessageDto.SendResponse response = new MessageDto.SendResponse();
+        response.setPublicId(message.getPublicId());
+        response.setGroupPublicId(request.getGroupPublicId());
+        response.setSenderPublicId(request.getSenderPublicId());
+        response.setSenderName(sender.getName());
+        response.setContent(message.getContent());
+        response.setType(message.getType());
+        response.setSentAt(message.getSentAt());
+        response.setSeq(message.getSeq());
+        response.setClientMessageId(clientMessageId);
         response.setMessage("메시지가 전송되었습니다.");
         
-        log.info("Message sent successfully with publicId: {}", savedMessage.getPublicId());
+        // 최근 메시지 캐시/통계/중복 제거 응답 반영 (커밋 이후)
+        MessageDto.Summary summary = toSentSummary(message, request.getSenderPublicId(), sender.getName());
+        afterCommit(() -> {
+            recentMessageCache.onMessageSent(request.getGroupPublicId(), id, summary);
+            statisticsService.recordSent(request.getGroupPublicId(), id, request.getSenderPublicId(),
+                    message.getType(), message.getSentAt());
+            readCursorService.advance(request.getGroupPublicId(), request.getSenderPublicId(), message.getSeq());
+            if (clientMessageId != null) {
+                dedupService.complete(senderId, clientMessageId, response);
+            }
+        });
+        
+        log.info("Message sent successfully with publicId: {}", message.getPublicId());
+        return response;
+    }
+    
+    /**
+     * 재전송 요청의 응답 - 저장된 최초 응답, 없으면 DB의 기존 메시지로 구성
+     */
+    private MessageDto.SendResponse duplicateResponse(String stored, Integer senderId, String clientMessageId) {
+        Optional<MessageDto.SendResponse> original = dedupService.toResponse(stored);
+        if (original.isPresent()) {
+            return original.get();
+        }
+        Optional<ChatMessage> existing = dedupService.toPublicId(stored)
+                .flatMap(messageRepository::findByPublicId)
+                .or(() -> messageRepository.findByUserIdAndClientMessageId(senderId, clientMessageId));
+        ChatMessage message = existing.orElseThrow(
+                () -> new IllegalArgumentException("같은 메시지를 처리하고 있습니다. 잠시 후 다시 시도해주세요."));
+        
+        MessageDto.SendResponse response = messageMapper.toSendResponse(message);
+        response.setMessage("메시지가 전송되었습니다.");
         return response;
     }
     
@@ -93,7 +185,7 @@ public class MessageService {
         
         // 그룹 멤버십 확인
         if (requestUserPublicId != null) {
-            boolean isMember = groupMemberRepository.existsActiveMembership(
+            boolean isMember = membershipCache.isActiveMember(
                     message.getGroup().getPublicId(), requestUserPublicId);
             if (!isMember) {
                 return Optional.empty(); // 권한 없음을 나타내기 위해 empty 반환
@@ -119,9 +211,22 @@ public class MessageService {
         }
         
         // 메시지 수정
+        boolean firstEdit = !message.isEdited();
         message.editMessage(request.getContent());
         ChatMessage updatedMessage = messageRepository.save(message);
         
+        // 최근 메시지 캐시/통계/실시간 이벤트 반영 (커밋 이후)
+        UUID groupPublicId = updatedMessage.getGroup().getPublicId();
+        MessageDto.Summary summary = messageMapper.toSummary(updatedMessage);
+        MessageDto.RealtimeMessage event = createRealtimeMessage(updatedMessage, RedisStreamService.ACTION_EDIT);
+        afterCommit(() -> {
+            recentMessageCache.onMessageEdited(groupPublicId, summary);
+            if (firstEdit) {
+                statisticsService.recordFirstEdit(groupPublicId);
+            }
+            publishMessageEvent(event);
+        });
+        
         log.info("Message edited successfully: {}", messagePublicId);
         return messageMapper.toResponseWithPermissions(updatedMessage, requestUserPublicId);
     }
@@ -141,13 +246,9 @@ public class MessageService {
         
         // 그룹 관리자 권한도 확인
         if (!canDelete) {
-            GroupMember membership = groupMemberRepository.findByGroupPublicIdAndUserPublicId(
-                    message.getGroup().getPublicId(), requestUserPublicId)
-                    .orElse(null);
-            
-            canDelete = membership != null && 
-                       (membership.getRole() == GroupMember.Role.OWNER || 
-                        membership.getRole() == GroupMember.Role.ADMIN);
+            canDelete = membershipCache.find(message.getGroup().getPublicId(), requestUserPublicId)
+                    .map(MembershipCache.Membership::isAdmin)
+                    .orElse(false);
         }
         
         if (!canDelete) {
@@ -155,131 +256,351 @@ public class MessageService {
         }
         
         // 메시지 삭제 (소프트 삭제)
+        boolean alreadyDeleted = message.isDeleted();
         message.deleteMessage();
         messageRepository.save(message);
         
+        // 최근 메시지 캐시/통계/실시간 이벤트 반영 (커밋 이후)
+        UUID groupPublicId = message.getGroup().getPublicId();
+        MessageDto.RealtimeMessage event = alreadyDeleted
+                ? null : createRealtimeMessage(message, RedisStreamService.ACTION_DELETE);
+        afterCommit(() -> {
+            recentMessageCache.onMessageDeleted(groupPublicId, messagePublicId);
+            if (!alreadyDeleted) {
+                statisticsService.recordDeleted(groupPublicId);
+                publishMessageEvent(event);
+            }
+        });
+        
         log.info("Message deleted successfully: {}", messagePublicId);
     }
     
     /**
-     * 그룹 채팅 히스토리 조회
+     * 삭제된 메시지 복원 (작성자 또는 그룹 관리자)
+     * 삭제 시 보관한 원본 내용으로 되돌림
      */
-    public MessageDto.HistoryResponse getGroupChatHistory(UUID groupPublicId, int page, int size, UUID requestUserPublicId) {
-        log.info("Getting chat history for group: {}, page: {}, size: {}", groupPublicId, page, size);
+    @Transactional
+    public MessageDto.Response restoreMessage(UUID messagePublicId, UUID requestUserPublicId) {
+        log.info("Restoring message: {}", messagePublicId);
+        
+        ChatMessage message = messageRepository.findByPublicId(messagePublicId)
+                .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다: " + messagePublicId));
         
-        // 그룹 존재 확인
-        if (!groupRepository.existsByPublicId(groupPublicId)) {
-            throw new IllegalArgumentException("그룹을 찾을 수 없습니다: " + groupPublicId);
+        if (!message.isDeleted()) {
+            throw new IllegalArgumentException("삭제되지 않은 메시지입니다: " + messagePublicId);
         }
         
+        // 복원 권한 확인 (작성자 또는 그룹 관리자)
+        boolean canRestore = message.getUser().getPublicId().equals(requestUserPublicId)
+                || membershipCache.find(message.getGroup().getPublicId(), requestUserPublicId)
+                        .map(MembershipCache.Membership::isAdmin)
+                        .orElse(false);
+        if (!canRestore) {
+            throw new IllegalArgumentException("메시지를 복원할 권한이 없습니다.");
+        }
+        
+        // 원본 내용 보관 이전에 삭제된 메시지는 복원 불가
+        if (!message.canRestore()) {
+            throw new IllegalArgumentException("원본 내용이 없어 복원할 수 없는 메시지입니다: " + messagePublicId);
+        }
+        
+        message.restoreMessage();
+        ChatMessage restoredMessage = messageRepository.save(message);
+        
+        // 최근 메시지 캐시/통계/실시간 이벤트 반영 (커밋 이후)
+        UUID groupPublicId = restoredMessage.getGroup().getPublicId();
+        MessageDto.Summary summary = messageMapper.toSummary(restoredMessage);
+        MessageDto.RealtimeMessage event = createRealtimeMessage(restoredMessage, RedisStreamService.ACTION_RESTORE);
+        afterCommit(() -> {
+            recentMessageCache.onMessageSent(groupPublicId, restoredMessage.getId(), summary);
+            statisticsService.recordRestored(groupPublicId);
+            publishMessageEvent(event);
+        });
+        
+        log.info("Message restored successfully: {}", messagePublicId);
+        return messageMapper.toResponseWithPermissions(restoredMessage, requestUserPublicId);
+    }
+    
+    /**
+     * 그룹 최근 메시지 조회
+     * 노드 메모리의 최근 메시지 윈도우를 우선 사용하고, 미스 시에만 DB 조회
+     */
+    public MessageDto.CursorHistoryResponse getRecentMessages(UUID groupPublicId, int limit, UUID requestUserPublicId) {
+        log.info("Getting recent messages for group: {}, limit: {}", groupPublicId, limit);
+        
         // 그룹 멤버십 확인
         if (requestUserPublicId != null) {
-            boolean isMember = groupMemberRepository.existsActiveMembership(groupPublicId, requestUserPublicId);
+            boolean isMember = membershipCache.isActiveMember(groupPublicId, requestUserPublicId);
             if (!isMember) {
                 throw new IllegalArgumentException("그룹 멤버만 채팅 히스토리를 조회할 수 있습니다.");
             }
         }
         
-        // 페이징 조회
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "sentAt"));
-        Page<ChatMessage> messagesPage = messageRepository.findByGroupPublicIdAndNotDeleted(groupPublicId, pageable);
+        int pageSize = Math.max(1, Math.min(limit, chatCacheConfig.getWindowSize()));
         
-        List<MessageDto.Summary> summaries = messageMapper.toSummaryList(messagesPage.getContent());
+        RecentMessageCache.RecentMessages recent = recentMessageCache.getRecent(groupPublicId, pageSize)
+                .orElseGet(() -> loadRecentWindow(groupPublicId, pageSize));
         
-        MessageDto.HistoryResponse response = new MessageDto.HistoryResponse();
-        response.setMessages(summaries);
-        response.setTotalCount(messagesPage.getTotalElements());
-        response.setCurrentPage(page);
-        response.setPageSize(size);
-        response.setHasNext(messagesPage.hasNext());
-        response.setHasPrevious(messagesPage.hasPrevious());
+        List<RecentMessageCache.Entry> entries = recent.getEntries();
         
-        // 마지막 메시지 정보 설정
-        if (!summaries.isEmpty()) {
-            MessageDto.Summary lastMessage = summaries.get(summaries.size() - 1);
-            response.setLastMessageId(lastMessage.getPublicId());
-            response.setLastMessageTime(lastMessage.getSentAt());
+        MessageDto.CursorHistoryResponse response = new MessageDto.CursorHistoryResponse();
+        response.setMessages(entries.stream()
+                .map(RecentMessageCache.Entry::getSummary)
+                .collect(Collectors.toList()));
+        response.setPageSize(pageSize);
+        response.setHasNext(recent.isHasMore());
+        if (recent.isHasMore() && !entries.isEmpty()) {
+            RecentMessageCache.Entry oldest = entries.get(entries.size() - 1);
+            response.setNextCursor(new MessageCursor(oldest.getSummary().getSentAt(), oldest.getId()).encode());
         }
         
         return response;
     }
     
     /**
-     * 메시지 검색
+     * 최근 메시지 윈도우를 DB에서 적재
      */
-    public MessageDto.SearchResult searchMessages(MessageDto.SearchFilter filter, int page, int size) {
-        log.info("Searching messages with keyword: {}", filter.getKeyword());
+    private RecentMessageCache.RecentMessages loadRecentWindow(UUID groupPublicId, int limit) {
+        PublicIdResolver.Ref group = idResolver.groupOrThrow(groupPublicId);
+        
+        // 조회 중 커밋된 메시지가 적재 결과에 덮이지 않도록 조회 전에 적재 시작
+        long generation = recentMessageCache.beginLoad(groupPublicId);
+        Slice<ChatMessage> slice;
+        try {
+            slice = messageRepository.findHistorySliceByGroupId(
+                    group.getId(), PageRequest.of(0, chatCacheConfig.getWindowSize()));
+        } catch (RuntimeException e) {
+            recentMessageCache.cancelLoad(groupPublicId, generation);
+            throw e;
+        }
         
-        List<ChatMessage> messages;
+        List<RecentMessageCache.Entry> window = slice.getContent().stream()
+                .map(message -> new RecentMessageCache.Entry(message.getId(), messageMapper.toSummary(message)))
+                .collect(Collectors.toList());
+        recentMessageCache.load(groupPublicId, generation, window, !slice.hasNext());
         
-        if (filter.getGroupPublicId() != null) {
-            // 특정 그룹 내 검색
-            if (filter.getKeyword() != null && !filter.getKeyword().trim().isEmpty()) {
-                messages = messageRepository.searchByKeywordInGroupPublicId(
-                        filter.getGroupPublicId(), filter.getKeyword().trim());
-            } else {
-                messages = messageRepository.findByGroupPublicId(filter.getGroupPublicId());
-            }
-        } else {
-            // 전체 검색
-            if (filter.getKeyword() != null && !filter.getKeyword().trim().isEmpty()) {
-                messages = messageRepository.searchByKeyword(filter.getKeyword().trim());
-            } else {
-                messages = messageRepository.findAll(Sort.by(Sort.Direction.DESC, "sentAt"));
+        List<RecentMessageCache.Entry> entries = window.subList(0, Math.min(limit, window.size()));
+        return new RecentMessageCache.RecentMessages(entries, window.size() > entries.size() || slice.hasNext());
+    }
+    
+    /**
+     * 그룹 채팅 히스토리 조회 (커서 기반)
+     * OFFSET/COUNT 없이 (sentAt, id) 키셋으로 이전 메시지를 조회
+     */
+    public MessageDto.CursorHistoryResponse getGroupChatHistoryByCursor(UUID groupPublicId, String cursor, int size, UUID requestUserPublicId) {
+        log.info("Getting chat history for group: {}, cursor: {}, size: {}", groupPublicId, cursor, size);
+        
+        PublicIdResolver.Ref group = idResolver.groupOrThrow(groupPublicId);
+        
+        // 그룹 멤버십 확인
+        if (requestUserPublicId != null) {
+            boolean isMember = membershipCache.isActiveMember(groupPublicId, requestUserPublicId);
+            if (!isMember) {
+                throw new IllegalArgumentException("그룹 멤버만 채팅 히스토리를 조회할 수 있습니다.");
             }
         }
         
-        // 필터 적용
-        if (filter.getSenderPublicId() != null) {
-            messages = messages.stream()
-                    .filter(msg -> msg.getUser().getPublicId().equals(filter.getSenderPublicId()))
-                    .collect(Collectors.toList());
-        }
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, pageSize);
         
-        if (filter.getType() != null) {
-            messages = messages.stream()
-                    .filter(msg -> msg.getType().equals(filter.getType()))
-                    .collect(Collectors.toList());
+        Slice<ChatMessage> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = messageRepository.findHistorySliceByGroupId(group.getId(), pageable);
+        } else {
+            MessageCursor position = MessageCursor.decode(cursor);
+            slice = messageRepository.findHistorySliceByGroupIdBefore(
+                    group.getId(), position.getSentAt(), position.getId(), pageable);
         }
         
-        if (filter.getSentAfter() != null) {
-            messages = messages.stream()
-                    .filter(msg -> msg.getSentAt().isAfter(filter.getSentAfter()))
-                    .collect(Collectors.toList());
+        List<ChatMessage> messages = slice.getContent();
+        
+        MessageDto.CursorHistoryResponse response = new MessageDto.CursorHistoryResponse();
+        response.setMessages(messageMapper.toSummaryList(messages));
+        response.setPageSize(pageSize);
+        response.setHasNext(slice.hasNext());
+        if (slice.hasNext() && !messages.isEmpty()) {
+            response.setNextCursor(MessageCursor.of(messages.get(messages.size() - 1)).encode());
         }
         
-        if (filter.getSentBefore() != null) {
-            messages = messages.stream()
-                    .filter(msg -> msg.getSentAt().isBefore(filter.getSentBefore()))
-                    .collect(Collectors.toList());
+        return response;
+    }
+    
+    /**
+     * 아카이브된 채팅 스트림 히스토리 조회
+     * Redis에서 trim된 구간을 세그먼트 파일에서 스트림 ID 역순으로 조회
+     */
+    public MessageDto.ArchiveHistoryResponse getArchivedChatHistory(UUID groupPublicId, String before, int size, UUID requestUserPublicId) {
+        log.info("Getting archived chat history for group: {}, before: {}, size: {}", groupPublicId, before, size);
+        
+        idResolver.groupOrThrow(groupPublicId);
+        
+        if (requestUserPublicId != null) {
+            boolean isMember = membershipCache.isActiveMember(groupPublicId, requestUserPublicId);
+            if (!isMember) {
+                throw new IllegalArgumentException("그룹 멤버만 채팅 히스토리를 조회할 수 있습니다.");
+            }
         }
         
-        if (!filter.isIncludeDeleted()) {
-            messages = messages.stream()
-                    .filter(msg -> !msg.isDeleted())
-                    .collect(Collectors.toList());
+        if (before != null && !before.isBlank()) {
+            try {
+                StreamArchive.parseId(before);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 스트림 ID입니다: " + before);
+            }
+        }
+        String beforeId = before == null || before.isBlank() ? null : before;
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        String groupId = groupPublicId.toString();
+        
+        // 파티션 수 변경 이력이 있을 수 있으므로 모든 채팅 파티션 아카이브를 병합
+        List<StreamArchive.ArchivedEntry> merged = new ArrayList<>();
+        String resumeBefore = null; // 세그먼트를 다 읽지 못한 파티션 중 가장 늦은 위치 - 그 이후만 완전한 결과
+        for (String streamKey : streamArchive.listStreamKeys(RedisStreamService.CHAT_STREAM + ":")) {
+            StreamArchive.ReadResult read = streamArchive.readBefore(streamKey, beforeId,
+                    fields -> groupId.equals(fields.get("groupId")), pageSize + 1);
+            merged.addAll(read.getEntries());
+            if (read.getResumeBefore() != null
+                    && (resumeBefore == null || StreamArchive.compareIds(read.getResumeBefore(), resumeBefore) > 0)) {
+                resumeBefore = read.getResumeBefore();
+            }
         }
+        String boundary = resumeBefore;
+        List<StreamArchive.ArchivedEntry> entries = merged.stream()
+                .filter(entry -> boundary == null || StreamArchive.compareIds(entry.getId(), boundary) >= 0)
+                .sorted((a, b) -> StreamArchive.compareIds(b.getId(), a.getId()))
+                .limit(pageSize + 1)
+                .collect(Collectors.toList());
         
-        // 페이징 처리
-        int start = page * size;
-        int end = Math.min(start + size, messages.size());
-        List<ChatMessage> pageMessages = messages.subList(start, end);
+        boolean full = entries.size() > pageSize;
+        List<StreamArchive.ArchivedEntry> page = full ? entries.subList(0, pageSize) : entries;
+        
+        MessageDto.ArchiveHistoryResponse response = new MessageDto.ArchiveHistoryResponse();
+        response.setMessages(page.stream().map(this::toArchivedMessage).collect(Collectors.toList()));
+        response.setPageSize(pageSize);
+        response.setHasNext(full || boundary != null);
+        if (full) {
+            response.setNextBefore(page.get(page.size() - 1).getId());
+        } else if (boundary != null) {
+            // 읽기 한도에 걸려 페이지가 덜 찼으면 읽은 위치부터 이어서 조회
+            response.setNextBefore(boundary);
+        }
+        return response;
+    }
+    
+    private MessageDto.ArchivedMessage toArchivedMessage(StreamArchive.ArchivedEntry entry) {
+        Map<String, String> fields = entry.getFields();
+        MessageDto.ArchivedMessage message = new MessageDto.ArchivedMessage();
+        message.setStreamId(entry.getId());
+        message.setPublicId(parseUuid(fields.get("messageId")));
+        message.setSenderPublicId(parseUuid(fields.get("senderId")));
+        message.setContent(fields.get("message"));
+        message.setType(fields.get("messageType"));
+        message.setSentAt(LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(StreamArchive.parseId(entry.getId())[0]), ZoneId.systemDefault()));
+        return message;
+    }
+    
+    private static UUID parseUuid(String value) {
+        try {
+            return value == null || value.isEmpty() ? null : UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 메시지 검색
+     * 필터 전체를 DB 쿼리로 처리하고 페이지 크기만큼만 로딩 (cursor가 있으면 키셋, 없으면 page 오프셋)
+     */
+    public MessageDto.SearchResult searchMessages(MessageDto.SearchFilter filter, int page, int size, String cursor) {
+        log.info("Searching messages with keyword: {}", filter.getKeyword());
         
-        List<MessageDto.Summary> summaries = messageMapper.toSummaryList(pageMessages);
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
         
         MessageDto.SearchResult result = new MessageDto.SearchResult();
-        result.setMessages(summaries);
-        result.setTotalCount(messages.size());
         result.setCurrentPage(page);
-        result.setPageSize(size);
-        result.setTotalPages((int) Math.ceil((double) messages.size() / size));
-        result.setHasNext(end < messages.size());
-        result.setHasPrevious(page > 0);
+        result.setPageSize(pageSize);
+        result.setHasPrevious(page > 0 || (cursor != null && !cursor.isBlank()));
         result.setSearchKeyword(filter.getKeyword());
         
+        ChatMessageSearchCondition condition = toSearchCondition(filter);
+        if (condition == null) {
+            // 존재하지 않는 그룹/작성자 조건
+            result.setMessages(List.of());
+            result.setTotalCount(filter.isIncludeTotal() ? 0 : -1);
+            result.setTotalPages(filter.isIncludeTotal() ? 0 : -1);
+            return result;
+        }
+        
+        if (filter.isIncludeTotal()) {
+            long count = messageRepository.countMatches(condition, SEARCH_COUNT_CAP);
+            result.setTotalCountApproximate(count > SEARCH_COUNT_CAP);
+            result.setTotalCount(Math.min(count, SEARCH_COUNT_CAP));
+            result.setTotalPages((int) Math.ceil((double) result.getTotalCount() / pageSize));
+        } else {
+            result.setTotalCount(-1);
+            result.setTotalPages(-1);
+        }
+        
+        if (cursor != null && !cursor.isBlank()) {
+            condition.setCursor(MessageCursor.decode(cursor));
+        } else {
+            condition.setOffset(Math.max(0, page) * pageSize);
+        }
+        
+        List<Integer> ids = messageRepository.searchIds(condition, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Integer> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        
+        // id 순서(검색 정렬 순서)대로 엔티티 재정렬
+        Map<Integer, ChatMessage> loaded = messageRepository.findWithUserByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(ChatMessage::getId, message -> message));
+        List<ChatMessage> messages = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        result.setMessages(messageMapper.toSummaryList(messages));
+        result.setHasNext(hasNext);
+        if (hasNext && !messages.isEmpty()) {
+            result.setNextCursor(MessageCursor.of(messages.get(messages.size() - 1)).encode());
+        }
+        
         return result;
     }
     
+    /**
+     * 검색 필터를 DB 검색 조건으로 변환 - 그룹/작성자가 존재하지 않으면 null
+     */
+    private ChatMessageSearchCondition toSearchCondition(MessageDto.SearchFilter filter) {
+        ChatMessageSearchCondition condition = new ChatMessageSearchCondition();
+        
+        if (filter.getGroupPublicId() != null) {
+            Optional<PublicIdResolver.Ref> group = idResolver.group(filter.getGroupPublicId());
+            if (group.isEmpty()) {
+                return null;
+            }
+            condition.setGroupId(group.get().getId());
+        }
+        if (filter.getSenderPublicId() != null) {
+            Optional<PublicIdResolver.Ref> sender = idResolver.user(filter.getSenderPublicId());
+            if (sender.isEmpty()) {
+                return null;
+            }
+            condition.setSenderId(sender.get().getId());
+        }
+        if (filter.getKeyword() != null && !filter.getKeyword().trim().isEmpty()) {
+            condition.setFullTextQuery(searchIndex.toBooleanQuery(filter.getKeyword()));
+        }
+        
+        condition.setType(filter.getType());
+        condition.setSentAfter(filter.getSentAfter());
+        condition.setSentBefore(filter.getSentBefore());
+        condition.setIncludeDeleted(filter.isIncludeDeleted());
+        condition.setAscending("asc".equalsIgnoreCase(filter.getSortDirection()));
+        return condition;
+    }
+    
     /**
      * 그룹 채팅 현황 조회
      */
@@ -291,7 +612,7 @@ public class MessageService {
         
         // 그룹 멤버십 확인
         if (requestUserPublicId != null) {
-            boolean isMember = groupMemberRepository.existsActiveMembership(groupPublicId, requestUserPublicId);
+            boolean isMember = membershipCache.isActiveMember(groupPublicId, requestUserPublicId);
             if (!isMember) {
                 throw new IllegalArgumentException("그룹 멤버만 채팅 현황을 조회할 수 있습니다.");
             }
@@ -315,35 +636,42 @@ public class MessageService {
                     status.setLastActivity(lastMessage.getSentAt());
                 });
         
-        // 활성 사용자 목록 (그룹 멤버들)
-        List<GroupMember> activeMembers = groupMemberRepository.findByGroupPublicIdAndStatus(
-                groupPublicId, GroupMember.MemberStatus.ACTIVE);
+        // 활성 사용자 목록 (그룹 멤버들) - 접속 상태와 마지막 접속 시각은 PresenceService에서 조회
+        List<GroupMember> activeMembers = groupMemberRepository.findActiveWithUserByGroupPublicId(groupPublicId);
+        Set<UUID> onlineUsers = presenceService.getOnlineUsers(groupPublicId);
+        Map<UUID, LocalDateTime> lastSeen = presenceService.getLastSeen(groupPublicId);
         
         List<MessageDto.ActiveUser> activeUsers = activeMembers.stream()
                 .map(member -> {
                     MessageDto.ActiveUser activeUser = messageMapper.toActiveUser(member.getUser());
-                    // 마지막 메시지 시간을 lastSeen으로 설정 (간단한 구현)
-                    List<ChatMessage> userMessages = messageRepository.findByGroupPublicIdAndUserPublicId(
-                            groupPublicId, member.getUser().getPublicId());
-                    if (!userMessages.isEmpty()) {
-                        activeUser.setLastSeen(userMessages.get(0).getSentAt());
-                    }
-                    activeUser.setOnline(false); // 실시간 온라인 상태는 별도 구현 필요
+                    UUID userPublicId = member.getUser().getPublicId();
+                    activeUser.setOnline(onlineUsers.contains(userPublicId));
+                    activeUser.setLastSeen(lastSeen.get(userPublicId));
                     return activeUser;
                 })
                 .collect(Collectors.toList());
         
         status.setActiveUsers(activeUsers);
         
-        // 읽지 않은 메시지 수 (requestUserPublicId 기준, 간단한 구현)
+        // 읽지 않은 메시지 수 (requestUserPublicId 기준, 그룹 최신 순번 - 읽음 위치)
         if (requestUserPublicId != null) {
-            // 실제로는 별도의 read_receipt 테이블이 필요하지만, 여기서는 0으로 설정
-            status.setUnreadCount(0);
+            long unreadCount = readCursorService.getUnreadCount(groupPublicId, requestUserPublicId).getUnreadCount();
+            status.setUnreadCount((int) Math.min(unreadCount, Integer.MAX_VALUE));
         }
         
         return status;
     }
     
+    /**
+     * 그룹 접속자 스냅샷 조회
+     */
+    public MessageDto.PresenceSnapshot getPresence(UUID groupPublicId, UUID requestUserPublicId) {
+        if (!membershipCache.isActiveMember(groupPublicId, requestUserPublicId)) {
+            throw new IllegalArgumentException("그룹 멤버만 접속자를 조회할 수 있습니다.");
+        }
+        return presenceService.getSnapshot(groupPublicId);
+    }
+    
     /**
      * 메시지 통계 조회
      */
@@ -354,10 +682,10 @@ public class MessageService {
                 .orElseThrow(() -> new IllegalArgumentException("그룹을 찾을 수 없습니다: " + groupPublicId));
         
         // 그룹 관리자 권한 확인
-        GroupMember membership = groupMemberRepository.findByGroupPublicIdAndUserPublicId(groupPublicId, requestUserPublicId)
+        MembershipCache.Membership membership = membershipCache.find(groupPublicId, requestUserPublicId)
                 .orElseThrow(() -> new IllegalArgumentException("그룹에 접근할 권한이 없습니다."));
         
-        if (membership.getRole() != GroupMember.Role.OWNER && membership.getRole() != GroupMember.Role.ADMIN) {
+        if (!membership.isAdmin()) {
             throw new IllegalArgumentException("통계를 조회할 권한이 없습니다.");
         }
         
@@ -365,82 +693,8 @@ public class MessageService {
         stats.setGroupPublicId(groupPublicId);
         stats.setGroupName(group.getName());
         
-        // 전체 메시지 조회
-        List<ChatMessage> allMessages = messageRepository.findByGroupPublicId(groupPublicId);
-        
-        stats.setTotalMessages(allMessages.size());
-        stats.setTextMessages(allMessages.stream()
-                .filter(msg -> msg.getType() == ChatMessage.MessageType.TEXT)
-                .count());
-        stats.setImageMessages(allMessages.stream()
-                .filter(msg -> msg.getType() == ChatMessage.MessageType.IMAGE)
-                .count());
-        stats.setFileMessages(allMessages.stream()
-                .filter(msg -> msg.getType() == ChatMessage.MessageType.FILE)
-                .count());
-        stats.setSystemMessages(allMessages.stream()
-                .filter(msg -> msg.getType() == ChatMessage.MessageType.SYSTEM)
-                .count());
-        stats.setDeletedMessages(allMessages.stream()
-                .filter(ChatMessage::isDeleted)
-                .count());
-        stats.setEditedMessages(allMessages.stream()
-                .filter(msg -> msg.getEditedAt() != null)
-                .count());
-        
-        // 첫 번째와 마지막 메시지 시간
-        allMessages.stream()
-                .map(ChatMessage::getSentAt)
-                .min(LocalDateTime::compareTo)
-                .ifPresent(stats::setFirstMessageAt);
-        
-        allMessages.stream()
-                .map(ChatMessage::getSentAt)
-                .max(LocalDateTime::compareTo)
-                .ifPresent(stats::setLastMessageAt);
-        
-        // 일별 메시지 수 (최근 7일)
-        List<MessageDto.DailyMessageCount> dailyCounts = allMessages.stream()
-                .filter(msg -> msg.getSentAt().isAfter(LocalDateTime.now().minusDays(7)))
-                .collect(Collectors.groupingBy(
-                        msg -> msg.getSentAt().toLocalDate().toString(),
-                        Collectors.counting()))
-                .entrySet().stream()
-                .map(entry -> {
-                    MessageDto.DailyMessageCount count = new MessageDto.DailyMessageCount();
-                    count.setDate(entry.getKey());
-                    count.setCount(entry.getValue());
-                    return count;
-                })
-                .collect(Collectors.toList());
-        
-        stats.setDailyCounts(dailyCounts);
-        
-        // 사용자별 메시지 수
-        List<MessageDto.UserMessageCount> userCounts = allMessages.stream()
-                .collect(Collectors.groupingBy(
-                        msg -> msg.getUser(),
-                        Collectors.counting()))
-                .entrySet().stream()
-                .map(entry -> {
-                    MessageDto.UserMessageCount count = messageMapper.toUserMessageCount(entry.getKey());
-                    count.setMessageCount(entry.getValue());
-                    
-                    // 마지막 메시지 이후 일수 계산
-                    allMessages.stream()
-                            .filter(msg -> msg.getUser().equals(entry.getKey()))
-                            .map(ChatMessage::getSentAt)
-                            .max(LocalDateTime::compareTo)
-                            .ifPresent(lastMessageTime -> {
-                                long daysAgo = ChronoUnit.DAYS.between(lastMessageTime, LocalDateTime.now());
-                                count.setLastMessageDaysAgo(daysAgo);
-                            });
-                    
-                    return count;
-                })
-                .collect(Collectors.toList());
-        
-        stats.setUserCounts(userCounts);
+        // 증분 카운터 조회 (메시지 수와 무관한 비용)
+        statisticsService.fillStatistics(group, stats);
         
         return stats;
     }
@@ -451,4 +705,64 @@ public class MessageService {
     public MessageDto.RealtimeMessage createRealtimeMessage(ChatMessage message, String action) {
         return messageMapper.toRealtimeMessageWithAction(message, action);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 수정/삭제/복원 이벤트를 채팅 스트림에 발행
+     * 변경은 이미 커밋되었으므로 발행 실패는 요청을 실패시키지 않고, 클라이언트는 다음 조회 시 반영됨
+     */
+    private void publishMessageEvent(MessageDto.RealtimeMessage event) {
+        try {
+            redisStreamService.publishMessageEvent(event);
+        } catch (Exception e) {
+            log.warn("메시지 이벤트 발행 실패 - MessageId: {}, Action: {}", event.getPublicId(), event.getAction(), e);
+        }
+    }
+    
+    /**
+     * 새로 저장한 메시지의 요약 - 연관 엔티티 프록시를 초기화하지 않도록 직접 구성
+     */
+    private static MessageDto.Summary toSentSummary(ChatMessage message, UUID senderPublicId, String senderName) {
+        MessageDto.Summary summary = new MessageDto.Summary();
+        summary.setPublicId(message.getPublicId());
+        summary.setSenderPublicId(senderPublicId);
+        summary.setSenderName(senderName);
+        summary.setContent(message.getContent());
+        summary.setType(message.getType());
+        summary.setSentAt(message.getSentAt());
+        summary.setSeq(message.getSeq());
+        return summary;
+    }
+    
+    /**
+     * 트랜잭션 롤백 시 실행 (트랜잭션 밖에서는 실행하지 않음)
+     */
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+    
+    /**
+     * 트랜잭션 커밋 이후 실행 (트랜잭션 밖에서는 즉시 실행)
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
\ No newline at end of file
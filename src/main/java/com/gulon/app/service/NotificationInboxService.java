@@ -0,0 +1,566 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.NotificationInboxConfig;
+import com.gulon.app.dto.NotificationDto;
+import com.gulon.app.entity.Notification;
+import com.gulon.app.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자별 알림함
+ * 최근 알림은 Redis(사용자별 ZSET + 알림별 HASH)에 maxItems까지 보관하고, 넘치면 오래된 것부터 DB로 옮긴다.
+ * - 같은 종류/제목의 알림이 coalesceWindow 안에 다시 오면 새 항목 대신 기존 항목의 count와 내용을 갱신
+ * - 안 읽은 알림 수는 사용자별 Redis 카운터로 Lua 안에서 원자적으로 유지 (DB로 옮겨진 알림 포함)
+ * - 새 알림은 바로 전송하고, 합쳐진 갱신은 flushInterval마다 항목별로 한 번만 전송
+ * - 연결되어 있지 않던 사용자는 알림함 조회로 놓친 알림을 받음
+ * 모든 키는 사용자 ID로 해시 태그({userId})를 붙여 한 사용자의 키가 같은 슬롯에 모이고, 스크립트는 KEYS로 받은 키만 사용한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationInboxService {
+
+    public static final String DESTINATION = "/queue/notifications";
+    public static final String EVENT_NEW = "NEW";
+    public static final String EVENT_UPDATE = "UPDATE";
+
+    private static final String KEY_PREFIX = "notification:";
+    private static final String INBOX_PREFIX = KEY_PREFIX + "inbox:"; // {userId} -> ZSET(알림 publicId, updatedAt)
+    private static final String ITEM_PREFIX = KEY_PREFIX + "item:"; // {userId}:{publicId} -> HASH
+    private static final String UNREAD_PREFIX = KEY_PREFIX + "unread:"; // {userId} -> 안 읽은 알림 수
+    private static final String COALESCE_PREFIX = KEY_PREFIX + "coalesce:"; // {userId}:{digest} -> 합칠 대상 publicId
+    private static final String APPLIED_PREFIX = KEY_PREFIX + "applied:"; // {userId}:{streamId} -> 반영한 스트림 엔트리
+
+    private static final String CURSOR_REDIS = "R";
+    private static final String CURSOR_DB = "D";
+    private static final String SEPARATOR = "|";
+
+    // KEYS: 합칠 대상, 알림함, 안 읽은 수, 새 알림 HASH, 반영 표시, 합칠 대상 알림 HASH(ARGV[7]이 없으면 KEYS[4])
+    // 반환: {publicId, count, 안 읽은 수, 새 항목 여부(1/0)} - 이미 반영한 스트림 엔트리면 빈 목록
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> DELIVER_SCRIPT = new DefaultRedisScript<>(
+            "if not redis.call('SET', KEYS[5], '1', 'NX', 'PX', ARGV[8]) then\n" +
+            "  return {}\n" +
+            "end\n" +
+            "local existing = redis.call('GET', KEYS[1])\n" +
+            "if existing and existing == ARGV[7] and redis.call('EXISTS', KEYS[6]) == 1 then\n" +
+            "  local itemKey = KEYS[6]\n" +
+            "  redis.call('HSET', itemKey, 'content', ARGV[5], 'updatedAt', ARGV[2])\n" +
+            "  local count = redis.call('HINCRBY', itemKey, 'count', 1)\n" +
+            "  local unread\n" +
+            "  if redis.call('HGET', itemKey, 'read') == '1' then\n" +
+            "    redis.call('HSET', itemKey, 'read', '0')\n" +
+            "    unread = redis.call('INCR', KEYS[3])\n" +
+            "  else\n" +
+            "    unread = tonumber(redis.call('GET', KEYS[3]) or '0')\n" +
+            "  end\n" +
+            "  redis.call('ZADD', KEYS[2], ARGV[2], existing)\n" +
+            "  return {existing, tostring(count), tostring(unread), '0'}\n" +
+            "end\n" +
+            "redis.call('HSET', KEYS[4], 'title', ARGV[4], 'content', ARGV[5], 'type', ARGV[6], 'count', '1', " +
+            "'read', '0', 'createdAt', ARGV[2], 'updatedAt', ARGV[2])\n" +
+            "redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])\n" +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])\n" +
+            "local unread = redis.call('INCR', KEYS[3])\n" +
+            "return {ARGV[1], '1', tostring(unread), '1'}",
+            List.class);
+
+    // KEYS[1]: 안 읽은 수, KEYS[2..]: 알림 HASH, ARGV[1]: DB에서 읽음 처리된 수, ARGV[2..]: KEYS[2..]의 알림 publicId
+    // 반환: {새로 읽음 처리된 Redis 알림 수, 안 읽은 수, HASH가 없는(DB로 옮겨진) 알림 publicId...}
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> MARK_READ_SCRIPT = new DefaultRedisScript<>(
+            "local changed = 0\n" +
+            "local missing = {}\n" +
+            "for i = 2, #KEYS do\n" +
+            "  local read = redis.call('HGET', KEYS[i], 'read')\n" +
+            "  if read == '0' then\n" +
+            "    redis.call('HSET', KEYS[i], 'read', '1')\n" +
+            "    changed = changed + 1\n" +
+            "  elseif not read then\n" +
+            "    table.insert(missing, ARGV[i])\n" +
+            "  end\n" +
+            "end\n" +
+            "local unread = redis.call('DECRBY', KEYS[1], changed + tonumber(ARGV[1]))\n" +
+            "if unread < 0 then\n" +
+            "  redis.call('SET', KEYS[1], '0')\n" +
+            "  unread = 0\n" +
+            "end\n" +
+            "local result = {changed, unread}\n" +
+            "for _, id in ipairs(missing) do\n" +
+            "  table.insert(result, id)\n" +
+            "end\n" +
+            "return result",
+            List.class);
+
+    // KEYS[1]: 알림함 ZSET, KEYS[2..]: 옮길 알림 HASH, ARGV[i - 1]: KEYS[i]의 알림 publicId, ARGV[n + i - 1]: DB에 복사한 read 값
+    // 복사 이후 읽음 처리된 알림 publicId 목록 반환 (HASH 삭제와 읽음 처리가 겹쳐 DB에 안 읽음으로 남지 않도록)
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> SPILL_SCRIPT = new DefaultRedisScript<>(
+            "local n = #KEYS - 1\n" +
+            "local readAfterCopy = {}\n" +
+            "for i = 2, #KEYS do\n" +
+            "  local read = redis.call('HGET', KEYS[i], 'read')\n" +
+            "  if read == '1' and ARGV[n + i - 1] ~= '1' then\n" +
+            "    table.insert(readAfterCopy, ARGV[i - 1])\n" +
+            "  end\n" +
+            "  redis.call('ZREM', KEYS[1], ARGV[i - 1])\n" +
+            "  redis.call('DEL', KEYS[i])\n" +
+            "end\n" +
+            "return readAfterCopy",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ClusterFanoutService fanoutService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationInboxConfig inboxConfig;
+
+    // 전송 대기 중인 합쳐진 갱신 (알림 publicId -> 사용자 ID, 모든 접근은 synchronized)
+    private Map<String, String> pendingUpdates = new LinkedHashMap<>();
+
+    /**
+     * 알림 스트림 엔트리를 알림함에 반영하고 전송
+     * streamId로 이미 반영한 엔트리는 건너뛰므로 재시도/재처리되어도 중복되지 않음
+     */
+    public void deliver(String streamId, String userId, String title, String content, String notificationType) {
+        UUID userPublicId = parseUser(userId);
+        if (title == null || content == null) {
+            throw new IllegalArgumentException("알림 제목과 내용이 필요합니다.");
+        }
+        String safeTitle = truncate(title, Notification.MAX_TITLE_LENGTH);
+        String safeContent = truncate(content, Notification.MAX_CONTENT_LENGTH);
+        String type = notificationType == null || notificationType.isBlank() ? "INFO" : notificationType;
+        String user = userPublicId.toString();
+        String newId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        // 합칠 대상 HASH 키를 KEYS로 넘기기 위해 먼저 조회 - 같은 사용자의 알림은 한 lane에서 순서대로 처리되며
+        // 스크립트가 대상이 바뀌지 않았는지 다시 확인
+        String coalesceKey = coalesceKey(user, type, safeTitle);
+        String existing = redisTemplate.opsForValue().get(coalesceKey);
+        List<?> result = redisTemplate.execute(DELIVER_SCRIPT,
+                List.of(coalesceKey, inboxKey(user), unreadKey(user), itemKey(user, newId), appliedKey(user, streamId),
+                        existing != null ? itemKey(user, existing) : itemKey(user, newId)),
+                newId, String.valueOf(now), String.valueOf(inboxConfig.getCoalesceWindow()),
+                safeTitle, safeContent, type, existing != null ? existing : "",
+                String.valueOf(inboxConfig.getAppliedTtl()));
+
+        if (result == null || result.size() < 4) {
+            log.info("이미 반영된 알림 - StreamId: {}, UserId: {}", streamId, user);
+        } else {
+            String publicId = String.valueOf(result.get(0));
+            if ("1".equals(String.valueOf(result.get(3)))) {
+                NotificationDto.Push push = new NotificationDto.Push();
+                push.setEvent(EVENT_NEW);
+                push.setPublicId(UUID.fromString(publicId));
+                push.setTitle(safeTitle);
+                push.setContent(safeContent);
+                push.setNotificationType(type);
+                push.setCount(1);
+                push.setUnreadCount(Long.parseLong(String.valueOf(result.get(2))));
+                push.setTimestamp(String.valueOf(now));
+                fanoutService.publishToUser(user, DESTINATION, push);
+                log.info("알림 전송 완료 - UserId: {}, Type: {}, NotificationId: {}", user, type, publicId);
+            } else {
+                synchronized (this) {
+                    pendingUpdates.put(publicId, user);
+                }
+                log.debug("알림 합침 - UserId: {}, NotificationId: {}, Count: {}", user, publicId, result.get(1));
+            }
+        }
+
+        spillOverflow(user);
+    }
+
+    /**
+     * 합쳐진 알림 갱신을 항목별 한 번씩 전송
+     */
+    @Scheduled(fixedDelayString = "${notification.inbox.flush-interval:1000}")
+    public void flushUpdates() {
+        Map<String, String> batch;
+        synchronized (this) {
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            batch = pendingUpdates;
+            pendingUpdates = new LinkedHashMap<>();
+        }
+
+        batch.forEach((publicId, userId) -> {
+            try {
+                Map<Object, Object> fields = redisTemplate.opsForHash().entries(itemKey(userId, publicId));
+                if (fields.isEmpty()) {
+                    return; // 그 사이 DB로 옮겨진 알림
+                }
+                NotificationDto.Push push = new NotificationDto.Push();
+                push.setEvent(EVENT_UPDATE);
+                push.setPublicId(UUID.fromString(publicId));
+                push.setTitle((String) fields.get("title"));
+                push.setContent((String) fields.get("content"));
+                push.setNotificationType((String) fields.get("type"));
+                push.setCount(Integer.parseInt((String) fields.getOrDefault("count", "1")));
+                push.setUnreadCount(unreadCount(userId));
+                push.setTimestamp((String) fields.get("updatedAt"));
+                fanoutService.publishToUser(userId, DESTINATION, push);
+            } catch (Exception e) {
+                // 알림함에는 반영되어 있으므로 재전송하지 않음
+                log.warn("알림 갱신 전송 실패 - UserId: {}, NotificationId: {}", userId, publicId, e);
+            }
+        });
+    }
+
+    /**
+     * 알림함 조회 (최근 갱신 순) - Redis의 최근 알림을 먼저, 이어서 DB로 옮겨진 알림을 반환
+     */
+    @Transactional(readOnly = true)
+    public NotificationDto.InboxPage getInbox(UUID userPublicId, String cursor, Integer size) {
+        if (userPublicId == null) {
+            throw new IllegalArgumentException("사용자 ID가 필요합니다.");
+        }
+        int pageSize = size == null ? inboxConfig.getDefaultPageSize()
+                : Math.max(1, Math.min(size, inboxConfig.getMaxPageSize()));
+        String user = userPublicId.toString();
+        String[] position = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        List<PageEntry> entries = new ArrayList<>(pageSize + 1);
+        if (position == null || CURSOR_REDIS.equals(position[0])) {
+            readRedis(user, position, pageSize + 1, entries);
+        }
+        if (entries.size() <= pageSize) {
+            // Redis에 남은 알림은 모두 DB로 옮겨진 알림보다 최근이므로 이어서 DB 조회
+            boolean fromDbCursor = position != null && CURSOR_DB.equals(position[0]);
+            readDb(userPublicId, fromDbCursor ? position : null, pageSize + 1 - entries.size(), entries);
+        }
+
+        boolean hasNext = entries.size() > pageSize;
+        List<PageEntry> page = hasNext ? entries.subList(0, pageSize) : entries;
+
+        NotificationDto.InboxPage response = new NotificationDto.InboxPage();
+        response.setItems(page.stream().map(entry -> entry.item).collect(Collectors.toList()));
+        response.setUnreadCount(unreadCount(user));
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            response.setNextCursor(page.get(page.size() - 1).cursor);
+        }
+        return response;
+    }
+
+    public long unreadCount(String userId) {
+        String unread = redisTemplate.opsForValue().get(unreadKey(userId));
+        return unread != null ? Math.max(0, Long.parseLong(unread)) : 0;
+    }
+
+    /**
+     * 알림 읽음 처리 - 안 읽은 수는 새로 읽음 처리된 수만큼 원자적으로 차감
+     * Redis에 없는 알림(DB로 옮겨졌거나 옮겨지는 중)은 DB에 반영한 뒤 그만큼 차감
+     */
+    @Transactional
+    public NotificationDto.ReadResult markRead(UUID userPublicId, NotificationDto.ReadRequest request) {
+        if (userPublicId == null) {
+            throw new IllegalArgumentException("사용자 ID가 필요합니다.");
+        }
+        String user = userPublicId.toString();
+        NotificationDto.ReadResult result = new NotificationDto.ReadResult();
+
+        if (request.isAll()) {
+            Set<String> ids = redisTemplate.opsForZSet().range(inboxKey(user), 0, -1);
+            long updatedInRedis = markReadInRedis(user, ids != null ? new ArrayList<>(ids) : List.of(), 0).changed;
+            // Redis 처리 이후에 DB를 갱신해야 그 사이 옮겨진 알림도 읽음 처리됨
+            int updatedInDb = notificationRepository.markAllRead(userPublicId);
+            long unread = updatedInDb > 0 ? markReadInRedis(user, List.of(), updatedInDb).unread : unreadCount(user);
+            result.setUpdated(updatedInDb + updatedInRedis);
+            result.setUnreadCount(unread);
+            log.info("알림 모두 읽음 처리 - UserId: {}, 처리: {}건", user, result.getUpdated());
+            return result;
+        }
+
+        List<UUID> ids = request.getIds();
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("읽음 처리할 알림 ID가 필요합니다.");
+        }
+        if (ids.size() > inboxConfig.getMaxPageSize()) {
+            throw new IllegalArgumentException("한 번에 읽음 처리할 수 있는 알림은 최대 " + inboxConfig.getMaxPageSize() + "건입니다.");
+        }
+
+        // 알림 HASH 키에 사용자가 포함되므로 다른 사용자의 알림은 없는 항목으로 처리됨 (DB 조건으로 다시 걸러짐)
+        MarkReadResult redis = markReadInRedis(user, ids.stream().map(UUID::toString).collect(Collectors.toList()), 0);
+        int updatedInDb = 0;
+        long unread = redis.unread;
+        if (!redis.missing.isEmpty()) {
+            updatedInDb = notificationRepository.markRead(userPublicId, redis.missing);
+            if (updatedInDb > 0) {
+                unread = markReadInRedis(user, List.of(), updatedInDb).unread;
+            }
+        }
+        result.setUpdated(updatedInDb + redis.changed);
+        result.setUnreadCount(unread);
+        return result;
+    }
+
+    private MarkReadResult markReadInRedis(String userId, List<String> publicIds, int updatedInDb) {
+        List<String> keys = new ArrayList<>(publicIds.size() + 1);
+        keys.add(unreadKey(userId));
+        publicIds.forEach(publicId -> keys.add(itemKey(userId, publicId)));
+        List<String> args = new ArrayList<>(publicIds.size() + 1);
+        args.add(String.valueOf(updatedInDb));
+        args.addAll(publicIds);
+
+        List<?> values = redisTemplate.execute(MARK_READ_SCRIPT, keys, args.toArray());
+        if (values == null || values.size() < 2) {
+            return new MarkReadResult(0, unreadCount(userId), List.of());
+        }
+        List<UUID> missing = new ArrayList<>(values.size() - 2);
+        for (int i = 2; i < values.size(); i++) {
+            missing.add(UUID.fromString(String.valueOf(values.get(i))));
+        }
+        return new MarkReadResult(((Number) values.get(0)).longValue(), ((Number) values.get(1)).longValue(), missing);
+    }
+
+    /**
+     * 보관 한도를 넘은 오래된 알림을 DB로 옮김
+     * 같은 사용자의 알림은 한 lane에서 순서대로 처리되므로 동시에 옮기지 않음
+     * DB 저장 후 스크립트로 HASH를 지우며, 그 사이 읽음 처리된 알림은 DB에도 읽음으로 반영
+     */
+    private void spillOverflow(String userId) {
+        String inboxKey = inboxKey(userId);
+        Long size = redisTemplate.opsForZSet().zCard(inboxKey);
+        if (size == null || size <= inboxConfig.getMaxItems()) {
+            return;
+        }
+
+        Set<String> overflow = redisTemplate.opsForZSet().range(inboxKey, 0, size - inboxConfig.getMaxItems() - 1);
+        if (overflow == null || overflow.isEmpty()) {
+            return;
+        }
+        UUID userPublicId = UUID.fromString(userId);
+        List<Notification> rows = new ArrayList<>(overflow.size());
+        List<String> keys = new ArrayList<>(overflow.size() + 1);
+        List<String> copiedRead = new ArrayList<>(overflow.size());
+        keys.add(inboxKey);
+        for (String publicId : overflow) {
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(itemKey(userId, publicId));
+            if (!fields.isEmpty()) {
+                rows.add(toEntity(userPublicId, UUID.fromString(publicId), fields));
+            }
+            keys.add(itemKey(userId, publicId));
+            copiedRead.add("1".equals(fields.get("read")) ? "1" : "0");
+        }
+
+        // 이전 시도에서 이미 저장된 알림은 제외
+        Set<UUID> saved = new HashSet<>(notificationRepository.findPublicIdsByPublicIdIn(
+                rows.stream().map(Notification::getPublicId).collect(Collectors.toList())));
+        notificationRepository.saveAll(rows.stream()
+                .filter(row -> !saved.contains(row.getPublicId()))
+                .collect(Collectors.toList()));
+
+        List<String> args = new ArrayList<>(overflow);
+        args.addAll(copiedRead);
+        List<?> readAfterCopy = redisTemplate.execute(SPILL_SCRIPT, keys, args.toArray());
+        if (readAfterCopy != null && !readAfterCopy.isEmpty()) {
+            // 안 읽은 수는 Redis에서 읽음 처리할 때 이미 차감됨
+            notificationRepository.markRead(userPublicId, readAfterCopy.stream()
+                    .map(id -> UUID.fromString(String.valueOf(id)))
+                    .collect(Collectors.toList()));
+        }
+        log.info("알림 DB 이동 - UserId: {}, {}건", userId, rows.size());
+    }
+
+    /**
+     * cursor 이후의 Redis 알림을 최대 limit건까지 entries에 추가
+     * 같은 점수 안에서는 publicId 역순이므로 커서와 점수가 같으면 publicId가 커서보다 작은 항목부터 포함
+     */
+    private void readRedis(String userId, String[] position, int limit, List<PageEntry> entries) {
+        String inboxKey = inboxKey(userId);
+        double max = position == null ? Double.POSITIVE_INFINITY : Double.parseDouble(position[1]);
+        String afterId = position == null ? null : position[2];
+        long offset = 0;
+
+        while (entries.size() < limit) {
+            int count = limit - entries.size();
+            Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(inboxKey, Double.NEGATIVE_INFINITY, max, offset, count);
+            if (tuples == null || tuples.isEmpty()) {
+                return;
+            }
+            offset += tuples.size();
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                String publicId = tuple.getValue();
+                double score = tuple.getScore() != null ? tuple.getScore() : 0;
+                if (afterId != null && score == max && publicId.compareTo(afterId) >= 0) {
+                    continue;
+                }
+                Map<Object, Object> fields = redisTemplate.opsForHash().entries(itemKey(userId, publicId));
+                if (fields.isEmpty()) {
+                    continue; // 그 사이 DB로 옮겨진 알림
+                }
+                entries.add(new PageEntry(toItem(UUID.fromString(publicId), fields),
+                        encodeCursor(CURSOR_REDIS, String.valueOf((long) score), publicId)));
+            }
+            if (tuples.size() < count) {
+                return;
+            }
+        }
+    }
+
+    private void readDb(UUID userPublicId, String[] position, int limit, List<PageEntry> entries) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        List<Notification> rows = position == null
+                ? notificationRepository.findInbox(userPublicId, pageRequest)
+                : notificationRepository.findInboxBefore(userPublicId,
+                        LocalDateTime.parse(position[1]), Long.valueOf(position[2]), pageRequest);
+        for (Notification row : rows) {
+            entries.add(new PageEntry(toItem(row),
+                    encodeCursor(CURSOR_DB, row.getUpdatedAt().toString(), String.valueOf(row.getId()))));
+        }
+    }
+
+    private static NotificationDto.Item toItem(UUID publicId, Map<Object, Object> fields) {
+        NotificationDto.Item item = new NotificationDto.Item();
+        item.setPublicId(publicId);
+        item.setTitle((String) fields.get("title"));
+        item.setContent((String) fields.get("content"));
+        item.setNotificationType((String) fields.get("type"));
+        item.setCount(Integer.parseInt((String) fields.getOrDefault("count", "1")));
+        item.setRead("1".equals(fields.get("read")));
+        item.setCreatedAt(toDateTime((String) fields.get("createdAt")));
+        item.setUpdatedAt(toDateTime((String) fields.get("updatedAt")));
+        return item;
+    }
+
+    private static NotificationDto.Item toItem(Notification row) {
+        NotificationDto.Item item = new NotificationDto.Item();
+        item.setPublicId(row.getPublicId());
+        item.setTitle(row.getTitle());
+        item.setContent(row.getContent());
+        item.setNotificationType(row.getNotificationType());
+        item.setCount(row.getCount());
+        item.setRead(row.isRead());
+        item.setCreatedAt(row.getCreatedAt());
+        item.setUpdatedAt(row.getUpdatedAt());
+        return item;
+    }
+
+    private static Notification toEntity(UUID userPublicId, UUID publicId, Map<Object, Object> fields) {
+        Notification notification = new Notification();
+        notification.setPublicId(publicId);
+        notification.setUserPublicId(userPublicId);
+        notification.setTitle((String) fields.get("title"));
+        notification.setContent((String) fields.get("content"));
+        notification.setNotificationType((String) fields.get("type"));
+        notification.setCount(Integer.parseInt((String) fields.getOrDefault("count", "1")));
+        notification.setRead("1".equals(fields.get("read")));
+        notification.setCreatedAt(toDateTime((String) fields.get("createdAt")));
+        notification.setUpdatedAt(toDateTime((String) fields.get("updatedAt")));
+        return notification;
+    }
+
+    private static LocalDateTime toDateTime(String epochMillis) {
+        return epochMillis == null ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(epochMillis)), ZoneId.systemDefault());
+    }
+
+    private static String inboxKey(String userId) {
+        return INBOX_PREFIX + "{" + userId + "}";
+    }
+
+    private static String unreadKey(String userId) {
+        return UNREAD_PREFIX + "{" + userId + "}";
+    }
+
+    private static String itemKey(String userId, String publicId) {
+        return ITEM_PREFIX + "{" + userId + "}:" + publicId;
+    }
+
+    private static String appliedKey(String userId, String streamId) {
+        return APPLIED_PREFIX + "{" + userId + "}:" + streamId;
+    }
+
+    private static String coalesceKey(String userId, String type, String title) {
+        String digest = DigestUtils.md5DigestAsHex((type + "\n" + title).getBytes(StandardCharsets.UTF_8));
+        return COALESCE_PREFIX + "{" + userId + "}:" + digest;
+    }
+
+    private static UUID parseUser(String userId) {
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("잘못된 사용자 ID입니다: " + userId);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * 커서: "R|updatedAt 밀리초|publicId"(Redis 구간) 또는 "D|updatedAt|id"(DB 구간)를 URL-safe Base64로 인코딩
+     */
+    private static String encodeCursor(String source, String position, String id) {
+        String raw = source + SEPARATOR + position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !(CURSOR_REDIS.equals(parts[0]) || CURSOR_DB.equals(parts[0]))) {
+                throw new IllegalArgumentException();
+            }
+            if (CURSOR_REDIS.equals(parts[0])) {
+                Long.parseLong(parts[1]);
+                UUID.fromString(parts[2]);
+            } else {
+                LocalDateTime.parse(parts[1]);
+                Long.parseLong(parts[2]);
+            }
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+    }
+
+    private static class MarkReadResult {
+        private final long changed;
+        private final long unread;
+        private final List<UUID> missing;
+
+        MarkReadResult(long changed, long unread, List<UUID> missing) {
+            this.changed = changed;
+            this.unread = unread;
+            this.missing = missing;
+        }
+    }
+
+    private static class PageEntry {
+        private final NotificationDto.Item item;
+        private final String cursor;
+
+        PageEntry(NotificationDto.Item item, String cursor) {
+            this.item = item;
+            this.cursor = cursor;
+        }
+    }
+}
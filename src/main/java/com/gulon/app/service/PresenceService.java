@@ -0,0 +1,412 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatPresenceConfig;
+import com.gulon.app.config.PresenceActivityInterceptor;
+import com.gulon.app.config.WebSocketClusterConfig;
+import com.gulon.app.dto.MessageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 그룹 채팅방 접속 상태 관리
+ * 그룹 채팅 토픽을 구독한 세션의 사용자를 접속 중으로 보고, Redis ZSET(chat:presence:{groupId})에
+ * "{userId}|{nodeId}" 멤버를 만료 시각 점수로 기록한다. 하트비트가 끊긴 세션은 갱신되지 않아 TTL 이후 오프라인이 된다.
+ * - chat:presence:{groupId}:last-seen  userId -> 마지막 접속 확인 시각 (epoch ms), 보관 기간이 지난 항목은 조회 시 정리
+ * - chat:presence:groups  접속 기록이 있는 그룹 -> 마지막 만료 시각 (모든 노드가 전체 그룹의 만료 항목을 정리하기 위한 목록)
+ * 접속/퇴장 변경은 /topic/chat/presence/{groupId}로, 구독 시점의 스냅샷은 /user/queue/presence로 전달한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceService {
+
+    public static final String PRESENCE_DESTINATION_PREFIX = "/topic/chat/presence/";
+    public static final String SNAPSHOT_DESTINATION = "/queue/presence";
+
+    private static final String KEY_PREFIX = "chat:presence:";
+    private static final String GROUPS_KEY = KEY_PREFIX + "groups";
+    private static final char MEMBER_SEPARATOR = '|';
+
+    // 만료 시각이 지난 항목을 읽고 제거 (KEYS[1]: 접속 ZSET, ARGV[1]: 현재 시각) - 반환: 제거한 항목
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[1], 0, ARGV[1])\n" +
+            "if #expired > 0 then redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, ARGV[1]) end\n" +
+            "return expired",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterFanoutService fanoutService;
+    private final ChatPresenceConfig presenceConfig;
+    private final WebSocketClusterConfig clusterConfig;
+    private final PresenceActivityInterceptor activityInterceptor;
+
+    // 노드 로컬 세션 상태 (모든 접근은 synchronized)
+    private final Map<String, PresenceSession> sessions = new HashMap<>();
+    private final Map<String, Integer> localPresence = new HashMap<>(); // "{groupId}|{userId}" -> 세션 수
+
+    // 그룹별 접속자 스냅샷 near-cache
+    private final Map<UUID, CachedSnapshot> snapshotCache = new ConcurrentHashMap<>();
+
+    /**
+     * 그룹 접속자 스냅샷 조회 - 짧은 시간 동안 노드 메모리에서 응답
+     */
+    public MessageDto.PresenceSnapshot getSnapshot(UUID groupPublicId) {
+        long now = System.currentTimeMillis();
+        CachedSnapshot cached = snapshotCache.get(groupPublicId);
+        if (cached == null || now - cached.loadedAt > presenceConfig.getSnapshotCacheTtl()) {
+            cached = new CachedSnapshot(loadOnlineUsers(groupPublicId.toString(), now), now);
+            snapshotCache.put(groupPublicId, cached);
+        }
+
+        MessageDto.PresenceSnapshot snapshot = new MessageDto.PresenceSnapshot();
+        snapshot.setGroupPublicId(groupPublicId);
+        snapshot.setOnlineUsers(new ArrayList<>(cached.onlineUsers));
+        snapshot.setTimestamp(cached.loadedAt);
+        return snapshot;
+    }
+
+    public Set<UUID> getOnlineUsers(UUID groupPublicId) {
+        return new HashSet<>(getSnapshot(groupPublicId).getOnlineUsers());
+    }
+
+    /**
+     * 그룹 멤버별 마지막 접속 확인 시각 - 보관 기간이 지난 항목은 제외하고 삭제
+     */
+    public Map<UUID, LocalDateTime> getLastSeen(UUID groupPublicId) {
+        String key = lastSeenKey(groupPublicId.toString());
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+        long cutoff = System.currentTimeMillis() - presenceConfig.getLastSeenRetention();
+        Map<UUID, LocalDateTime> lastSeen = new HashMap<>(entries.size());
+        List<Object> stale = new ArrayList<>();
+        entries.forEach((userId, epochMilli) -> {
+            long seenAt = Long.parseLong(epochMilli.toString());
+            if (seenAt < cutoff) {
+                stale.add(userId);
+                return;
+            }
+            UUID userPublicId = parseUuid(userId.toString());
+            if (userPublicId != null) {
+                lastSeen.put(userPublicId, LocalDateTime.ofInstant(Instant.ofEpochMilli(seenAt), ZoneId.systemDefault()));
+            }
+        });
+        if (!stale.isEmpty()) {
+            redisTemplate.opsForHash().delete(key, stale.toArray());
+        }
+        return lastSeen;
+    }
+
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (event.getUser() == null || sessionId == null) {
+            return;
+        }
+        synchronized (this) {
+            sessions.putIfAbsent(sessionId, new PresenceSession(event.getUser().getName()));
+        }
+    }
+
+    @EventListener
+    public void onSessionSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || event.getUser() == null) {
+            return;
+        }
+
+        if (destination.startsWith(PRESENCE_DESTINATION_PREFIX)) {
+            // 변경 이벤트 구독 시점의 스냅샷을 해당 사용자에게 전송
+            UUID groupPublicId = parseUuid(destination.substring(PRESENCE_DESTINATION_PREFIX.length()));
+            if (groupPublicId != null) {
+                messagingTemplate.convertAndSendToUser(event.getUser().getName(), SNAPSHOT_DESTINATION,
+                        getSnapshot(groupPublicId));
+            }
+            return;
+        }
+        if (!destination.startsWith(ClusterFanoutService.GROUP_DESTINATION_PREFIX)) {
+            return;
+        }
+
+        String groupId = destination.substring(ClusterFanoutService.GROUP_DESTINATION_PREFIX.length());
+        String userId;
+        synchronized (this) {
+            PresenceSession session = sessions.get(accessor.getSessionId());
+            if (session == null || session.groups.put(accessor.getSubscriptionId(), groupId) != null) {
+                return;
+            }
+            userId = session.userId;
+            if (localPresence.merge(presenceKey(groupId, userId), 1, Integer::sum) > 1) {
+                return;
+            }
+        }
+        online(groupId, userId);
+    }
+
+    @EventListener
+    public void onSessionUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String groupId;
+        String userId;
+        synchronized (this) {
+            PresenceSession session = sessions.get(accessor.getSessionId());
+            if (session == null) {
+                return;
+            }
+            groupId = session.groups.remove(accessor.getSubscriptionId());
+            userId = session.userId;
+            if (groupId == null || !decrement(presenceKey(groupId, userId))) {
+                return;
+            }
+        }
+        offline(groupId, userId);
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Set<String> leftGroups = new LinkedHashSet<>();
+        String userId;
+        synchronized (this) {
+            activityInterceptor.remove(event.getSessionId());
+            PresenceSession session = sessions.remove(event.getSessionId());
+            if (session == null) {
+                return;
+            }
+            userId = session.userId;
+            for (String groupId : session.groups.values()) {
+                if (decrement(presenceKey(groupId, userId))) {
+                    leftGroups.add(groupId);
+                }
+            }
+        }
+        leftGroups.forEach(groupId -> offline(groupId, userId));
+    }
+
+    /**
+     * 최근 활동이 있는 로컬 세션의 접속 만료 시각 갱신, 전체 그룹의 만료된 항목 정리
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.refresh-interval:20000}")
+    public void refreshPresence() {
+        long now = System.currentTimeMillis();
+        Map<String, Set<String>> active = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, PresenceSession> entry : sessions.entrySet()) {
+                PresenceSession session = entry.getValue();
+                long lastActivity = Math.max(session.connectedAt, activityInterceptor.lastActivity(entry.getKey()));
+                if (now - lastActivity > presenceConfig.getTtl()) {
+                    continue;
+                }
+                session.groups.values().forEach(groupId ->
+                        active.computeIfAbsent(groupId, key -> new HashSet<>()).add(session.userId));
+            }
+        }
+
+        double expiry = now + presenceConfig.getTtl();
+        active.forEach((groupId, userIds) -> {
+            try {
+                Map<String, String> lastSeen = new HashMap<>();
+                for (String userId : userIds) {
+                    redisTemplate.opsForZSet().add(onlineKey(groupId), member(userId), expiry);
+                    lastSeen.put(userId, String.valueOf(now));
+                }
+                redisTemplate.opsForHash().putAll(lastSeenKey(groupId), lastSeen);
+                touchGroup(groupId, expiry);
+            } catch (Exception e) {
+                log.warn("접속 상태 갱신 실패 - GroupId: {}", groupId, e);
+            }
+        });
+        sweepExpired(now);
+    }
+
+    /**
+     * 접속 기록이 있는 모든 그룹의 만료 항목 정리 - 이 노드에 세션이 없는 그룹도 포함
+     * 비어 있고 만료 시각이 지난 그룹은 목록에서 제거
+     */
+    private void sweepExpired(long now) {
+        Set<String> groupIds = redisTemplate.opsForZSet().range(GROUPS_KEY, 0, -1);
+        if (groupIds == null) {
+            return;
+        }
+        for (String groupId : groupIds) {
+            try {
+                expireStale(groupId, now);
+                Long remaining = redisTemplate.opsForZSet().zCard(onlineKey(groupId));
+                Double groupExpiry = redisTemplate.opsForZSet().score(GROUPS_KEY, groupId);
+                if ((remaining == null || remaining == 0) && groupExpiry != null && groupExpiry <= now) {
+                    // 그 사이 접속한 노드는 다음 갱신 주기에 다시 등록
+                    redisTemplate.opsForZSet().remove(GROUPS_KEY, groupId);
+                }
+            } catch (Exception e) {
+                log.warn("만료 접속 상태 정리 실패 - GroupId: {}", groupId, e);
+            }
+        }
+    }
+
+    private void online(String groupId, String userId) {
+        long now = System.currentTimeMillis();
+        boolean wasOnline = isOnlineElsewhere(groupId, userId, now);
+        redisTemplate.opsForZSet().add(onlineKey(groupId), member(userId), now + presenceConfig.getTtl());
+        redisTemplate.opsForHash().put(lastSeenKey(groupId), userId, String.valueOf(now));
+        touchGroup(groupId, now + presenceConfig.getTtl());
+        if (!wasOnline) {
+            publishChange(groupId, userId, "ONLINE", now);
+        }
+    }
+
+    private void offline(String groupId, String userId) {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().remove(onlineKey(groupId), member(userId));
+        redisTemplate.opsForHash().put(lastSeenKey(groupId), userId, String.valueOf(now));
+        redisTemplate.expire(lastSeenKey(groupId), Duration.ofMillis(presenceConfig.getLastSeenRetention()));
+        if (!isOnlineElsewhere(groupId, userId, now)) {
+            publishChange(groupId, userId, "OFFLINE", now);
+        }
+    }
+
+    /**
+     * 그룹 목록의 만료 시각 갱신, 마지막 접속 시각 해시는 보관 기간 동안 갱신이 없으면 만료
+     */
+    private void touchGroup(String groupId, double expiry) {
+        redisTemplate.opsForZSet().add(GROUPS_KEY, groupId, expiry);
+        redisTemplate.expire(lastSeenKey(groupId), Duration.ofMillis(presenceConfig.getLastSeenRetention()));
+    }
+
+    /**
+     * 만료된 항목 제거 - 장애로 정리되지 못한 노드의 접속자를 오프라인 처리
+     * 여러 노드가 동시에 정리해도 항목을 실제로 제거한 노드만 오프라인을 알림
+     */
+    private void expireStale(String groupId, long now) {
+        @SuppressWarnings("unchecked")
+        List<String> removed = redisTemplate.execute(EXPIRE_SCRIPT, List.of(onlineKey(groupId)), String.valueOf(now));
+        if (removed == null || removed.isEmpty()) {
+            return;
+        }
+        Set<String> online = new HashSet<>(onlineUserIds(groupId, now));
+        removed.stream()
+                .map(PresenceService::userIdOf)
+                .distinct()
+                .filter(userId -> !online.contains(userId))
+                .forEach(userId -> publishChange(groupId, userId, "OFFLINE", now));
+    }
+
+    private boolean isOnlineElsewhere(String groupId, String userId, long now) {
+        return onlineUserIds(groupId, now).contains(userId);
+    }
+
+    private Set<String> onlineUserIds(String groupId, long now) {
+        Set<String> members = redisTemplate.opsForZSet().rangeByScore(onlineKey(groupId), now, Double.POSITIVE_INFINITY);
+        Set<String> userIds = new LinkedHashSet<>();
+        if (members != null) {
+            members.forEach(member -> userIds.add(userIdOf(member)));
+        }
+        return userIds;
+    }
+
+    private Set<UUID> loadOnlineUsers(String groupId, long now) {
+        Set<UUID> onlineUsers = new LinkedHashSet<>();
+        for (String userId : onlineUserIds(groupId, now)) {
+            UUID userPublicId = parseUuid(userId);
+            if (userPublicId != null) {
+                onlineUsers.add(userPublicId);
+            }
+        }
+        return onlineUsers;
+    }
+
+    private void publishChange(String groupId, String userId, String status, long timestamp) {
+        UUID groupPublicId = parseUuid(groupId);
+        UUID userPublicId = parseUuid(userId);
+        if (groupPublicId == null || userPublicId == null) {
+            return;
+        }
+        snapshotCache.remove(groupPublicId);
+
+        MessageDto.PresenceEvent presenceEvent = new MessageDto.PresenceEvent();
+        presenceEvent.setGroupPublicId(groupPublicId);
+        presenceEvent.setUserPublicId(userPublicId);
+        presenceEvent.setStatus(status);
+        presenceEvent.setTimestamp(timestamp);
+        fanoutService.publishToGroup(groupId, PRESENCE_DESTINATION_PREFIX + groupId, presenceEvent);
+        log.debug("접속 상태 변경 - GroupId: {}, UserId: {}, Status: {}", groupId, userId, status);
+    }
+
+    private boolean decrement(String key) {
+        Integer remaining = localPresence.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        return remaining == null;
+    }
+
+    private String member(String userId) {
+        return userId + MEMBER_SEPARATOR + clusterConfig.getNodeId();
+    }
+
+    private static String userIdOf(String member) {
+        int separator = member.lastIndexOf(MEMBER_SEPARATOR);
+        return separator < 0 ? member : member.substring(0, separator);
+    }
+
+    private static String presenceKey(String groupId, String userId) {
+        return groupId + MEMBER_SEPARATOR + userId;
+    }
+
+    private static String onlineKey(String groupId) {
+        return KEY_PREFIX + "{" + groupId + "}";
+    }
+
+    private static String lastSeenKey(String groupId) {
+        return onlineKey(groupId) + ":last-seen";
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static class PresenceSession {
+        private final String userId;
+        private final Map<String, String> groups = new HashMap<>(); // subscriptionId -> groupId
+        private final long connectedAt = System.currentTimeMillis();
+
+        PresenceSession(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static class CachedSnapshot {
+        private final Set<UUID> onlineUsers;
+        private final long loadedAt;
+
+        CachedSnapshot(Set<UUID> onlineUsers, long loadedAt) {
+            this.onlineUsers = onlineUsers;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
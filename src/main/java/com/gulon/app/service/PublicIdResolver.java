@@ -0,0 +1,208 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.IdCacheConfig;
+import com.gulon.app.repository.GroupTableRepository;
+import com.gulon.app.repository.UserRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * publicId -> 내부 id 변환 캐시
+ * 그룹/사용자의 publicId와 내부 정수 id, 이름을 노드 메모리에 유지해 id만 필요한 경로에서 엔티티 조회를 없앤다.
+ * id는 행이 존재하는 동안 바뀌지 않으므로 이름 변경/삭제 시에만 커밋 이후 Redis Pub/Sub(id-cache:evict)으로 무효화한다.
+ * 존재하지 않는 publicId는 캐시하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PublicIdResolver implements MessageListener, InitializingBean {
+
+    private static final String EVICT_CHANNEL = "id-cache:evict";
+    private static final String GROUP = "GROUP";
+    private static final String USER = "USER";
+
+    private final GroupTableRepository groupRepository;
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final IdCacheConfig cacheConfig;
+
+    // access-order LinkedHashMap으로 LRU 유지 (모든 접근은 synchronized)
+    private final LinkedHashMap<UUID, Ref> groups = new LinkedHashMap<>(1024, 0.75f, true);
+    private final LinkedHashMap<UUID, Ref> users = new LinkedHashMap<>(1024, 0.75f, true);
+    // 조회 중 무효화가 일어나면 조회 결과를 캐시하지 않도록 세대 번호 관리
+    private long generation;
+
+    @Override
+    public void afterPropertiesSet() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    public Optional<Ref> group(UUID publicId) {
+        return Optional.ofNullable(groups(List.of(publicId)).get(publicId));
+    }
+
+    public Optional<Ref> user(UUID publicId) {
+        return Optional.ofNullable(users(List.of(publicId)).get(publicId));
+    }
+
+    public Ref groupOrThrow(UUID publicId) {
+        return group(publicId).orElseThrow(() -> new IllegalArgumentException("그룹을 찾을 수 없습니다: " + publicId));
+    }
+
+    public Ref userOrThrow(UUID publicId) {
+        return user(publicId).orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + publicId));
+    }
+
+    /**
+     * 그룹 일괄 변환 - 존재하지 않는 publicId는 결과에서 제외
+     */
+    public Map<UUID, Ref> groups(Collection<UUID> publicIds) {
+        return resolve(groups, publicIds, groupRepository::findRefsByPublicIdIn);
+    }
+
+    /**
+     * 사용자 일괄 변환 - 존재하지 않는 publicId는 결과에서 제외
+     */
+    public Map<UUID, Ref> users(Collection<UUID> publicIds) {
+        return resolve(users, publicIds, userRepository::findRefsByPublicIdIn);
+    }
+
+    /**
+     * 그룹 이름 변경/삭제 후 모든 노드의 항목 무효화 (트랜잭션 안이면 커밋 이후)
+     */
+    public void evictGroup(UUID publicId) {
+        publishAfterCommit(GROUP + ":" + publicId);
+    }
+
+    /**
+     * 사용자 이름 변경/삭제 후 모든 노드의 항목 무효화 (트랜잭션 안이면 커밋 이후)
+     */
+    public void evictUser(UUID publicId) {
+        publishAfterCommit(USER + ":" + publicId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            evictLocal(body);
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 id 캐시 무효화 메시지: {}", body);
+        }
+    }
+
+    private Map<UUID, Ref> resolve(LinkedHashMap<UUID, Ref> cache, Collection<UUID> publicIds,
+                                   Function<Collection<UUID>, List<Object[]>> loader) {
+        Map<UUID, Ref> resolved = new HashMap<>(publicIds.size());
+        List<UUID> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (UUID publicId : publicIds) {
+                if (publicId == null) {
+                    continue;
+                }
+                Ref ref = cache.get(publicId);
+                if (ref != null) {
+                    resolved.put(publicId, ref);
+                } else {
+                    missing.add(publicId);
+                }
+            }
+            loadGeneration = generation;
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        Map<UUID, Ref> loaded = new HashMap<>(missing.size());
+        for (Object[] row : loader.apply(missing)) {
+            loaded.put((UUID) row[0], new Ref((Integer) row[1], (String) row[2]));
+        }
+        resolved.putAll(loaded);
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                cache.putAll(loaded);
+                evictEldest(cache);
+            }
+        }
+        return resolved;
+    }
+
+    private void publishAfterCommit(String target) {
+        Runnable publish = () -> {
+            // 발행 실패에 대비해 로컬 항목은 먼저 제거
+            evictLocal(target);
+            redisTemplate.convertAndSend(EVICT_CHANNEL, target);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+
+    private synchronized void evictLocal(String target) {
+        int separator = target.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException(target);
+        }
+        String type = target.substring(0, separator);
+        UUID publicId = UUID.fromString(target.substring(separator + 1));
+
+        generation++;
+        if (GROUP.equals(type)) {
+            groups.remove(publicId);
+        } else if (USER.equals(type)) {
+            users.remove(publicId);
+        } else {
+            throw new IllegalArgumentException(target);
+        }
+    }
+
+    private void evictEldest(LinkedHashMap<UUID, Ref> cache) {
+        Iterator<UUID> iterator = cache.keySet().iterator();
+        while (cache.size() > cacheConfig.getMaxEntries() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 변환 결과 - 내부 id와 표시용 이름
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Ref {
+        private final Integer id;
+        private final String name;
+    }
+}
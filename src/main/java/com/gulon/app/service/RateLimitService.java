@@ -0,0 +1,162 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.RateLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 요청 유입 제한 (Redis 토큰 버킷)
+ * 버킷은 chat:rate:{endpointClass}:{user|group}:{id} 해시(tokens, ts)에 두고 Lua 스크립트로 보충/차감을 원자적으로 처리한다.
+ * 거부된 버킷은 토큰이 다시 찰 때까지 노드 메모리에 기억해 그 사이의 요청은 Redis를 거치지 않고 거부한다.
+ * Redis 장애 시에는 요청을 허용한다 (제한보다 가용성 우선).
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    public static final String MESSAGE = "message";
+    public static final String NOTIFICATION = "notification";
+
+    private static final String KEY_PREFIX = "chat:rate:";
+
+    // 반환: {허용 여부(1/0), 다시 시도까지 대기 시간(ms)}
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local rate = tonumber(ARGV[2])\n" +
+            "local now = tonumber(ARGV[3])\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(bucket[1]) or capacity\n" +
+            "local ts = tonumber(bucket[2]) or now\n" +
+            "if now > ts then\n" +
+            "  tokens = math.min(capacity, tokens + (now - ts) * rate)\n" +
+            "  ts = now\n" +
+            "end\n" +
+            "local allowed = 0\n" +
+            "local wait = 0\n" +
+            "if tokens >= 1 then\n" +
+            "  tokens = tokens - 1\n" +
+            "  allowed = 1\n" +
+            "else\n" +
+            "  wait = math.ceil((1 - tokens) / rate)\n" +
+            "end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))\n" +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)\n" +
+            "return {allowed, wait}",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitConfig rateLimitConfig;
+    private final MeterRegistry meterRegistry;
+
+    // 버킷 키 -> 토큰이 다시 생기는 시각 (access-order LRU, 모든 접근은 synchronized)
+    private final LinkedHashMap<String, Long> denyUntil = new LinkedHashMap<>(1024, 0.75f, true);
+
+    public RateLimitService(StringRedisTemplate redisTemplate, RateLimitConfig rateLimitConfig, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.rateLimitConfig = rateLimitConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 사용자/그룹 버킷에서 토큰 1개씩 차감 - 어느 하나라도 비어 있으면 예외
+     * 사용자 버킷을 먼저 확인하므로 한 사용자가 그룹 버킷을 소진시키기 전에 제한됨
+     *
+     * @throws RateLimitExceededException 제한 초과
+     */
+    public void check(String endpointClass, String userId, String groupId) {
+        if (!rateLimitConfig.isEnabled()) {
+            return;
+        }
+        RateLimitConfig.Rule rule = rateLimitConfig.getRules().get(endpointClass);
+        if (rule == null) {
+            return;
+        }
+        if (userId != null) {
+            take(endpointClass, "user", userId, rule.getUserCapacity(), rule.getUserRefillPerSecond());
+        }
+        if (groupId != null) {
+            take(endpointClass, "group", groupId, rule.getGroupCapacity(), rule.getGroupRefillPerSecond());
+        }
+    }
+
+    private void take(String endpointClass, String scope, String id, Integer capacity, Double refillPerSecond) {
+        if (capacity == null || capacity <= 0 || refillPerSecond == null || refillPerSecond <= 0) {
+            return;
+        }
+        String key = KEY_PREFIX + endpointClass + ":" + scope + ":" + id;
+        long now = System.currentTimeMillis();
+
+        // 로컬 선확인 - 토큰이 다시 찰 때까지는 Redis 조회 없이 거부
+        Long localDenyUntil;
+        synchronized (denyUntil) {
+            localDenyUntil = denyUntil.get(key);
+            if (localDenyUntil != null && localDenyUntil <= now) {
+                denyUntil.remove(key);
+                localDenyUntil = null;
+            }
+        }
+        if (localDenyUntil != null) {
+            throw reject(endpointClass, scope, localDenyUntil - now);
+        }
+
+        List<?> result;
+        try {
+            result = redisTemplate.execute(TAKE_SCRIPT, List.of(key),
+                    String.valueOf(capacity), String.valueOf(refillPerSecond / 1000.0), String.valueOf(now));
+        } catch (Exception e) {
+            log.warn("요청 제한 확인 실패, 요청 허용 - Key: {}", key, e);
+            return;
+        }
+        if (result == null || result.size() < 2 || ((Number) result.get(0)).longValue() == 1) {
+            return;
+        }
+
+        long retryAfter = Math.max(1, ((Number) result.get(1)).longValue());
+        synchronized (denyUntil) {
+            denyUntil.put(key, now + retryAfter);
+            Iterator<Map.Entry<String, Long>> iterator = denyUntil.entrySet().iterator();
+            while (denyUntil.size() > rateLimitConfig.getLocalDenyCacheSize() && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        throw reject(endpointClass, scope, retryAfter);
+    }
+
+    private RateLimitExceededException reject(String endpointClass, String scope, long retryAfterMillis) {
+        Counter.builder("chat.rate-limit.rejected")
+                .tag("endpoint", endpointClass)
+                .tag("scope", scope)
+                .description("요청 제한으로 거부된 요청 수")
+                .register(meterRegistry)
+                .increment();
+        return new RateLimitExceededException(scope, retryAfterMillis);
+    }
+
+    /**
+     * 요청 제한 초과 - REST는 429, STOMP는 프레임을 버리고 /user/queue/errors로 알림
+     */
+    @Getter
+    public static class RateLimitExceededException extends RuntimeException {
+        private final String scope; // "user", "group"
+        private final long retryAfterMillis;
+
+        public RateLimitExceededException(String scope, long retryAfterMillis) {
+            super(("user".equals(scope) ? "요청이 너무 많습니다." : "그룹의 요청이 너무 많습니다.")
+                    + " " + retryAfterMillis + "ms 후 다시 시도해주세요.");
+            this.scope = scope;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatReadConfig;
+import com.gulon.app.dto.MessageDto;
+import com.gulon.app.entity.GroupMember;
+import com.gulon.app.repository.GroupMemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 그룹 채팅 읽음 위치 관리
+ * 사용자별 읽음 위치를 Redis 해시(chat:read:{userId}, groupId -> seq)에 단조 증가로 기록하고,
+ * 변경된 항목만 dirty 집합에 모아 주기적으로 group_member.last_read_seq에 체크포인트한다.
+ * 안 읽은 메시지 수는 그룹 최신 순번과 읽음 위치의 차이로 계산한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReadCursorService {
+
+    private static final String READ_KEY_PREFIX = "chat:read:";
+    private static final String DIRTY_KEY = "chat:read:dirty";
+
+    // 기존 값보다 클 때만 갱신하고 dirty 집합에 추가, 최종 읽음 위치 반환
+    private static final DefaultRedisScript<Long> MARK_READ_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0')\n" +
+            "local seq = tonumber(ARGV[2])\n" +
+            "if seq <= current then return current end\n" +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "redis.call('SADD', KEYS[2], ARGV[3])\n" +
+            "return seq",
+            Long.class);
+
+    private static final String CHECKPOINT_SQL =
+            "UPDATE group_member gm " +
+            "JOIN group_table g ON g.id = gm.group_id " +
+            "JOIN `user` u ON u.id = gm.user_id " +
+            "SET gm.last_read_seq = GREATEST(COALESCE(gm.last_read_seq, 0), ?) " +
+            "WHERE g.public_id = ? AND u.public_id = ?";
+
+    private final ChatReadConfig readConfig;
+    private final ChatSequenceService sequenceService;
+    private final GroupMemberRepository groupMemberRepository;
+    private final MembershipCache membershipCache;
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 읽음 처리 - 그룹 최신 순번을 넘는 값은 최신 순번으로 제한
+     */
+    public MessageDto.UnreadCount markRead(UUID groupPublicId, UUID userPublicId, long seq) {
+        if (!membershipCache.isActiveMember(groupPublicId, userPublicId)) {
+            throw new IllegalArgumentException("그룹 멤버만 읽음 처리할 수 있습니다.");
+        }
+        if (seq < 0) {
+            throw new IllegalArgumentException("메시지 순번이 올바르지 않습니다: " + seq);
+        }
+
+        long latestSeq = sequenceService.latest(groupPublicId);
+        Long lastReadSeq = redisTemplate.execute(MARK_READ_SCRIPT,
+                List.of(readKey(userPublicId), DIRTY_KEY),
+                groupPublicId.toString(),
+                String.valueOf(Math.min(seq, latestSeq)),
+                userPublicId + ":" + groupPublicId);
+
+        return toUnreadCount(groupPublicId, lastReadSeq != null ? lastReadSeq : 0, latestSeq);
+    }
+
+    /**
+     * 보낸 메시지까지 읽음 처리 - 보낸 사람의 메시지가 본인의 안 읽은 수에 포함되지 않도록 (멤버 검증은 호출 측에서 완료)
+     */
+    public void advance(UUID groupPublicId, UUID userPublicId, long seq) {
+        try {
+            redisTemplate.execute(MARK_READ_SCRIPT,
+                    List.of(readKey(userPublicId), DIRTY_KEY),
+                    groupPublicId.toString(),
+                    String.valueOf(seq),
+                    userPublicId + ":" + groupPublicId);
+        } catch (Exception e) {
+            log.warn("보낸 사람 읽음 위치 갱신 실패 - GroupId: {}, UserId: {}", groupPublicId, userPublicId, e);
+        }
+    }
+
+    /**
+     * 특정 그룹의 안 읽은 메시지 수 조회
+     */
+    public MessageDto.UnreadCount getUnreadCount(UUID groupPublicId, UUID userPublicId) {
+        GroupMember member = groupMemberRepository.findByGroupPublicIdAndUserPublicId(groupPublicId, userPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("그룹 멤버가 아닙니다."));
+        long lastReadSeq = readCursor(userPublicId, groupPublicId)
+                .orElse(member.getLastReadSeq() != null ? member.getLastReadSeq() : 0L);
+        return toUnreadCount(groupPublicId, lastReadSeq, sequenceService.latest(groupPublicId));
+    }
+
+    /**
+     * 사용자가 가입한 모든 활성 그룹의 안 읽은 메시지 수 일괄 조회
+     */
+    public List<MessageDto.UnreadCount> getUnreadCounts(UUID userPublicId) {
+        List<GroupMember> memberships = groupMemberRepository.findActiveWithGroupByUserPublicId(userPublicId);
+        if (memberships.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> groupPublicIds = memberships.stream()
+                .map(member -> member.getGroup().getPublicId())
+                .toList();
+        Map<UUID, Long> latest = sequenceService.latest(groupPublicIds);
+
+        List<Object> fields = new ArrayList<>(groupPublicIds.size());
+        groupPublicIds.forEach(groupPublicId -> fields.add(groupPublicId.toString()));
+        List<Object> cursors = redisTemplate.opsForHash().multiGet(readKey(userPublicId), fields);
+
+        List<MessageDto.UnreadCount> counts = new ArrayList<>(memberships.size());
+        for (int i = 0; i < memberships.size(); i++) {
+            GroupMember member = memberships.get(i);
+            Object cursor = cursors != null ? cursors.get(i) : null;
+            long lastReadSeq = cursor != null
+                    ? Long.parseLong(cursor.toString())
+                    : (member.getLastReadSeq() != null ? member.getLastReadSeq() : 0L);
+            UUID groupPublicId = groupPublicIds.get(i);
+            counts.add(toUnreadCount(groupPublicId, lastReadSeq, latest.getOrDefault(groupPublicId, 0L)));
+        }
+        return counts;
+    }
+
+    /**
+     * 변경된 읽음 위치를 DB에 체크포인트
+     * dirty 집합에서 꺼낸 항목은 현재 Redis 값으로 기록하며, GREATEST로 순서가 뒤바뀌어도 되돌아가지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${chat.read.checkpoint-interval:60000}")
+    public void checkpoint() {
+        List<String> dirty = redisTemplate.opsForSet().pop(DIRTY_KEY, readConfig.getCheckpointBatchSize());
+        if (dirty == null || dirty.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, List<UUID>> groupsByUser = new HashMap<>();
+        for (String entry : dirty) {
+            int separator = entry.indexOf(':');
+            groupsByUser.computeIfAbsent(UUID.fromString(entry.substring(0, separator)), key -> new ArrayList<>())
+                    .add(UUID.fromString(entry.substring(separator + 1)));
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(dirty.size());
+        groupsByUser.forEach((userPublicId, groupPublicIds) -> {
+            List<Object> fields = new ArrayList<>(groupPublicIds);
+            fields.replaceAll(Object::toString);
+            List<Object> cursors = redisTemplate.opsForHash().multiGet(readKey(userPublicId), fields);
+            for (int i = 0; i < groupPublicIds.size(); i++) {
+                Object cursor = cursors != null ? cursors.get(i) : null;
+                if (cursor != null) {
+                    batchArgs.add(new Object[]{Long.parseLong(cursor.toString()),
+                            toBytes(groupPublicIds.get(i)), toBytes(userPublicId)});
+                }
+            }
+        });
+
+        try {
+            jdbcTemplate.batchUpdate(CHECKPOINT_SQL, batchArgs);
+            log.debug("읽음 위치 체크포인트 완료 - {}건", batchArgs.size());
+        } catch (RuntimeException e) {
+            // 실패한 항목은 다음 주기에 다시 기록
+            redisTemplate.opsForSet().add(DIRTY_KEY, dirty.toArray(String[]::new));
+            log.error("읽음 위치 체크포인트 실패 - {}건", dirty.size(), e);
+        }
+    }
+
+    private Optional<Long> readCursor(UUID userPublicId, UUID groupPublicId) {
+        Object cursor = redisTemplate.opsForHash().get(readKey(userPublicId), groupPublicId.toString());
+        return Optional.ofNullable(cursor).map(value -> Long.parseLong(value.toString()));
+    }
+
+    private static MessageDto.UnreadCount toUnreadCount(UUID groupPublicId, long lastReadSeq, long latestSeq) {
+        MessageDto.UnreadCount count = new MessageDto.UnreadCount();
+        count.setGroupPublicId(groupPublicId);
+        count.setLastReadSeq(lastReadSeq);
+        count.setLatestSeq(latestSeq);
+        count.setUnreadCount(Math.max(0, latestSeq - lastReadSeq));
+        return count;
+    }
+
+    private static String readKey(UUID userPublicId) {
+        return READ_KEY_PREFIX + userPublicId;
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,248 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatCacheConfig;
+import com.gulon.app.dto.MessageDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 그룹별 최근 메시지 윈도우 캐시
+ * 채팅방 입장 시 조회되는 최근 메시지를 노드 메모리에 유지하고, 그룹 간에는 LRU로 제거
+ * DB 조회로 윈도우를 적재하는 동안 들어온 전송/수정/삭제는 적재 후 다시 반영해, 조회 결과가 그 변경을 덮어쓰지 않게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecentMessageCache {
+
+    private final ChatCacheConfig cacheConfig;
+
+    // access-order LinkedHashMap으로 LRU 유지 (모든 접근은 synchronized)
+    private final LinkedHashMap<UUID, Window> windows = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 적재 중인 그룹 - 조회 시작 이후의 변경을 모아 두었다가 적재 시 반영
+    private final Map<UUID, PendingLoad> loading = new HashMap<>();
+    private long nextGeneration;
+
+    /**
+     * 최근 메시지 조회 - 윈도우가 요청 개수를 충족하지 못하면 empty 반환
+     */
+    public synchronized Optional<RecentMessages> getRecent(UUID groupPublicId, int limit) {
+        Window window = windows.get(groupPublicId);
+        if (window == null) {
+            return Optional.empty();
+        }
+        if (window.isExpired(cacheConfig.getWindowExpiry())) {
+            windows.remove(groupPublicId);
+            return Optional.empty();
+        }
+        if (window.entries.size() < limit && !window.complete) {
+            return Optional.empty();
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(limit, window.entries.size()));
+        Iterator<Entry> iterator = window.entries.iterator();
+        while (iterator.hasNext() && entries.size() < limit) {
+            entries.add(iterator.next());
+        }
+        boolean hasMore = window.entries.size() > entries.size() || !window.complete;
+        return Optional.of(new RecentMessages(entries, hasMore));
+    }
+
+    /**
+     * 윈도우 적재 시작 - DB 조회 전에 호출하고, 반환한 세대를 load에 전달
+     * 같은 그룹을 이미 적재 중이면 그 세대를 함께 사용 (먼저 끝난 적재만 반영)
+     */
+    public synchronized long beginLoad(UUID groupPublicId) {
+        return loading.computeIfAbsent(groupPublicId, key -> new PendingLoad(++nextGeneration)).generation;
+    }
+
+    /**
+     * DB에서 조회한 최근 메시지로 윈도우 적재 (최신순)
+     * complete는 그룹의 삭제되지 않은 메시지가 모두 포함되었는지 여부
+     * 조회하는 동안 반영된 변경을 이어서 적용하고, 그 사이 무효화되었거나 이미 적재되었으면 버림
+     */
+    public synchronized void load(UUID groupPublicId, long generation, List<Entry> newestFirst, boolean complete) {
+        PendingLoad pending = loading.get(groupPublicId);
+        if (pending == null || pending.generation != generation) {
+            return;
+        }
+        loading.remove(groupPublicId);
+
+        Window window = new Window(complete);
+        newestFirst.stream()
+                .limit(cacheConfig.getWindowSize())
+                .forEach(window.entries::addLast);
+        pending.changes.forEach(change -> change.accept(window));
+        windows.put(groupPublicId, window);
+        evictEldest();
+    }
+
+    /**
+     * 조회 실패 시 적재 취소 - 모아 둔 변경을 버림
+     */
+    public synchronized void cancelLoad(UUID groupPublicId, long generation) {
+        PendingLoad pending = loading.get(groupPublicId);
+        if (pending != null && pending.generation == generation) {
+            loading.remove(groupPublicId);
+        }
+    }
+
+    /**
+     * 새 메시지 반영 - 윈도우가 적재된(적재 중인) 그룹만 갱신, 이미 있는 id는 무시 (재전달된 엔트리)
+     */
+    public synchronized void onMessageSent(UUID groupPublicId, Integer id, MessageDto.Summary summary) {
+        apply(groupPublicId, window -> addSent(window, id, summary));
+    }
+
+    private void addSent(Window window, Integer id, MessageDto.Summary summary) {
+        if (window.entries.stream().anyMatch(entry -> entry.id.equals(id))) {
+            return;
+        }
+
+        Entry entry = new Entry(id, summary);
+        if (window.entries.isEmpty() || !window.entries.peekFirst().isNewerThan(entry)) {
+            window.entries.addFirst(entry);
+        } else {
+            // 늦게 도착한 메시지는 정렬 위치에 삽입
+            List<Entry> ordered = new ArrayList<>(window.entries);
+            int index = 0;
+            while (index < ordered.size() && ordered.get(index).isNewerThan(entry)) {
+                index++;
+            }
+            ordered.add(index, entry);
+            window.entries.clear();
+            window.entries.addAll(ordered);
+        }
+
+        while (window.entries.size() > cacheConfig.getWindowSize()) {
+            window.entries.removeLast();
+            window.complete = false;
+        }
+    }
+
+    /**
+     * 수정된 메시지 반영
+     */
+    public synchronized void onMessageEdited(UUID groupPublicId, MessageDto.Summary summary) {
+        apply(groupPublicId, window -> replaceEdited(window, summary));
+    }
+
+    private static void replaceEdited(Window window, MessageDto.Summary summary) {
+        List<Entry> updated = new ArrayList<>(window.entries.size());
+        for (Entry entry : window.entries) {
+            updated.add(entry.summary.getPublicId().equals(summary.getPublicId())
+                    ? new Entry(entry.id, summary) : entry);
+        }
+        window.entries.clear();
+        window.entries.addAll(updated);
+    }
+
+    /**
+     * 삭제된 메시지 제거
+     */
+    public synchronized void onMessageDeleted(UUID groupPublicId, UUID messagePublicId) {
+        apply(groupPublicId, window -> window.entries.removeIf(entry -> entry.summary.getPublicId().equals(messagePublicId)));
+    }
+
+    /**
+     * 윈도우 제거 - 진행 중인 적재도 무효화
+     */
+    public synchronized void evict(UUID groupPublicId) {
+        windows.remove(groupPublicId);
+        loading.remove(groupPublicId);
+    }
+
+    /**
+     * 적재된 윈도우에 변경 적용, 적재 중이면 적재 후 적용하도록 보관
+     */
+    private void apply(UUID groupPublicId, Consumer<Window> change) {
+        Window window = windows.get(groupPublicId);
+        if (window != null) {
+            change.accept(window);
+        }
+        PendingLoad pending = loading.get(groupPublicId);
+        if (pending != null) {
+            pending.changes.add(change);
+        }
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<UUID, Window>> iterator = windows.entrySet().iterator();
+        while (windows.size() > cacheConfig.getMaxGroups() && iterator.hasNext()) {
+            UUID evicted = iterator.next().getKey();
+            iterator.remove();
+            log.debug("최근 메시지 윈도우 제거 (LRU) - GroupId: {}", evicted);
+        }
+    }
+
+    /**
+     * 윈도우 항목 - 커서 생성을 위해 내부 id를 함께 보관
+     */
+    @Getter
+    public static class Entry {
+        private final Integer id;
+        private final MessageDto.Summary summary;
+
+        public Entry(Integer id, MessageDto.Summary summary) {
+            this.id = id;
+            this.summary = summary;
+        }
+
+        boolean isNewerThan(Entry other) {
+            int compared = summary.getSentAt().compareTo(other.summary.getSentAt());
+            return compared > 0 || (compared == 0 && id > other.id);
+        }
+    }
+
+    /**
+     * 캐시 조회 결과
+     */
+    @Getter
+    public static class RecentMessages {
+        private final List<Entry> entries;
+        private final boolean hasMore;
+
+        public RecentMessages(List<Entry> entries, boolean hasMore) {
+            this.entries = entries;
+            this.hasMore = hasMore;
+        }
+    }
+
+    private static class PendingLoad {
+        private final long generation;
+        private final List<Consumer<Window>> changes = new ArrayList<>();
+
+        PendingLoad(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private static class Window {
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private final long loadedAt = System.currentTimeMillis();
+        private boolean complete;
+
+        Window(boolean complete) {
+            this.complete = complete;
+        }
+
+        boolean isExpired(int expirySeconds) {
+            return System.currentTimeMillis() - loadedAt > expirySeconds * 1000L;
+        }
+    }
+}
@@ -1,45 +1,74 @@
 package com.gulon.app.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gulon.app.config.RedisStreamConfig;
+import com.gulon.app.config.StreamRetryConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
 import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
 import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.stream.StreamListener;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.DisposableBean;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RedisStreamListener implements StreamListener<String, MapRecord<String, String, String>>, InitializingBean, DisposableBean {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterFanoutService fanoutService;
     private final StreamMessageListenerContainer<String, MapRecord<String, String, String>> streamContainer;
+    private final StringRedisTemplate redisTemplate;
+    private final StreamPendingReclaimer pendingReclaimer;
+    private final RedisStreamConfig streamConfig;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final StreamDispatchExecutor dispatchExecutor;
+    private final StreamDeadLetterService deadLetterService;
+    private final StreamRetryConfig retryConfig;
+    private final NotificationInboxService notificationInboxService;
+    private final ChatDeliveryMetrics deliveryMetrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // lane에 넘겼지만 아직 처리가 끝나지 않은 엔트리 (스트림 -> 엔트리 ID -> 넘긴 시각)
+    // 회수로 같은 엔트리를 다시 넘기지 않고, 대기가 길어진 엔트리를 다른 노드가 회수하지 않도록 idle 시간을 갱신하는 데 사용
+    private final Map<String, Map<String, Long>> inFlight = new ConcurrentHashMap<>();
+
     @Override
     public void afterPropertiesSet() throws Exception {
-        // 채팅 스트림 리스너 등록
-        streamContainer.receive(
-                StreamOffset.latest(RedisStreamService.CHAT_STREAM),
-                this
-        );
+        Consumer consumer = Consumer.from(streamConfig.getConsumerGroup(), streamConfig.getConsumerName());
 
-        // 알림 스트림 리스너 등록  
-        streamContainer.receive(
-                StreamOffset.latest(RedisStreamService.NOTIFICATION_STREAM),
-                this
-        );
+        // 컨슈머 그룹으로 채팅 파티션/알림 스트림 리스너 등록 (ACK는 처리 성공 후 직접 수행)
+        // 파티션마다 별도 구독으로 읽으므로 파티션 수만큼 처리량이 늘어남
+        for (String streamKey : streamKeys()) {
+            createGroupIfAbsent(streamKey);
+            streamContainer.receive(
+                    consumer,
+                    StreamOffset.create(streamKey, ReadOffset.lastConsumed()),
+                    this
+            );
+        }
 
         streamContainer.start();
-        log.info("Redis Stream 리스너가 시작되었습니다.");
+        log.info("Redis Stream 리스너가 시작되었습니다. - Group: {}, Consumer: {}, Streams: {}",
+                streamConfig.getConsumerGroup(), streamConfig.getConsumerName(), streamKeys());
     }
 
     @Override
@@ -50,107 +79,271 @@ public class RedisStreamListener implements StreamListener<String, MapRecord<Str
         }
     }
 
+    /**
+     * 폴링 스레드에서는 엔트리를 lane에 넘기기만 하고, 전송과 ACK는 lane 스레드에서 수행
+     * 같은 그룹(알림은 사용자)의 엔트리는 같은 lane에서 순서대로 처리됨
+     * lane 큐가 가득 차면 자리가 날 때까지 폴링 스레드가 대기하므로 (backpressure) 엔트리를 건너뛰지 않음
+     * 엔트리 생성 → 수신, 수신 → lane 처리 시작, lane 처리 시간을 구간별로 기록
+     */
     @Override
     public void onMessage(MapRecord<String, String, String> message) {
+        dispatch(message, true);
+    }
+
+    /**
+     * @param wait lane 큐가 가득 찼을 때 대기 여부 - false면 넘기지 않고 pending으로 남김 (회수 스케줄러)
+     * @return lane에 넘겼으면 true (이미 처리 중인 엔트리도 true)
+     */
+    private boolean dispatch(MapRecord<String, String, String> message, boolean wait) {
+        String streamKey = message.getStream();
+        String id = message.getId().getValue();
+        Map<String, Long> streamInFlight = inFlight.computeIfAbsent(streamKey, key -> new ConcurrentHashMap<>());
+        if (streamInFlight.putIfAbsent(id, System.currentTimeMillis()) != null) {
+            return true; // 아직 lane에서 대기/처리 중인 엔트리가 다시 전달됨
+        }
+
+        long receivedAt = System.nanoTime();
+        String streamType = deliveryMetrics.streamType(streamKey);
+        // 회수된 엔트리는 pending 대기 시간이 포함되므로 실시간 수신 구간과 나눠 기록
+        deliveryMetrics.recordHopSince(wait ? ChatDeliveryMetrics.HOP_STREAM : ChatDeliveryMetrics.HOP_RECLAIM,
+                streamType, message.getId().getTimestamp());
+        Runnable task = () -> {
+            try {
+                deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_DISPATCH, streamType, receivedAt);
+                long handleStart = System.nanoTime();
+                process(message);
+                deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_HANDLE, streamType, handleStart);
+            } finally {
+                streamInFlight.remove(id);
+            }
+        };
         try {
-            String streamKey = message.getStream();
-            Map<String, String> messageBody = message.getValue();
+            if (wait) {
+                dispatchExecutor.execute(dispatchKey(message), task);
+                return true;
+            }
+            if (dispatchExecutor.tryExecute(dispatchKey(message), task)) {
+                return true;
+            }
+        } catch (RejectedExecutionException e) {
+            // 종료 중 - ACK 하지 않았으므로 pending으로 남아 이후 회수 시 다시 처리됨
+            log.warn("Redis Stream 메시지 전송 lane 종료 - Stream: {}, MessageId: {}", streamKey, id);
+        }
+        streamInFlight.remove(id);
+        return false;
+    }
 
-            log.info("Redis Stream 메시지 수신 - Stream: {}, MessageId: {}", streamKey, message.getId());
+    /**
+     * 엔트리 처리 - 실패하면 backoff 후 maxAttempts까지 재시도하고, 모두 실패하면 DLQ로 옮긴 뒤 ACK
+     * 잘못된 형식(IllegalArgumentException)은 재시도해도 성공할 수 없으므로 바로 DLQ로 옮김
+     */
+    private void process(MapRecord<String, String, String> message) {
+        long backoff = retryConfig.getInitialBackoff();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                handle(message);
+
+                // 처리에 성공한 엔트리만 ACK
+                redisTemplate.opsForStream().acknowledge(streamConfig.getConsumerGroup(), message);
+                return;
 
-            if (RedisStreamService.CHAT_STREAM.equals(streamKey)) {
-                handleChatMessage(messageBody);
-            } else if (RedisStreamService.NOTIFICATION_STREAM.equals(streamKey)) {
-                handleNotificationMessage(messageBody);
-            } else {
-                handleGenericMessage(streamKey, messageBody);
+            } catch (Exception e) {
+                boolean retryable = !(e instanceof IllegalArgumentException);
+                if (!retryable || attempt >= retryConfig.getMaxAttempts()) {
+                    deadLetter(message, attempt, e);
+                    return;
+                }
+                log.warn("Redis Stream 메시지 처리 실패, 재시도 예정 - Stream: {}, MessageId: {}, 시도: {}회, 대기: {}ms",
+                        message.getStream(), message.getId(), attempt, backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    // 종료 중 - ACK 하지 않았으므로 pending으로 남아 이후 회수 시 다시 처리됨
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min((long) (backoff * retryConfig.getBackoffMultiplier()), retryConfig.getMaxBackoff());
             }
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Redis Stream 메시지 처리 실패: ", e);
+    private void handle(MapRecord<String, String, String> message) throws IOException {
+        String streamKey = message.getStream();
+        Map<String, String> messageBody = message.getValue();
+
+        log.info("Redis Stream 메시지 수신 - Stream: {}, MessageId: {}", streamKey, message.getId());
+
+        if (streamPartitioner.isChatStream(streamKey)) {
+            handleChatMessage(message.getId().getValue(), messageBody);
+        } else if (RedisStreamService.NOTIFICATION_STREAM.equals(streamKey)) {
+            handleNotificationMessage(message.getId().getValue(), messageBody);
+        } else {
+            handleGenericMessage(streamKey, messageBody);
         }
     }
 
     /**
-     * 채팅 메시지 처리 및 WebSocket 전송
+     * DLQ 이동에 성공한 경우에만 ACK - DLQ 기록도 실패하면 pending으로 남겨 회수 시 다시 처리
      */
-    private void handleChatMessage(Map<String, String> messageBody) {
+    private void deadLetter(MapRecord<String, String, String> message, int attempts, Exception cause) {
+        log.error("Redis Stream 메시지 처리 실패 - Stream: {}, MessageId: {}, 시도: {}회",
+                message.getStream(), message.getId(), attempts, cause);
         try {
-            String groupId = messageBody.get("groupId");
-            String senderId = messageBody.get("senderId");
-            String message = messageBody.get("message");
-            String messageType = messageBody.get("messageType");
-            String timestamp = messageBody.get("timestamp");
-
-            // 그룹 채팅방에 메시지 전송
-            messagingTemplate.convertAndSend(
-                    "/topic/chat/group/" + groupId,
-                    Map.of(
-                            "senderId", senderId,
-                            "message", message,
-                            "messageType", messageType,
-                            "timestamp", timestamp
-                    )
-            );
-
-            log.info("채팅 메시지 WebSocket 전송 완료 - GroupId: {}, SenderId: {}", groupId, senderId);
-
+            deadLetterService.deadLetter(message, attempts, cause);
+            redisTemplate.opsForStream().acknowledge(streamConfig.getConsumerGroup(), message);
         } catch (Exception e) {
-            log.error("채팅 메시지 WebSocket 전송 실패: ", e);
+            log.error("DLQ 이동 실패 - Stream: {}, MessageId: {}", message.getStream(), message.getId(), e);
+        }
+    }
+
+    private String dispatchKey(MapRecord<String, String, String> message) {
+        String streamKey = message.getStream();
+        if (streamPartitioner.isChatStream(streamKey)) {
+            return message.getValue().get("groupId");
         }
+        if (RedisStreamService.NOTIFICATION_STREAM.equals(streamKey)) {
+            return message.getValue().get("userId");
+        }
+        return streamKey;
     }
 
     /**
-     * 알림 메시지 처리 및 WebSocket 전송
+     * 다른 노드(또는 재시작 전 자신)가 처리하지 못하고 방치된 pending 엔트리를 회수해 다시 처리
+     * 먼저 로컬 lane에서 대기 중인 엔트리의 idle 시간을 갱신해 다른 노드가 회수하지 않도록 하고,
+     * 회수한 엔트리 중 로컬에서 처리 중인 것은 다시 넘기지 않음
+     * 스케줄러 스레드를 막지 않도록 lane 큐가 가득 차면 남은 엔트리는 다음 주기로 미룸
      */
-    private void handleNotificationMessage(Map<String, String> messageBody) {
+    @Scheduled(fixedDelayString = "${redis.stream.claim-interval:10000}")
+    public void reclaimPendingMessages() {
+        for (String streamKey : streamKeys()) {
+            try {
+                pendingReclaimer.touch(streamKey, streamConfig.getConsumerGroup(), streamConfig.getConsumerName(),
+                        inFlightBefore(streamKey, System.currentTimeMillis() - streamConfig.getClaimInterval()));
+                for (MapRecord<String, String, String> record : pendingReclaimer.claimIdle(
+                        streamKey, streamConfig.getConsumerGroup(), streamConfig.getConsumerName())) {
+                    if (!dispatch(record, false)) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("pending 엔트리 회수 실패 - Stream: {}", streamKey, e);
+            }
+        }
+    }
+
+    private List<String> inFlightBefore(String streamKey, long dispatchedBefore) {
+        Map<String, Long> streamInFlight = inFlight.get(streamKey);
+        if (streamInFlight == null) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>();
+        streamInFlight.forEach((id, dispatchedAt) -> {
+            if (dispatchedAt < dispatchedBefore) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private List<String> streamKeys() {
+        List<String> streamKeys = new ArrayList<>(streamPartitioner.readStreamKeys());
+        streamKeys.add(RedisStreamService.NOTIFICATION_STREAM);
+        return streamKeys;
+    }
+
+    private void createGroupIfAbsent(String streamKey) {
         try {
-            String userId = messageBody.get("userId");
-            String title = messageBody.get("title");
-            String content = messageBody.get("content");
-            String notificationType = messageBody.get("notificationType");
-            String timestamp = messageBody.get("timestamp");
-
-            // 특정 사용자에게 알림 전송
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/notifications",
-                    Map.of(
-                            "title", title,
-                            "content", content,
-                            "notificationType", notificationType,
-                            "timestamp", timestamp
-                    )
-            );
+            redisTemplate.opsForStream().createGroup(streamKey, ReadOffset.latest(), streamConfig.getConsumerGroup());
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
 
-            log.info("알림 메시지 WebSocket 전송 완료 - UserId: {}, Type: {}", userId, notificationType);
+    /**
+     * 채팅 메시지 처리 및 WebSocket 전송
+     * 전송 실패 시 예외를 던져 엔트리가 ACK 되지 않도록 함
+     */
+    private void handleChatMessage(String streamId, Map<String, String> messageBody) throws IOException {
+        String messageId = messageBody.getOrDefault("messageId", "");
+        String groupId = messageBody.get("groupId");
+        String senderId = messageBody.get("senderId");
+        String message = messageBody.get("message");
+        String messageType = messageBody.get("messageType");
+        String timestamp = messageBody.get("timestamp");
+        String seq = messageBody.get("seq");
+        String action = messageBody.get("action"); // 수정/삭제/복원 diff 이벤트 (일반 메시지는 null)
 
-        } catch (Exception e) {
-            log.error("알림 메시지 WebSocket 전송 실패: ", e);
+        // 한 번 인코딩한 JSON을 그룹 채팅방 구독자가 있는 노드로 전송 (수신 노드와 브로커는 재인코딩하지 않음)
+        // 엔트리 생성 시각을 함께 보내 수신 노드가 소켓 쓰기까지의 전체 지연을 기록
+        fanoutService.publishToGroup(groupId,
+                encodeChatPayload(objectMapper.getFactory(), streamId, messageId, senderId, message, messageType,
+                        timestamp, seq, action),
+                StreamArchive.parseId(streamId)[0]);
+
+        log.info("채팅 메시지 WebSocket 전송 완료 - GroupId: {}, SenderId: {}", groupId, senderId);
+    }
+
+    /**
+     * 채팅 payload를 중간 Map 없이 JSON 바이트로 직접 인코딩
+     * streamId는 재연결 시 재전송 시작 위치로 사용됨
+     * diff 이벤트는 action이 추가되고, 삭제 이벤트는 message가 없음 (벤치마크에서 직접 호출하도록 package-private static)
+     */
+    static byte[] encodeChatPayload(JsonFactory jsonFactory, String streamId, String messageId, String senderId,
+                                    String message, String messageType, String timestamp, String seq,
+                                    String action) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128 + (message != null ? message.length() * 3 : 0));
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("streamId", streamId);
+            generator.writeStringField("messageId", messageId);
+            if (action != null) {
+                generator.writeStringField("action", action);
+            }
+            generator.writeStringField("senderId", senderId);
+            if (message != null) {
+                generator.writeStringField("message", message);
+            }
+            generator.writeStringField("messageType", messageType);
+            generator.writeStringField("timestamp", timestamp);
+            if (seq != null) {
+                generator.writeNumberField("seq", Long.parseLong(seq));
+            }
+            generator.writeEndObject();
         }
+        return out.toByteArray();
+    }
+
+    /**
+     * 알림 메시지를 사용자 알림함에 반영한 뒤 WebSocket 전송 (합쳐진 알림은 모아서 전송)
+     */
+    private void handleNotificationMessage(String streamId, Map<String, String> messageBody) {
+        notificationInboxService.deliver(
+                streamId,
+                messageBody.get("userId"),
+                messageBody.get("title"),
+                messageBody.get("content"),
+                messageBody.get("notificationType")
+        );
     }
 
     /**
      * 일반 메시지 처리 및 WebSocket 전송
      */
     private void handleGenericMessage(String streamKey, Map<String, String> messageBody) {
-        try {
-            String data = messageBody.get("data");
-            String timestamp = messageBody.get("timestamp");
-
-            // 스트림별 토픽으로 메시지 전송
-            messagingTemplate.convertAndSend(
-                    "/topic/stream/" + streamKey.replace(":", "/"),
-                    Map.of(
-                            "data", data,
-                            "timestamp", timestamp
-                    )
-            );
+        String data = messageBody.get("data");
+        String timestamp = messageBody.get("timestamp");
 
-            log.info("일반 메시지 WebSocket 전송 완료 - Stream: {}", streamKey);
+        // 스트림별 토픽으로 모든 노드에 전송
+        fanoutService.publishBroadcast(
+                "/topic/stream/" + streamKey.replace(":", "/"),
+                Map.of(
+                        "data", data,
+                        "timestamp", timestamp
+                )
+        );
 
-        } catch (Exception e) {
-            log.error("일반 메시지 WebSocket 전송 실패: ", e);
-        }
+        log.info("일반 메시지 WebSocket 전송 완료 - Stream: {}", streamKey);
     }
 } 
\ No newline at end of file
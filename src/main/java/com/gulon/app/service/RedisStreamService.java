@@ -2,50 +2,290 @@ package com.gulon.app.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gulon.app.config.StreamRetentionConfig;
+import com.gulon.app.dto.MessageDto;
+import com.gulon.app.entity.ChatMessage;
+import com.gulon.app.mapper.MessageMapper;
+import com.gulon.app.repository.ChatMessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
 import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.connection.stream.StreamRecords;
 import org.springframework.data.redis.connection.stream.StringRecord;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RedisStreamService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final ChatSequenceService sequenceService;
+    private final MessageDedupService dedupService;
+    private final ChatDeliveryMetrics deliveryMetrics;
+    private final MembershipCache membershipCache;
+    private final ReadCursorService readCursorService;
+    private final ChatMessageRepository messageRepository;
+    private final MessageMapper messageMapper;
+    private final StreamRetentionConfig retentionConfig;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // 채팅 스트림 키 접두사 - 실제 키는 파티션별 chat:stream:{n}
     public static final String CHAT_STREAM = "chat:stream";
     public static final String NOTIFICATION_STREAM = "notification:stream";
 
+    // 채팅 스트림 diff 엔트리의 action (일반 메시지 엔트리에는 action 필드가 없음)
+    public static final String ACTION_EDIT = "EDIT";
+    public static final String ACTION_DELETE = "DELETE";
+    public static final String ACTION_RESTORE = "RESTORE";
+
+    private static final Set<String> SEQUENCED_TYPES = Set.of("TEXT", "IMAGE", "FILE");
+
     /**
      * 채팅 메시지를 Redis Stream에 발행
+     * messageId는 DB 저장 시 메시지 publicId로 사용되어 재처리 시에도 중복 저장되지 않음
+     * 그룹별 순서 보장을 위해 그룹 ID로 선택된 파티션에 발행
+     * 저장 대상 메시지(TEXT/IMAGE/FILE)는 그룹 멤버 검증 후 읽음 처리용 그룹 내 순번(seq)을 부여하고,
+     * 발행 후 보낸 사람의 읽음 위치를 그 순번까지 올린다
      */
     public void publishChatMessage(String groupId, String senderId, String message, String messageType) {
+        publishChatMessage(groupId, senderId, message, messageType, null);
+    }
+
+    /**
+     * 클라이언트 메시지 ID를 포함한 채팅 메시지 발행
+     * 같은 ID의 재전송은 발행하지 않고 최초 발행 결과를 반환 (clientMessageId가 없으면 null 반환)
+     * 중복 제거 키가 만료된 뒤의 재전송은 DB에 저장된 메시지로 응답하고 다시 발행하지 않는다
+     * (저장 컨슈머가 아직 처리하지 않은 최초 메시지는 DB에 없으므로 만료 창은 저장 지연보다 길게 둔다)
+     */
+    public MessageDto.SendResponse publishChatMessage(String groupId, String senderId, String message,
+                                                      String messageType, String clientMessageId) {
+        // 저장되지 않을 메시지에 순번을 발급하면 모든 멤버의 안 읽은 수에 빈 번호가 남으므로 먼저 검증
+        boolean sequenced = SEQUENCED_TYPES.contains(messageType);
+        if (sequenced) {
+            validateContent(message);
+            validateSender(groupId, senderId);
+        }
+
+        // 응답을 구성할 메시지는 선점/순번 발급 전에 형식 검증 (응답 구성 중 실패하지 않도록)
+        String normalizedClientId = dedupService.normalize(clientMessageId);
+        UUID groupPublicId = null;
+        UUID senderPublicId = null;
+        ChatMessage.MessageType type = null;
+        if (normalizedClientId != null) {
+            groupPublicId = parseId(groupId);
+            senderPublicId = parseId(senderId);
+            type = parseType(messageType);
+        }
+
+        UUID messageId = UUID.randomUUID();
+        if (normalizedClientId != null) {
+            Optional<String> existing = dedupService.claim(senderId, normalizedClientId, messageId);
+            if (existing.isPresent()) {
+                return dedupService.toResponse(existing.get()).orElseGet(() -> {
+                    // 최초 요청이 아직 발행 중 - 선점한 messageId만 알려줌
+                    MessageDto.SendResponse pending = new MessageDto.SendResponse();
+                    dedupService.toPublicId(existing.get()).ifPresent(pending::setPublicId);
+                    pending.setClientMessageId(normalizedClientId);
+                    return pending;
+                });
+            }
+            Optional<MessageDto.SendResponse> persisted = findPersisted(senderPublicId, normalizedClientId);
+            if (persisted.isPresent()) {
+                log.info("만료된 중복 메시지 전송 - SenderId: {}, ClientMessageId: {}", senderId, normalizedClientId);
+                dedupService.complete(senderId, normalizedClientId, persisted.get());
+                return persisted.get();
+            }
+        }
+
+        // 발행(XADD)까지 실패하면 선점을 풀어 재전송이 다시 발행할 수 있게 함
+        long timestamp = System.currentTimeMillis();
+        Long seq = null;
+        MessageDto.SendResponse response;
+        String streamKey;
+        RecordId recordId;
         try {
-            Map<String, String> messageData = Map.of(
-                "groupId", groupId,
-                "senderId", senderId,
-                "message", message,
-                "messageType", messageType,
-                "timestamp", String.valueOf(System.currentTimeMillis())
-            );
+            Map<String, String> messageData = new LinkedHashMap<>();
+            messageData.put("messageId", messageId.toString());
+            messageData.put("groupId", groupId);
+            messageData.put("senderId", senderId);
+            messageData.put("message", message);
+            messageData.put("messageType", messageType);
+            messageData.put("timestamp", String.valueOf(timestamp));
+            if (sequenced) {
+                seq = sequenceService.next(UUID.fromString(groupId));
+                messageData.put("seq", String.valueOf(seq));
+            }
+            if (normalizedClientId != null) {
+                messageData.put("clientMessageId", normalizedClientId);
+            }
 
-            StringRecord record = StreamRecords.string(messageData)
-                    .withStreamKey(CHAT_STREAM);
+            // 재전송 시 반환할 응답은 발행 전에 구성 (발행 이후에는 실패로 선점이 풀리지 않도록)
+            response = normalizedClientId != null
+                    ? toSendResponse(messageId, groupPublicId, senderPublicId, message, type, timestamp, seq, normalizedClientId)
+                    : null;
 
-            RecordId messageId = redisTemplate.opsForStream().add(record);
-            log.info("채팅 메시지 발행 완료 - Stream: {}, MessageId: {}", CHAT_STREAM, messageId.getValue());
+            streamKey = streamPartitioner.streamKeyOf(groupId);
+            StringRecord record = StreamRecords.string(messageData)
+                    .withStreamKey(streamKey);
 
+            long publishStart = System.nanoTime();
+            recordId = add(record);
+            deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_PUBLISH, ChatDeliveryMetrics.STREAM_CHAT, publishStart);
         } catch (Exception e) {
+            if (normalizedClientId != null) {
+                dedupService.release(senderId, normalizedClientId);
+            }
             log.error("채팅 메시지 발행 실패: ", e);
             throw new RuntimeException("채팅 메시지 발행에 실패했습니다.", e);
         }
+
+        // 발행 이후의 실패는 선점을 유지 - 재전송은 발행 중 응답(messageId)을 받고 다시 발행되지 않음
+        log.info("채팅 메시지 발행 완료 - Stream: {}, MessageId: {}", streamKey,
+                recordId != null ? recordId.getValue() : null);
+        if (seq != null) {
+            try {
+                readCursorService.advance(groupPublicId != null ? groupPublicId : UUID.fromString(groupId),
+                        senderPublicId != null ? senderPublicId : UUID.fromString(senderId), seq);
+            } catch (Exception e) {
+                log.warn("보낸 사람 읽음 위치 갱신 실패 - GroupId: {}, SenderId: {}", groupId, senderId, e);
+            }
+        }
+
+        if (normalizedClientId == null) {
+            return null;
+        }
+        try {
+            dedupService.complete(senderId, normalizedClientId, response);
+        } catch (Exception e) {
+            log.warn("중복 제거 응답 저장 실패 - SenderId: {}, ClientMessageId: {}", senderId, normalizedClientId, e);
+        }
+        return response;
+    }
+
+    /**
+     * 스트림 발행 - 평소에는 StreamArchiver가 처리 완료 구간만 trim 하고, 길이 상한은 아카이버나 컨슈머 그룹이 멈췄을 때
+     * 메모리가 무한히 늘지 않도록 하는 안전장치 (상한에 닿으면 처리되지 않은 오래된 엔트리도 제거됨)
+     */
+    private RecordId add(StringRecord record) {
+        Long maxLength = retentionConfig.getSafetyMaxLength();
+        if (maxLength == null || maxLength <= 0) {
+            return redisTemplate.opsForStream().add(record);
+        }
+        return redisTemplate.opsForStream().add(record, XAddOptions.maxlen(maxLength).approximateTrimming(true));
+    }
+
+    /**
+     * 순번을 발급할 메시지의 보낸 사람 검증 - 그룹/사용자 ID 형식과 활성 멤버 여부
+     */
+    private void validateSender(String groupId, String senderId) {
+        if (!membershipCache.isActiveMember(parseId(groupId), parseId(senderId))) {
+            throw new IllegalArgumentException("그룹 멤버만 메시지를 전송할 수 있습니다.");
+        }
+    }
+
+    /**
+     * 저장할 수 없는 내용은 발행 전에 거부 - 발행 후 저장 컨슈머에서 걸러지면 실시간으로만 전달되고 순번이 빈다
+     */
+    private static void validateContent(String message) {
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("메시지 내용이 비어 있습니다.");
+        }
+        if (message.length() > ChatMessage.MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("메시지는 최대 " + ChatMessage.MAX_CONTENT_LENGTH + "자까지 보낼 수 있습니다.");
+        }
+    }
+
+    private static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("그룹 또는 사용자 ID 형식이 올바르지 않습니다.");
+        }
+    }
+
+    private static ChatMessage.MessageType parseType(String messageType) {
+        try {
+            return ChatMessage.MessageType.valueOf(messageType);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("지원하지 않는 메시지 타입입니다: " + messageType);
+        }
+    }
+
+    /**
+     * 이미 저장된 같은 클라이언트 메시지 ID의 메시지
+     */
+    private Optional<MessageDto.SendResponse> findPersisted(UUID senderPublicId, String clientMessageId) {
+        return messageRepository.findByUserPublicIdAndClientMessageId(senderPublicId, clientMessageId)
+                .map(saved -> {
+                    MessageDto.SendResponse response = messageMapper.toSendResponse(saved);
+                    response.setClientMessageId(clientMessageId);
+                    response.setMessage("메시지가 전송되었습니다.");
+                    return response;
+                });
+    }
+
+    private static MessageDto.SendResponse toSendResponse(UUID messageId, UUID groupPublicId, UUID senderPublicId,
+                                                          String message, ChatMessage.MessageType type, long timestamp,
+                                                          Long seq, String clientMessageId) {
+        MessageDto.SendResponse response = new MessageDto.SendResponse();
+        response.setPublicId(messageId);
+        response.setGroupPublicId(groupPublicId);
+        response.setSenderPublicId(senderPublicId);
+        response.setContent(message);
+        response.setType(type);
+        response.setSentAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+        response.setSeq(seq);
+        response.setClientMessageId(clientMessageId);
+        response.setMessage("메시지가 전송되었습니다.");
+        return response;
+    }
+
+    /**
+     * 메시지 수정/삭제/복원 이벤트를 그룹의 채팅 스트림에 발행
+     * 변경된 메시지 ID, action, 새 내용(삭제 시 제외)만 담은 diff 엔트리이며 저장 컨슈머는 건너뜀
+     */
+    public void publishMessageEvent(MessageDto.RealtimeMessage event) {
+        try {
+            String groupId = event.getGroupPublicId().toString();
+            Map<String, String> eventData = new HashMap<>();
+            eventData.put("messageId", event.getPublicId().toString());
+            eventData.put("groupId", groupId);
+            eventData.put("senderId", event.getSenderPublicId().toString());
+            eventData.put("action", event.getAction());
+            eventData.put("messageType", event.getType().name());
+            eventData.put("timestamp", String.valueOf(System.currentTimeMillis()));
+            if (!ACTION_DELETE.equals(event.getAction())) {
+                eventData.put("message", event.getContent());
+            }
+            if (event.getSeq() != null) {
+                eventData.put("seq", String.valueOf(event.getSeq()));
+            }
+
+            String streamKey = streamPartitioner.streamKeyOf(groupId);
+            long publishStart = System.nanoTime();
+            RecordId recordId = add(StreamRecords.string(eventData).withStreamKey(streamKey));
+            deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_PUBLISH, ChatDeliveryMetrics.STREAM_CHAT, publishStart);
+            log.info("메시지 {} 이벤트 발행 완료 - Stream: {}, MessageId: {}, RecordId: {}",
+                    event.getAction(), streamKey, event.getPublicId(), recordId.getValue());
+
+        } catch (Exception e) {
+            log.error("메시지 이벤트 발행 실패: ", e);
+            throw new RuntimeException("메시지 이벤트 발행에 실패했습니다.", e);
+        }
     }
 
     /**
@@ -64,7 +304,9 @@ public class RedisStreamService {
             StringRecord record = StreamRecords.string(notificationData)
                     .withStreamKey(NOTIFICATION_STREAM);
 
-            RecordId messageId = redisTemplate.opsForStream().add(record);
+            long publishStart = System.nanoTime();
+            RecordId messageId = add(record);
+            deliveryMetrics.recordHop(ChatDeliveryMetrics.HOP_PUBLISH, ChatDeliveryMetrics.STREAM_NOTIFICATION, publishStart);
             log.info("알림 메시지 발행 완료 - Stream: {}, MessageId: {}", NOTIFICATION_STREAM, messageId.getValue());
 
         } catch (Exception e) {
@@ -88,7 +330,7 @@ public class RedisStreamService {
             StringRecord record = StreamRecords.string(data)
                     .withStreamKey(streamKey);
 
-            RecordId messageId = redisTemplate.opsForStream().add(record);
+            RecordId messageId = add(record);
             log.info("메시지 발행 완료 - Stream: {}, MessageId: {}", streamKey, messageId.getValue());
 
         } catch (JsonProcessingException e) {
@@ -99,4 +341,4 @@ public class RedisStreamService {
             throw new RuntimeException("메시지 발행에 실패했습니다.", e);
         }
     }
-} 
\ No newline at end of file
+}
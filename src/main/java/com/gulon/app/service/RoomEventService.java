@@ -0,0 +1,188 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.ChatEventConfig;
+import com.gulon.app.dto.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 채팅방 임시 이벤트 (입력 중, 읽는 중인 페이지 등)
+ * 스트림/DB를 거치지 않고 노드 메모리에서 모은 뒤 짧은 주기마다 그룹별 한 번의 Pub/Sub 팬아웃으로 전송한다.
+ * - 이벤트는 그룹 채팅 토픽을 구독 중인 세션의 사용자만 보낼 수 있음
+ * - 같은 사용자/채팅방/종류의 같은 이벤트는 minInterval 안에 다시 받지 않음
+ * - 전송 주기 안에서는 사용자/종류별 최신 이벤트만 남김 (TYPING 후 STOP_TYPING이면 STOP_TYPING만 전송)
+ */
+@Service
+@Slf4j
+public class RoomEventService {
+
+    public static final String EVENT_DESTINATION_PREFIX = "/topic/chat/events/";
+
+    private final ClusterFanoutService fanoutService;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final ChatEventConfig eventConfig;
+    private final Counter accepted;
+    private final Counter dropped;
+
+    // 모든 접근은 synchronized
+    private final Map<String, Throttle> throttles = new HashMap<>(); // "{groupId}|{userId}|{category}" -> 마지막 수신 이벤트
+    private Map<String, Map<String, MessageDto.RoomEvent>> pending = new HashMap<>(); // groupId -> "{userId}|{category}" -> 최신 이벤트
+
+    public RoomEventService(ClusterFanoutService fanoutService, WebSocketSessionRegistry sessionRegistry,
+                            ChatEventConfig eventConfig, MeterRegistry meterRegistry) {
+        this.fanoutService = fanoutService;
+        this.sessionRegistry = sessionRegistry;
+        this.eventConfig = eventConfig;
+        this.accepted = Counter.builder("chat.room.events")
+                .tag("result", "accepted")
+                .description("수신한 채팅방 임시 이벤트 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("chat.room.events")
+                .tag("result", "dropped")
+                .description("수신한 채팅방 임시 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 세션에서 보낸 이벤트 접수 - 전송 대상이 되면 true, 권한이 없거나 제한에 걸리면 false
+     */
+    public boolean submit(String sessionId, String groupId, String type, String data) {
+        EventType eventType = EventType.from(type);
+        UUID groupPublicId = parseUuid(groupId);
+        if (groupPublicId == null) {
+            throw new IllegalArgumentException("잘못된 그룹 ID입니다: " + groupId);
+        }
+
+        String userId = sessionRegistry.userOf(sessionId);
+        if (userId == null || !sessionRegistry.isSubscribed(sessionId, groupId)) {
+            dropped.increment();
+            return false;
+        }
+        UUID userPublicId = parseUuid(userId);
+        if (userPublicId == null) {
+            dropped.increment();
+            return false;
+        }
+
+        String value = data != null && data.length() > eventConfig.getMaxDataLength()
+                ? data.substring(0, eventConfig.getMaxDataLength()) : data;
+        long now = System.currentTimeMillis();
+
+        MessageDto.RoomEvent event = new MessageDto.RoomEvent();
+        event.setUserPublicId(userPublicId);
+        event.setType(eventType.name());
+        event.setData(value);
+        event.setExpiresIn(eventType.category.equals(EventType.READING.category)
+                ? eventConfig.getReadingTtl() : eventConfig.getTypingTtl());
+        event.setTimestamp(now);
+
+        synchronized (this) {
+            String throttleKey = groupId + '|' + userId + '|' + eventType.category;
+            Throttle previous = throttles.get(throttleKey);
+            if (previous != null && previous.isSame(eventType, value)
+                    && now - previous.acceptedAt < eventConfig.getMinInterval()) {
+                dropped.increment();
+                return false;
+            }
+            throttles.put(throttleKey, new Throttle(eventType, value, now));
+            pending.computeIfAbsent(groupId, key -> new LinkedHashMap<>())
+                    .put(userId + '|' + eventType.category, event);
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * 모인 이벤트를 그룹별 한 번의 팬아웃으로 전송
+     */
+    @Scheduled(fixedDelayString = "${chat.events.flush-interval:250}")
+    public void flush() {
+        Map<String, Map<String, MessageDto.RoomEvent>> batch;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                batch = pending;
+                pending = new HashMap<>();
+            } else {
+                batch = Map.of();
+            }
+            Iterator<Throttle> iterator = throttles.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().acceptedAt > eventConfig.getThrottleExpiry()) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        batch.forEach((groupId, events) -> {
+            MessageDto.RoomEventBatch payload = new MessageDto.RoomEventBatch();
+            payload.setGroupPublicId(UUID.fromString(groupId));
+            payload.setEvents(new ArrayList<>(events.values()));
+            payload.setTimestamp(now);
+            try {
+                fanoutService.publishToGroup(groupId, EVENT_DESTINATION_PREFIX + groupId, payload);
+            } catch (Exception e) {
+                // 임시 이벤트는 재전송하지 않음
+                log.warn("채팅방 이벤트 전송 실패 - GroupId: {}, 이벤트: {}건", groupId, events.size(), e);
+            }
+        });
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return value == null ? null : UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 이벤트 종류 - 같은 category의 이벤트는 서로 덮어씀
+     */
+    public enum EventType {
+        TYPING("typing"),
+        STOP_TYPING("typing"),
+        READING("reading");
+
+        private final String category;
+
+        EventType(String category) {
+            this.category = category;
+        }
+
+        static EventType from(String type) {
+            try {
+                return EventType.valueOf(type);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("지원하지 않는 이벤트 종류입니다: " + type);
+            }
+        }
+    }
+
+    private static class Throttle {
+        private final EventType type;
+        private final String data;
+        private final long acceptedAt;
+
+        Throttle(EventType type, String data, long acceptedAt) {
+            this.type = type;
+            this.data = data;
+            this.acceptedAt = acceptedAt;
+        }
+
+        boolean isSame(EventType otherType, String otherData) {
+            return type == otherType && Objects.equals(data, otherData);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.gulon.app.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gulon.app.config.StreamRetentionConfig;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 스트림 아카이브 세그먼트 저장소
+ * trim 대상 구간을 {archiveDir}/{streamKey}/{firstId}_{lastId}.jsonl.gz 파일로 보관하고,
+ * 히스토리 조회 시 엔트리 ID 기준으로 다시 읽는다.
+ * 저장 위치는 각 노드의 로컬 파일 시스템이며, 아카이브는 락을 잡은 아무 노드에서나 실행되므로
+ * 여러 노드로 운영할 때는 archiveDir에 공유 볼륨을 마운트해야 모든 노드에서 같은 히스토리를 조회할 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamArchive {
+
+    private static final String SEGMENT_SUFFIX = ".jsonl.gz";
+    private static final TypeReference<Map<String, Object>> LINE_TYPE = new TypeReference<>() {};
+
+    private final StreamRetentionConfig retentionConfig;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 엔트리 목록(ID 오름차순)을 하나의 세그먼트로 저장
+     * 같은 구간을 다시 저장하면 덮어쓰므로 trim 전에 실패해 재시도해도 중복 세그먼트가 생기지 않음
+     */
+    public void writeSegment(String streamKey, List<MapRecord<String, String, String>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        String firstId = records.get(0).getId().getValue();
+        String lastId = records.get(records.size() - 1).getId().getValue();
+        Path directory = streamDirectory(streamKey);
+        Path segment = directory.resolve(firstId + "_" + lastId + SEGMENT_SUFFIX);
+
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "segment", ".tmp");
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                for (MapRecord<String, String, String> record : records) {
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("id", record.getId().getValue());
+                    line.put("fields", record.getValue());
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스트림 아카이브 저장 실패: " + segment, e);
+        }
+
+        log.info("스트림 아카이브 세그먼트 저장 - Stream: {}, Range: {} ~ {}, 엔트리: {}건",
+                streamKey, firstId, lastId, records.size());
+    }
+
+    /**
+     * beforeId 이전 엔트리 중 조건에 맞는 것을 최신순으로 최대 limit건 조회 (beforeId가 null이면 가장 최근부터)
+     * 한 번에 maxSegmentsPerRead개 세그먼트까지만 읽고, 다 읽지 못했으면 이어서 조회할 위치(resumeBefore)를 함께 반환
+     */
+    public ReadResult readBefore(String streamKey, String beforeId,
+                                 Predicate<Map<String, String>> filter, int limit) {
+        List<ArchivedEntry> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>(); // 재시도로 구간이 겹친 세그먼트의 중복 제거
+        int scanned = 0;
+        String scannedFrom = null; // 읽은 세그먼트 중 가장 이른 firstId
+        for (Segment segment : listSegments(streamKey, (a, b) -> compareIds(b.lastId, a.lastId))) {
+            if (beforeId != null && compareIds(segment.firstId, beforeId) >= 0) {
+                continue;
+            }
+            if (scanned++ >= retentionConfig.getMaxSegmentsPerRead()) {
+                // 읽은 세그먼트 구간은 모두 확인했으므로 그 앞부터 이어서 조회
+                return new ReadResult(result, scannedFrom);
+            }
+            List<ArchivedEntry> entries = readSegment(segment.path);
+            for (int i = entries.size() - 1; i >= 0 && result.size() < limit; i--) {
+                ArchivedEntry entry = entries.get(i);
+                if ((beforeId == null || compareIds(entry.id, beforeId) < 0) && filter.test(entry.fields)
+                        && seen.add(entry.id)) {
+                    result.add(entry);
+                }
+            }
+            if (result.size() >= limit) {
+                break;
+            }
+            scannedFrom = scannedFrom == null || compareIds(segment.firstId, scannedFrom) < 0 ? segment.firstId : scannedFrom;
+        }
+        return new ReadResult(result, null);
+    }
+
+    /**
+     * 아카이브가 존재하는 스트림 키 중 keyPrefix로 시작하는 것 (파티션 수가 바뀐 이전 파티션 포함)
+     */
+    public List<String> listStreamKeys(String keyPrefix) {
+        Path root = Paths.get(retentionConfig.getArchiveDir());
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(root)) {
+            return paths.filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString().replace('_', ':'))
+                    .filter(streamKey -> streamKey.startsWith(keyPrefix))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("스트림 아카이브 목록 조회 실패: " + root, e);
+        }
+    }
+
+    /**
+     * 두 스트림 엔트리 ID ("밀리초-순번") 비교
+     */
+    public static int compareIds(String left, String right) {
+        long[] l = parseId(left);
+        long[] r = parseId(right);
+        int compared = Long.compare(l[0], r[0]);
+        return compared != 0 ? compared : Long.compare(l[1], r[1]);
+    }
+
+    /**
+     * 바로 다음 엔트리 ID (exclusive 범위 조회의 시작 ID)
+     */
+    public static String nextId(String id) {
+        long[] parsed = parseId(id);
+        return parsed[0] + "-" + (parsed[1] + 1);
+    }
+
+    /**
+     * 바로 이전 엔트리 ID (역순 범위 조회의 다음 상한 ID)
+     */
+    public static String previousId(String id) {
+        long[] parsed = parseId(id);
+        return parsed[1] > 0 ? parsed[0] + "-" + (parsed[1] - 1) : (parsed[0] - 1) + "-" + Long.MAX_VALUE;
+    }
+
+    static long[] parseId(String id) {
+        int separator = id.indexOf('-');
+        if (separator < 0) {
+            return new long[]{Long.parseLong(id), 0};
+        }
+        return new long[]{Long.parseLong(id.substring(0, separator)), Long.parseLong(id.substring(separator + 1))};
+    }
+
+    private List<Segment> listSegments(String streamKey, Comparator<Segment> order) {
+        Path directory = streamDirectory(streamKey);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(Segment::parse)
+                    .filter(segment -> segment != null)
+                    .sorted(order)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("스트림 아카이브 목록 조회 실패: " + directory, e);
+        }
+    }
+
+    private List<ArchivedEntry> readSegment(Path path) {
+        List<ArchivedEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> parsed = objectMapper.readValue(line, LINE_TYPE);
+                Map<String, String> fields = new LinkedHashMap<>();
+                ((Map<?, ?>) parsed.get("fields")).forEach((key, value) ->
+                        fields.put(String.valueOf(key), String.valueOf(value)));
+                entries.add(new ArchivedEntry(String.valueOf(parsed.get("id")), fields));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("스트림 아카이브 읽기 실패: " + path, e);
+        }
+        return entries;
+    }
+
+    private Path streamDirectory(String streamKey) {
+        return Paths.get(retentionConfig.getArchiveDir(), streamKey.replace(':', '_'));
+    }
+
+    /**
+     * 세그먼트 조회 결과 - resumeBefore가 있으면 그 이전 구간은 아직 읽지 않음
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class ReadResult {
+        private final List<ArchivedEntry> entries;
+        private final String resumeBefore;
+    }
+
+    /**
+     * 아카이브된 스트림 엔트리
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class ArchivedEntry {
+        private final String id;
+        private final Map<String, String> fields;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Segment {
+        private final Path path;
+        private final String firstId;
+        private final String lastId;
+
+        static Segment parse(Path path) {
+            String name = path.getFileName().toString();
+            if (!name.endsWith(SEGMENT_SUFFIX)) {
+                return null;
+            }
+            String[] range = name.substring(0, name.length() - SEGMENT_SUFFIX.length()).split("_");
+            if (range.length != 2) {
+                return null;
+            }
+            return new Segment(path, range[0], range[1]);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.RedisStreamConfig;
+import com.gulon.app.config.StreamRetentionConfig;
+import io.lettuce.core.XTrimArgs;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 스트림 보존 기간 관리
+ * 모든 컨슈머 그룹이 처리를 끝냈고 보존 기간이 지난 엔트리를 세그먼트 파일로 옮긴 뒤 XTRIM MINID로 제거한다.
+ * 평소에는 이 작업으로만 trim 되므로 처리되지 않은 엔트리가 사라지지 않는다.
+ * 컨슈머나 아카이버가 멈추면 스트림이 계속 커지므로 chat.stream.lag/pending 지표로 감시하고,
+ * 발행 시 safetyMaxLength(MAXLEN ~)를 넉넉하게 두어 메모리 상한으로 삼는다 (상한에 닿은 구간은 아카이브되지 않음).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamArchiver {
+
+    private static final String LOCK_KEY_PREFIX = "stream:archive:lock:";
+    private static final long COMMAND_TIMEOUT_SECONDS = 5;
+
+    // 락을 잡은 실행만 해제 (실행이 락 만료보다 길어져 다른 노드가 잡은 락은 지우지 않음)
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end\n" +
+            "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final StreamArchive streamArchive;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final StreamRetentionConfig retentionConfig;
+    private final RedisStreamConfig streamConfig;
+
+    @Scheduled(fixedDelayString = "${redis.stream.retention.archive-interval:60000}")
+    public void archiveExpiredEntries() {
+        List<String> streamKeys = new ArrayList<>(streamPartitioner.readStreamKeys());
+        streamKeys.add(RedisStreamService.NOTIFICATION_STREAM);
+
+        for (String streamKey : streamKeys) {
+            // 여러 노드가 같은 구간을 중복 아카이브하지 않도록 스트림별 락
+            String lockKey = LOCK_KEY_PREFIX + streamKey;
+            String token = streamConfig.getConsumerName() + ":" + UUID.randomUUID();
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(
+                    lockKey, token, Duration.ofMillis(retentionConfig.getArchiveInterval()));
+            if (!Boolean.TRUE.equals(locked)) {
+                continue;
+            }
+            try {
+                archive(streamKey);
+            } catch (Exception e) {
+                log.error("스트림 아카이브 실패 - Stream: {}", streamKey, e);
+            } finally {
+                redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+            }
+        }
+    }
+
+    private void archive(String streamKey) {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(streamKey))) {
+            return;
+        }
+
+        String cutoff = archiveCutoff(streamKey);
+        int archived = 0;
+        for (int run = 0; run < retentionConfig.getMaxSegmentsPerRun(); run++) {
+            Range<String> range = Range.of(Range.Bound.unbounded(), Range.Bound.inclusive(cutoff));
+            List<MapRecord<String, String, String>> records = redisTemplate.<String, String>opsForStream()
+                    .range(streamKey, range, Limit.limit().count(retentionConfig.getSegmentSize()))
+                    .stream()
+                    .filter(record -> StreamArchive.compareIds(record.getId().getValue(), cutoff) < 0)
+                    .collect(Collectors.toList());
+            if (records.isEmpty()) {
+                break;
+            }
+
+            // 파일 저장이 끝난 구간만 trim - 저장 후 trim 전에 실패하면 다음 실행에서 같은 구간을 다시 저장
+            if (retentionConfig.isArchiveEnabled()) {
+                streamArchive.writeSegment(streamKey, records);
+            }
+            trimBefore(streamKey, StreamArchive.nextId(records.get(records.size() - 1).getId().getValue()));
+            archived += records.size();
+
+            if (records.size() < retentionConfig.getSegmentSize()) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("스트림 아카이브 완료 - Stream: {}, Cutoff: {}, 엔트리: {}건", streamKey, cutoff, archived);
+        }
+    }
+
+    /**
+     * 아카이브 가능한 상한 ID - 보존 기간과 각 컨슈머 그룹의 전달/ACK 위치 중 가장 이른 값
+     */
+    private String archiveCutoff(String streamKey) {
+        String cutoff = (System.currentTimeMillis() - retentionConfig.getRetention()) + "-0";
+
+        StreamInfo.XInfoGroups groups = redisTemplate.opsForStream().groups(streamKey);
+        for (StreamInfo.XInfoGroup group : groups) {
+            cutoff = min(cutoff, group.lastDeliveredId());
+            if (group.pendingCount() > 0) {
+                PendingMessagesSummary pending = redisTemplate.opsForStream().pending(streamKey, group.groupName());
+                if (pending != null && pending.getTotalPendingMessages() > 0) {
+                    cutoff = min(cutoff, pending.minMessageId());
+                }
+            }
+        }
+        return cutoff;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void trimBefore(String streamKey, String minId) {
+        byte[] key = streamKey.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<Long>) connection -> {
+            RedisStreamAsyncCommands<byte[], byte[]> commands =
+                    (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            try {
+                return commands.xtrim(key, XTrimArgs.Builder.minId(minId)).get(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("XTRIM 실행 실패: " + streamKey, e);
+            }
+        });
+    }
+
+    private static String min(String left, String right) {
+        return StreamArchive.compareIds(left, right) <= 0 ? left : right;
+    }
+}
@@ -0,0 +1,267 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.StreamRetryConfig;
+import com.gulon.app.dto.StreamDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 처리에 실패한 스트림 엔트리의 DLQ(chat:stream:dlq) 관리
+ * 재시도를 모두 소진한 엔트리를 원래 필드와 실패 정보(dlq.* 필드)를 담아 DLQ 스트림으로 옮기고,
+ * 운영자가 조회한 뒤 원래 스트림으로 다시 발행(re-drive)하거나 삭제할 수 있게 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreamDeadLetterService {
+
+    public static final String DEAD_LETTER_STREAM = "chat:stream:dlq";
+
+    private static final String FIELD_PREFIX = "dlq.";
+    private static final String FIELD_STREAM = FIELD_PREFIX + "stream";
+    private static final String FIELD_ID = FIELD_PREFIX + "id";
+    private static final String FIELD_REASON = FIELD_PREFIX + "reason";
+    private static final String FIELD_ATTEMPTS = FIELD_PREFIX + "attempts";
+    private static final String FIELD_FAILED_AT = FIELD_PREFIX + "failedAt";
+    private static final int MAX_REASON_LENGTH = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChatStreamPartitioner streamPartitioner;
+    private final StreamRetryConfig retryConfig;
+
+    /**
+     * 실패한 엔트리를 DLQ로 이동 - 호출자는 성공 후 원래 엔트리를 ACK
+     */
+    public RecordId deadLetter(MapRecord<String, String, String> record, int attempts, Throwable cause) {
+        Map<String, String> fields = new LinkedHashMap<>(record.getValue());
+        fields.put(FIELD_STREAM, record.getStream());
+        fields.put(FIELD_ID, record.getId().getValue());
+        fields.put(FIELD_REASON, reasonOf(cause));
+        fields.put(FIELD_ATTEMPTS, String.valueOf(attempts));
+        fields.put(FIELD_FAILED_AT, String.valueOf(System.currentTimeMillis()));
+
+        RecordId deadLetterId = redisTemplate.opsForStream().add(
+                StreamRecords.string(fields).withStreamKey(DEAD_LETTER_STREAM),
+                XAddOptions.maxlen(retryConfig.getDeadLetterMaxLength()).approximateTrimming(true));
+
+        log.warn("스트림 엔트리 DLQ 이동 - Stream: {}, MessageId: {}, DlqId: {}, 시도: {}회, 원인: {}",
+                record.getStream(), record.getId(), deadLetterId, attempts, fields.get(FIELD_REASON));
+        return deadLetterId;
+    }
+
+    /**
+     * DLQ 조회 (오래된 순) - stream이 있으면 원래 스트림 키가 일치하는 엔트리만
+     */
+    public StreamDto.DeadLetterPage list(String after, int size, String stream) {
+        String afterId = validId(after);
+        int pageSize = Math.max(1, Math.min(size, retryConfig.getRedriveBatchSize()));
+
+        List<MapRecord<String, String, String>> records = read(afterId, pageSize + 1, stream);
+        boolean hasNext = records.size() > pageSize;
+        List<MapRecord<String, String, String>> page = hasNext ? records.subList(0, pageSize) : records;
+
+        StreamDto.DeadLetterPage response = new StreamDto.DeadLetterPage();
+        response.setEntries(page.stream().map(StreamDeadLetterService::toDeadLetter).collect(Collectors.toList()));
+        response.setTotalCount(size());
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            response.setNextAfter(page.get(page.size() - 1).getId().getValue());
+        }
+        return response;
+    }
+
+    /**
+     * DLQ 엔트리를 원래 스트림에 새 엔트리로 다시 발행한 뒤 DLQ에서 삭제
+     * 채팅 엔트리는 현재 파티션 수 기준으로 그룹의 파티션을 다시 계산해 발행
+     */
+    public StreamDto.RedriveResult redrive(StreamDto.RedriveRequest request) {
+        Selection selection = select(request);
+        int processed = 0;
+        for (MapRecord<String, String, String> record : selection.records) {
+            Map<String, String> fields = record.getValue();
+            String targetStream = targetStreamOf(fields);
+            if (targetStream == null) {
+                log.warn("원래 스트림을 알 수 없는 DLQ 엔트리 - DlqId: {}", record.getId());
+                continue;
+            }
+
+            Map<String, String> original = originalFields(fields);
+            RecordId newId = redisTemplate.opsForStream().add(
+                    StreamRecords.string(original).withStreamKey(targetStream));
+            redisTemplate.opsForStream().delete(DEAD_LETTER_STREAM, record.getId());
+            processed++;
+
+            log.info("DLQ 엔트리 재처리 - DlqId: {}, Stream: {}, 원래 ID: {}, 새 ID: {}",
+                    record.getId(), targetStream, fields.get(FIELD_ID), newId);
+        }
+        return result(processed, selection.notFound);
+    }
+
+    /**
+     * DLQ 엔트리 삭제 (재처리하지 않고 폐기)
+     */
+    public StreamDto.RedriveResult delete(StreamDto.RedriveRequest request) {
+        Selection selection = select(request);
+        RecordId[] ids = selection.records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        long deleted = ids.length == 0 ? 0 : redisTemplate.opsForStream().delete(DEAD_LETTER_STREAM, ids);
+        log.info("DLQ 엔트리 삭제 - {}건", deleted);
+        return result((int) deleted, selection.notFound);
+    }
+
+    public long size() {
+        Long size = redisTemplate.opsForStream().size(DEAD_LETTER_STREAM);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * 요청의 ids 또는 (stream, limit) 조건으로 대상 엔트리 조회
+     */
+    private Selection select(StreamDto.RedriveRequest request) {
+        int limit = request.getLimit() != null
+                ? Math.max(1, Math.min(request.getLimit(), retryConfig.getRedriveBatchSize()))
+                : retryConfig.getRedriveBatchSize();
+
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            return new Selection(read(null, limit, request.getStream()), 0);
+        }
+
+        if (request.getIds().size() > retryConfig.getRedriveBatchSize()) {
+            throw new IllegalArgumentException("한 번에 처리할 수 있는 DLQ 엔트리는 최대 "
+                    + retryConfig.getRedriveBatchSize() + "건입니다.");
+        }
+        List<MapRecord<String, String, String>> records = new ArrayList<>(request.getIds().size());
+        int notFound = 0;
+        for (String id : request.getIds()) {
+            String validId = validId(id);
+            if (validId == null) {
+                notFound++;
+                continue;
+            }
+            List<MapRecord<String, String, String>> found = redisTemplate.<String, String>opsForStream()
+                    .range(DEAD_LETTER_STREAM, Range.closed(validId, validId));
+            if (found == null || found.isEmpty()) {
+                notFound++;
+            } else {
+                records.add(found.get(0));
+            }
+        }
+        return new Selection(records, notFound);
+    }
+
+    /**
+     * afterId 이후 엔트리를 최대 count건 조회 (stream 필터가 있으면 일치하는 것만 모음)
+     */
+    private List<MapRecord<String, String, String>> read(String afterId, int count, String stream) {
+        List<MapRecord<String, String, String>> result = new ArrayList<>(count);
+        String cursor = afterId;
+        while (result.size() < count) {
+            Range<String> range = cursor == null
+                    ? Range.unbounded()
+                    : Range.of(Range.Bound.inclusive(StreamArchive.nextId(cursor)), Range.Bound.unbounded());
+            int batch = retryConfig.getRedriveBatchSize();
+            List<MapRecord<String, String, String>> records = redisTemplate.<String, String>opsForStream()
+                    .range(DEAD_LETTER_STREAM, range, Limit.limit().count(batch));
+            if (records == null || records.isEmpty()) {
+                break;
+            }
+            for (MapRecord<String, String, String> record : records) {
+                if (result.size() < count
+                        && (stream == null || stream.isBlank() || stream.equals(record.getValue().get(FIELD_STREAM)))) {
+                    result.add(record);
+                }
+            }
+            if (records.size() < batch) {
+                break;
+            }
+            cursor = records.get(records.size() - 1).getId().getValue();
+        }
+        return result;
+    }
+
+    private String targetStreamOf(Map<String, String> fields) {
+        String stream = fields.get(FIELD_STREAM);
+        if (stream != null && streamPartitioner.isChatStream(stream) && fields.get("groupId") != null) {
+            return streamPartitioner.streamKeyOf(fields.get("groupId"));
+        }
+        return stream;
+    }
+
+    private StreamDto.RedriveResult result(int processed, int notFound) {
+        StreamDto.RedriveResult result = new StreamDto.RedriveResult();
+        result.setProcessed(processed);
+        result.setNotFound(notFound);
+        result.setRemaining(size());
+        return result;
+    }
+
+    private static Map<String, String> originalFields(Map<String, String> fields) {
+        Map<String, String> original = new LinkedHashMap<>();
+        fields.forEach((field, value) -> {
+            if (!field.startsWith(FIELD_PREFIX)) {
+                original.put(field, value);
+            }
+        });
+        return original;
+    }
+
+    private static StreamDto.DeadLetter toDeadLetter(MapRecord<String, String, String> record) {
+        Map<String, String> fields = record.getValue();
+        StreamDto.DeadLetter deadLetter = new StreamDto.DeadLetter();
+        deadLetter.setId(record.getId().getValue());
+        deadLetter.setStream(fields.get(FIELD_STREAM));
+        deadLetter.setOriginalId(fields.get(FIELD_ID));
+        deadLetter.setReason(fields.get(FIELD_REASON));
+        deadLetter.setAttempts(Integer.parseInt(fields.getOrDefault(FIELD_ATTEMPTS, "0")));
+        String failedAt = fields.get(FIELD_FAILED_AT);
+        if (failedAt != null) {
+            deadLetter.setFailedAt(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(failedAt)), ZoneId.systemDefault()));
+        }
+        deadLetter.setFields(originalFields(fields));
+        return deadLetter;
+    }
+
+    private static String reasonOf(Throwable cause) {
+        String reason = cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+        return reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+
+    private static String validId(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        try {
+            StreamArchive.parseId(id);
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 스트림 ID입니다: " + id);
+        }
+    }
+
+    private static class Selection {
+        private final List<MapRecord<String, String, String>> records;
+        private final int notFound;
+
+        Selection(List<MapRecord<String, String, String>> records, int notFound) {
+            this.records = records;
+            this.notFound = notFound;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.StreamDispatchConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키(그룹 ID 등)별 순서를 유지하는 병렬 전송 실행기
+ * 키를 해시해 단일 스레드 lane 중 하나에 배정하므로 같은 키의 작업은 제출 순서대로 실행되고,
+ * 다른 lane의 작업은 병렬로 실행되어 느린 그룹이 다른 그룹의 전송을 막지 않는다.
+ * lane 큐가 가득 차면 제출 스레드가 자리가 날 때까지 기다리므로 (스트림 폴링 backpressure) 엔트리를 건너뛰어
+ * 같은 키의 순서가 뒤바뀌지 않는다. 거부는 종료 중일 때만 발생한다.
+ */
+@Component
+@Slf4j
+public class StreamDispatchExecutor implements DisposableBean {
+
+    private final StreamDispatchConfig dispatchConfig;
+    private final List<ThreadPoolExecutor> lanes;
+    private final Counter rejected;
+    private final Counter blocked;
+
+    public StreamDispatchExecutor(StreamDispatchConfig dispatchConfig, MeterRegistry meterRegistry) {
+        this.dispatchConfig = dispatchConfig;
+        this.rejected = Counter.builder("chat.dispatch.rejected")
+                .description("lane이 종료되었거나 큐가 가득 차 거부된 작업 수")
+                .register(meterRegistry);
+        this.blocked = Counter.builder("chat.dispatch.blocked")
+                .description("lane 큐가 가득 차 제출 스레드가 offerTimeout 이상 대기한 횟수")
+                .register(meterRegistry);
+
+        int laneCount = Math.max(1, dispatchConfig.getLanes());
+        this.lanes = new ArrayList<>(laneCount);
+        for (int index = 0; index < laneCount; index++) {
+            ThreadPoolExecutor lane = newLane(index);
+            lanes.add(lane);
+
+            String laneTag = String.valueOf(index);
+            Gauge.builder("chat.dispatch.lane.queue", lane, executor -> executor.getQueue().size())
+                    .tag("lane", laneTag)
+                    .description("lane별 대기 중인 작업 수")
+                    .register(meterRegistry);
+            Gauge.builder("chat.dispatch.lane.lag", lane, StreamDispatchExecutor::lagMillis)
+                    .tag("lane", laneTag)
+                    .description("lane별 가장 오래 대기 중인 작업의 대기 시간 (밀리초)")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * key가 배정된 lane에 작업 제출 - 같은 key의 작업은 제출 순서대로 실행되며, 큐가 가득 차면 자리가 날 때까지 대기
+     *
+     * @throws RejectedExecutionException lane이 종료된 경우
+     */
+    public void execute(String key, Runnable task) {
+        ThreadPoolExecutor lane = lanes.get(laneOf(key));
+        lane.execute(new LaneTask(task));
+    }
+
+    /**
+     * 대기하지 않고 제출 - 큐가 가득 찼거나 종료 중이면 false (스케줄러 스레드 등 막히면 안 되는 곳에서 사용)
+     */
+    public boolean tryExecute(String key, Runnable task) {
+        ThreadPoolExecutor lane = lanes.get(laneOf(key));
+        if (lane.isShutdown() || !lane.getQueue().offer(new LaneTask(task))) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public int laneOf(String key) {
+        return Math.floorMod(key != null ? key.hashCode() : 0, lanes.size());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+        long deadline = System.currentTimeMillis() + dispatchConfig.getShutdownTimeout();
+        for (ThreadPoolExecutor lane : lanes) {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            if (!lane.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                // 처리하지 못한 엔트리는 ACK 되지 않았으므로 pending 회수 대상으로 남음
+                log.warn("전송 lane 종료 대기 시간 초과 - 남은 작업: {}건", lane.shutdownNow().size());
+            }
+        }
+        log.info("스트림 전송 lane이 종료되었습니다.");
+    }
+
+    private ThreadPoolExecutor newLane(int index) {
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(dispatchConfig.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-dispatch-" + index);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                this::offerOrReject);
+        lane.prestartAllCoreThreads();
+        return lane;
+    }
+
+    /**
+     * 큐가 가득 찬 경우 자리가 날 때까지 제출 스레드를 대기시킴 (offerTimeout마다 종료 여부 확인 및 경고)
+     * lane 스레드가 미리 시작되어 있으므로 큐에 직접 넣어도 실행됨
+     */
+    private void offerOrReject(Runnable task, ThreadPoolExecutor lane) {
+        long waitStart = System.currentTimeMillis();
+        while (!lane.isShutdown()) {
+            try {
+                if (lane.getQueue().offer(task, dispatchConfig.getOfferTimeout(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            blocked.increment();
+            log.warn("전송 lane 큐가 가득 차 대기 중 - 대기: {}ms", System.currentTimeMillis() - waitStart);
+        }
+        rejected.increment();
+        throw new RejectedExecutionException("전송 lane이 종료되었습니다.");
+    }
+
+    private static double lagMillis(ThreadPoolExecutor lane) {
+        BlockingQueue<Runnable> queue = lane.getQueue();
+        Runnable head = queue.peek();
+        return head instanceof LaneTask task ? System.currentTimeMillis() - task.enqueuedAt : 0;
+    }
+
+    /**
+     * 큐에 들어간 시각을 기록해 lane 지연 시간 계산에 사용
+     */
+    private static class LaneTask implements Runnable {
+        private final Runnable task;
+        private final long enqueuedAt = System.currentTimeMillis();
+
+        LaneTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("전송 lane 작업 실패", e);
+            }
+        }
+    }
+}
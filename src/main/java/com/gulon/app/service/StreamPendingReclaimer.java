@@ -0,0 +1,124 @@
+package com.gulon.app.service;
+
+import com.gulon.app.config.RedisStreamConfig;
+import io.lettuce.core.XAutoClaimArgs;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컨슈머 그룹의 pending 엔트리 회수
+ * 장애로 ACK 하지 못한 채 일정 시간 이상 방치된 엔트리를 XAUTOCLAIM으로 현재 노드의 컨슈머에게 넘긴다.
+ * 스트림/그룹별로 XAUTOCLAIM이 반환한 다음 시작 ID를 이어서 사용해, pending 목록이 길어도 앞쪽만 반복해 훑지 않고
+ * 끝까지 순회한 뒤(0-0 반환) 처음부터 다시 훑는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamPendingReclaimer {
+
+    private static final long COMMAND_TIMEOUT_SECONDS = 5;
+    private static final String START_ID = "0-0";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisStreamConfig streamConfig;
+
+    private final Map<String, String> cursors = new ConcurrentHashMap<>(); // "{stream}|{group}" -> 다음 XAUTOCLAIM 시작 ID
+
+    /**
+     * claimMinIdle 이상 방치된 엔트리를 consumerName으로 회수해 반환
+     */
+    public List<MapRecord<String, String, String>> claimIdle(String streamKey, String consumerGroup, String consumerName) {
+        return claimIdle(streamKey, consumerGroup, consumerName, streamConfig.getClaimBatchSize());
+    }
+
+    /**
+     * 최대 count건까지 회수 (claimBatchSize를 넘지 않음)
+     */
+    @SuppressWarnings("unchecked")
+    public List<MapRecord<String, String, String>> claimIdle(String streamKey, String consumerGroup, String consumerName,
+                                                             int count) {
+        byte[] key = streamKey.getBytes(StandardCharsets.UTF_8);
+        String cursorKey = streamKey + '|' + consumerGroup;
+        XAutoClaimArgs<byte[]> args = new XAutoClaimArgs<byte[]>()
+                .consumer(io.lettuce.core.Consumer.from(
+                        consumerGroup.getBytes(StandardCharsets.UTF_8),
+                        consumerName.getBytes(StandardCharsets.UTF_8)))
+                .minIdleTime(Duration.ofMillis(streamConfig.getClaimMinIdle()))
+                .startId(cursors.getOrDefault(cursorKey, START_ID))
+                .count(Math.min(count, streamConfig.getClaimBatchSize()));
+
+        ClaimedMessages<byte[], byte[]> claimed = redisTemplate.execute((RedisCallback<ClaimedMessages<byte[], byte[]>>) connection -> {
+            RedisStreamAsyncCommands<byte[], byte[]> commands =
+                    (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            try {
+                return commands.xautoclaim(key, args).get(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("XAUTOCLAIM 실행 실패: " + streamKey, e);
+            }
+        });
+
+        if (claimed == null) {
+            return List.of();
+        }
+        // 0-0이면 pending 목록 끝까지 순회한 것이므로 다음에는 처음부터
+        if (claimed.getId() == null || START_ID.equals(claimed.getId())) {
+            cursors.remove(cursorKey);
+        } else {
+            cursors.put(cursorKey, claimed.getId());
+        }
+        if (claimed.getMessages().isEmpty()) {
+            return List.of();
+        }
+
+        List<MapRecord<String, String, String>> records = new ArrayList<>(claimed.getMessages().size());
+        claimed.getMessages().forEach(message -> {
+            // 회수 시점에 이미 삭제(trim)된 엔트리는 본문이 비어 있음
+            if (message.getBody() == null || message.getBody().isEmpty()) {
+                redisTemplate.opsForStream().acknowledge(streamKey, consumerGroup, message.getId());
+                return;
+            }
+            Map<String, String> body = new LinkedHashMap<>();
+            message.getBody().forEach((field, value) -> body.put(
+                    new String(field, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8)));
+            records.add(StreamRecords.newRecord()
+                    .in(streamKey)
+                    .withId(RecordId.of(message.getId()))
+                    .ofMap(body));
+        });
+
+        log.info("pending 엔트리 회수 - Stream: {}, Group: {}, Consumer: {}, 회수: {}건",
+                streamKey, consumerGroup, consumerName, records.size());
+        return records;
+    }
+
+    /**
+     * 아직 처리 중인 엔트리의 idle 시간을 0으로 갱신 (XCLAIM JUSTID) - 로컬 대기가 길어져도 다른 노드가 회수하지 않도록
+     */
+    public void touch(String streamKey, String consumerGroup, String consumerName, List<String> ids) {
+        byte[] key = streamKey.getBytes(StandardCharsets.UTF_8);
+        for (int from = 0; from < ids.size(); from += streamConfig.getClaimBatchSize()) {
+            List<String> batch = ids.subList(from, Math.min(ids.size(), from + streamConfig.getClaimBatchSize()));
+            redisTemplate.execute((RedisCallback<List<RecordId>>) connection -> connection.streamCommands()
+                    .xClaimJustId(key, consumerGroup, consumerName,
+                            RedisStreamCommands.XClaimOptions.minIdle(Duration.ZERO).ids(batch.toArray(String[]::new))));
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final PublicIdResolver idResolver;
     
     @Transactional
     public UserDto.Response createUser(UserDto.CreateRequest request) {
@@ -67,6 +68,7 @@ public class UserService {
         userMapper.updateUserFromDto(request, existingUser);
         
         User updatedUser = userRepository.save(existingUser);
+        idResolver.evictUser(updatedUser.getPublicId());
         
         log.info("사용자 수정 완료: id={}", updatedUser.getId());
         return userMapper.toResponseDto(updatedUser);
@@ -89,6 +91,7 @@ public class UserService {
         userMapper.updateUserFromDto(request, existingUser);
         
         User updatedUser = userRepository.save(existingUser);
+        idResolver.evictUser(publicId);
         
         log.info("사용자 수정 완료: publicId={}", updatedUser.getPublicId());
         return userMapper.toResponseDto(updatedUser);
@@ -188,11 +191,9 @@ public class UserService {
     public void deleteById(Integer id) {
         log.info("사용자 삭제 요청: id={}", id);
         
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("존재하지 않는 사용자입니다: " + id);
-        }
-        
-        userRepository.deleteById(id);
+        User user = findUserByIdOrThrow(id);
+        userRepository.delete(user);
+        idResolver.evictUser(user.getPublicId());
         log.info("사용자 삭제 완료: id={}", id);
     }
     
@@ -202,6 +203,7 @@ public class UserService {
         
         User user = findUserByPublicIdOrThrow(publicId);
         userRepository.delete(user);
+        idResolver.evictUser(publicId);
         log.info("사용자 삭제 완료: publicId={}", publicId);
     }
     
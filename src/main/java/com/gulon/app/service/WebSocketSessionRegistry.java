@@ -0,0 +1,130 @@
+package com.gulon.app.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 노드 로컬 WebSocket 세션/구독 레지스트리
+ * 그룹별 로컬 구독자 수와 사용자별 세션을 관리하고, 첫 구독/마지막 해제 같은 전이를 반환해
+ * 클러스터 라우팅(Redis 채널 구독, 사용자 라우팅 등록)을 필요한 순간에만 갱신하도록 한다.
+ */
+@Component
+public class WebSocketSessionRegistry {
+
+    private final Map<String, SessionEntry> sessions = new HashMap<>();
+    private final Map<String, Integer> groupSubscribers = new HashMap<>();
+    private final Map<String, Integer> userSessions = new HashMap<>();
+
+    /**
+     * 세션 등록 - 해당 사용자의 이 노드 첫 세션이면 true
+     */
+    public synchronized boolean registerSession(String sessionId, String userId) {
+        SessionEntry previous = sessions.putIfAbsent(sessionId, new SessionEntry(userId));
+        if (previous != null || userId == null) {
+            return false;
+        }
+        return userSessions.merge(userId, 1, Integer::sum) == 1;
+    }
+
+    /**
+     * 그룹 구독 등록 - 이 노드의 첫 구독자이면 true
+     */
+    public synchronized boolean addSubscription(String sessionId, String subscriptionId, String groupId) {
+        SessionEntry session = sessions.computeIfAbsent(sessionId, id -> new SessionEntry(null));
+        if (session.subscriptions.put(subscriptionId, groupId) != null) {
+            return false;
+        }
+        return groupSubscribers.merge(groupId, 1, Integer::sum) == 1;
+    }
+
+    /**
+     * 그룹 구독 해제 - 이 노드의 마지막 구독자였으면 해당 그룹 ID, 아니면 null
+     */
+    public synchronized String removeSubscription(String sessionId, String subscriptionId) {
+        SessionEntry session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        String groupId = session.subscriptions.remove(subscriptionId);
+        return groupId != null && decrement(groupSubscribers, groupId) ? groupId : null;
+    }
+
+    /**
+     * 세션 종료 - 구독자가 없어진 그룹과 세션이 모두 끊긴 사용자를 반환
+     */
+    public synchronized SessionRemoval removeSession(String sessionId) {
+        SessionEntry session = sessions.remove(sessionId);
+        if (session == null) {
+            return new SessionRemoval(List.of(), null);
+        }
+        List<String> emptiedGroups = new ArrayList<>();
+        for (String groupId : session.subscriptions.values()) {
+            if (decrement(groupSubscribers, groupId)) {
+                emptiedGroups.add(groupId);
+            }
+        }
+        String disconnectedUser = session.userId != null && decrement(userSessions, session.userId)
+                ? session.userId : null;
+        return new SessionRemoval(emptiedGroups, disconnectedUser);
+    }
+
+    /**
+     * 세션이 그룹 채팅 토픽을 구독 중인지 여부
+     */
+    public synchronized boolean isSubscribed(String sessionId, String groupId) {
+        SessionEntry session = sessions.get(sessionId);
+        return session != null && session.subscriptions.containsValue(groupId);
+    }
+
+    /**
+     * 세션 사용자 ID (Principal이 없는 세션이면 null)
+     */
+    public synchronized String userOf(String sessionId) {
+        SessionEntry session = sessions.get(sessionId);
+        return session != null ? session.userId : null;
+    }
+
+    public synchronized boolean hasLocalSubscribers(String groupId) {
+        return groupSubscribers.containsKey(groupId);
+    }
+
+    public synchronized Set<String> localGroups() {
+        return new HashSet<>(groupSubscribers.keySet());
+    }
+
+    public synchronized Set<String> localUsers() {
+        return new HashSet<>(userSessions.keySet());
+    }
+
+    private static boolean decrement(Map<String, Integer> counts, String key) {
+        Integer remaining = counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        return remaining == null;
+    }
+
+    private static class SessionEntry {
+        private final String userId;
+        private final Map<String, String> subscriptions = new HashMap<>(); // subscriptionId -> groupId
+
+        SessionEntry(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * 세션 종료 결과
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SessionRemoval {
+        private final List<String> emptiedGroups;
+        private final String disconnectedUser; // 이 노드에 남은 세션이 없는 사용자 (없으면 null)
+    }
+}
@@ -0,0 +1,16 @@
+-- 채팅 메시지 전문 검색 인덱스 (MySQL FULLTEXT + ngram parser)
+-- 애플리케이션 시작 시 자동 생성하지 않으므로 배포 전에 운영 절차로 한 번 실행한다.
+--
+-- 1. ngram_token_size는 서버 시작 옵션이며 chat.search.ngram-token-size와 같아야 한다 (기본 2)
+--      SHOW VARIABLES LIKE 'ngram_token_size';
+-- 2. 이미 있으면 건너뛴다
+--      SELECT COUNT(*) FROM information_schema.statistics
+--      WHERE table_schema = DATABASE() AND table_name = 'chat_message' AND index_name = 'ft_chat_content';
+-- 3. 테이블의 첫 FULLTEXT 인덱스는 FTS_DOC_ID 컬럼 추가로 테이블을 재구성하므로
+--    LOCK=SHARED(생성 중 쓰기 차단)로 실행된다 - 트래픽이 적은 시간에 실행하고, 대용량 테이블은
+--    gh-ost/pt-online-schema-change 등 온라인 스키마 변경 도구를 사용한다.
+--    생성 시 기존 메시지 전체가 색인되므로 별도 백필은 필요 없다.
+
+ALTER TABLE chat_message
+    ADD FULLTEXT INDEX ft_chat_content (content) WITH PARSER ngram,
+    ALGORITHM = INPLACE, LOCK = SHARED;